@@ -0,0 +1,204 @@
+package com.example.javaspring.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact Redis value codec: Smile-encoded values of explicitly registered types behind a small
+ * binary header, LZ4-compressed above a size threshold.
+ * <p>
+ * Header: format version (1 byte), flags (1 byte), type tag (2 bytes), schema version (1 byte),
+ * then the uncompressed length (4 bytes) if the payload is compressed. A value whose format,
+ * tag or schema version this node does not know fails to deserialize, which caches treat as a
+ * miss; during a rolling deploy each version simply ignores entries written by the other.
+ * <p>
+ * Besides single values, lists whose elements all have the same registered type are supported.
+ */
+public class BinaryRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte FLAG_COMPRESSED = 1;
+    private static final byte FLAG_LIST = 1 << 1;
+    private static final int EMPTY_LIST_TAG = 0;
+    private static final int MAX_PAYLOAD_SIZE = 64 * 1024 * 1024;
+
+    // The pure-Java implementation bounds-checks all input read back from Redis
+    private static final LZ4Factory LZ4 = LZ4Factory.safeInstance();
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, Registration> registrationsByType;
+    private final Map<Integer, Registration> registrationsByTag;
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor = LZ4.fastCompressor();
+    private final LZ4SafeDecompressor decompressor = LZ4.safeDecompressor();
+
+    private BinaryRedisSerializer(Builder builder) {
+        this.registrationsByType = Map.copyOf(builder.registrationsByType);
+        this.registrationsByTag = Map.copyOf(builder.registrationsByTag);
+        this.compressionThreshold = builder.compressionThreshold;
+        this.objectMapper = new ObjectMapper(new SmileFactory())
+                .registerModule(new JavaTimeModule())
+                // Added fields do not need a schema version bump
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+
+        boolean list = value instanceof List<?>;
+        Registration registration = list ? listRegistration((List<?>) value) : registration(value.getClass());
+
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not serialize " + value.getClass().getName(), e);
+        }
+
+        boolean compress = payload.length >= compressionThreshold;
+        byte[] body = compress ? compressor.compress(payload) : payload;
+
+        byte flags = (byte) ((compress ? FLAG_COMPRESSED : 0) | (list ? FLAG_LIST : 0));
+        ByteBuffer buffer = ByteBuffer.allocate(5 + (compress ? 4 : 0) + body.length)
+                .put(FORMAT_VERSION)
+                .put(flags)
+                .putShort((short) (registration != null ? registration.tag() : EMPTY_LIST_TAG))
+                .put((byte) (registration != null ? registration.schemaVersion() : 0));
+        if (compress) {
+            buffer.putInt(payload.length);
+        }
+        return buffer.put(body).array();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (bytes.length < 5 || buffer.get() != FORMAT_VERSION) {
+            throw new SerializationException("Unsupported Redis value format");
+        }
+
+        byte flags = buffer.get();
+        int tag = buffer.getShort() & 0xFFFF;
+        int schemaVersion = buffer.get() & 0xFF;
+        boolean list = (flags & FLAG_LIST) != 0;
+
+        if (list && tag == EMPTY_LIST_TAG) {
+            return List.of();
+        }
+
+        Registration registration = registrationsByTag.get(tag);
+        if (registration == null || registration.schemaVersion() != schemaVersion) {
+            throw new SerializationException("Unknown type tag " + tag + " with schema version " + schemaVersion);
+        }
+
+        try {
+            byte[] payload = bytes;
+            int offset = buffer.position();
+
+            if ((flags & FLAG_COMPRESSED) != 0) {
+                int length = buffer.getInt();
+                if (length < 0 || length > MAX_PAYLOAD_SIZE) {
+                    throw new SerializationException("Invalid uncompressed length " + length);
+                }
+                payload = decompressor.decompress(bytes, buffer.position(), buffer.remaining(), length);
+                offset = 0;
+            }
+
+            JavaType type = list
+                    ? objectMapper.getTypeFactory().constructCollectionType(List.class, registration.type())
+                    : objectMapper.constructType(registration.type());
+
+            return objectMapper.readValue(payload, offset, payload.length - offset, type);
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Could not deserialize " + registration.type().getName(), e);
+        }
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private Registration registration(Class<?> type) {
+        Registration registration = registrationsByType.get(type);
+        if (registration == null) {
+            throw new SerializationException("Type is not registered for Redis serialization: " + type.getName());
+        }
+        return registration;
+    }
+
+    private Registration listRegistration(List<?> values) {
+        if (values.isEmpty()) {
+            return null;
+        }
+
+        Class<?> elementType = values.get(0) != null ? values.get(0).getClass() : null;
+        for (Object value : values) {
+            if (value == null || value.getClass() != elementType) {
+                throw new SerializationException("Only lists of a single registered type can be serialized");
+            }
+        }
+        return registration(elementType);
+    }
+
+    private record Registration(int tag, Class<?> type, int schemaVersion) {
+    }
+
+    public static class Builder {
+
+        private final Map<Class<?>, Registration> registrationsByType = new HashMap<>();
+        private final Map<Integer, Registration> registrationsByTag = new HashMap<>();
+        private int compressionThreshold = 1024;
+
+        /**
+         * @param tag           stable id written instead of the class name; never reuse a tag
+         * @param schemaVersion bump on incompatible changes to the type (renamed or retyped fields)
+         */
+        public Builder register(int tag, Class<?> type, int schemaVersion) {
+            if (tag <= EMPTY_LIST_TAG || tag > 0xFFFF || schemaVersion < 0 || schemaVersion > 0xFF) {
+                throw new IllegalArgumentException("Tag must be in 1..65535 and schema version in 0..255");
+            }
+
+            Registration registration = new Registration(tag, type, schemaVersion);
+            if (registrationsByTag.putIfAbsent(tag, registration) != null
+                    || registrationsByType.putIfAbsent(type, registration) != null) {
+                throw new IllegalArgumentException("Duplicate registration for tag " + tag + " or " + type.getName());
+            }
+            return this;
+        }
+
+        /**
+         * Payloads of at least this many bytes are LZ4-compressed.
+         */
+        public Builder compressionThreshold(int compressionThreshold) {
+            this.compressionThreshold = compressionThreshold;
+            return this;
+        }
+
+        public BinaryRedisSerializer build() {
+            return new BinaryRedisSerializer(this);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.javaspring.cache;
+
+/**
+ * Names of the application caches. Entries hold response DTOs keyed by entity id.
+ * <p>
+ * Writes evict the entity's own entry; nested summaries of other entities (e.g. the assignee
+ * inside a cached task) are refreshed when the entry expires.
+ */
+public final class CacheNames {
+
+    public static final String TASKS = "tasks";
+    public static final String PROJECTS = "projects";
+    public static final String USERS = "users";
+    // Keyed by project generation rather than entity id, see ProjectListCache
+    public static final String PROJECT_LISTS = "project-lists";
+
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.javaspring.cache;
+
+import com.example.javaspring.entity.Comment;
+import com.example.javaspring.entity.Project;
+import com.example.javaspring.entity.Task;
+import com.example.javaspring.entity.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Version stamps of whole collections (all tasks, all projects, all users), shared by all nodes
+ * through Redis.
+ * <p>
+ * A stamp is incremented after every committed transaction that changed an entity appearing in
+ * the collection's responses, including embedded summaries: a renamed user changes the task
+ * list. Stamps make list ETags possible without running the list query; they are coarse, so any
+ * write to a collection invalidates every page of it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CollectionVersions implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener, PostCollectionRecreateEventListener, PostCollectionUpdateEventListener,
+        PostCollectionRemoveEventListener {
+
+    private static final String KEY_PREFIX = "collection_version:";
+
+    // Collections whose responses contain each entity type
+    private static final Map<Class<?>, List<String>> AFFECTED_COLLECTIONS = Map.of(
+            Task.class, List.of(CacheNames.TASKS, CacheNames.PROJECTS),
+            Comment.class, List.of(CacheNames.TASKS),
+            Project.class, List.of(CacheNames.PROJECTS, CacheNames.TASKS),
+            User.class, List.of(CacheNames.USERS, CacheNames.PROJECTS, CacheNames.TASKS)
+    );
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final StringRedisTemplate redisTemplate;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    /**
+     * @return the collection's current stamp, or empty if it cannot be read
+     */
+    public Optional<String> current(String collection) {
+        try {
+            String version = redisTemplate.opsForValue().get(KEY_PREFIX + collection);
+            return Optional.of(version != null ? version : "0");
+        } catch (DataAccessException e) {
+            // Without a stamp the response goes out without an ETag
+            log.debug("Could not read version of collection {}: {}", collection, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // ========== HIBERNATE EVENTS ==========
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        scheduleIncrement(event.getSession(), event.getPersister());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        scheduleIncrement(event.getSession(), event.getPersister());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        scheduleIncrement(event.getSession(), event.getPersister());
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        onCollectionChange(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        onCollectionChange(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        onCollectionChange(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        // Incrementing is deferred through the action queue instead
+        return false;
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void onCollectionChange(AbstractCollectionEvent event) {
+        String ownerEntityName = event.getAffectedOwnerEntityName();
+        if (ownerEntityName != null) {
+            scheduleIncrement(event.getSession(),
+                    event.getSession().getFactory().getMappingMetamodel().getEntityDescriptor(ownerEntityName));
+        }
+    }
+
+    private void scheduleIncrement(EventSource session, EntityPersister persister) {
+        List<String> collections = AFFECTED_COLLECTIONS.get(persister.getMappedClass());
+        if (collections == null) {
+            return;
+        }
+
+        // Increment only once the change is visible to the list queries of other nodes
+        session.getActionQueue().registerProcess((success, s) -> {
+            if (success) {
+                collections.forEach(this::increment);
+            }
+        });
+    }
+
+    private void increment(String collection) {
+        try {
+            redisTemplate.opsForValue().increment(KEY_PREFIX + collection);
+        } catch (DataAccessException e) {
+            // Clients holding a list ETag may see the old page until the next successful increment
+            log.warn("Could not increment version of collection {}: {}", collection, e.getMessage());
+        }
+    }
+}
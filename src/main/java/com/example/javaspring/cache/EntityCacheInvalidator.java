@@ -0,0 +1,244 @@
+package com.example.javaspring.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * Keeps the Hibernate second-level cache consistent across nodes.
+ * <p>
+ * Each node caches entities in its own JCache regions, where read-write concurrency only covers
+ * its own transactions. After a transaction that changed a cached entity or collection commits,
+ * the owning entity is published on {@value #CHANNEL} and every node evicts it, its cached
+ * collections and, if the natural id may have changed, its natural-id resolutions.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EntityCacheInvalidator implements MessageListener,
+        PostUpdateEventListener, PostDeleteEventListener, PostCollectionRecreateEventListener,
+        PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    public static final String CHANNEL = "entity-cache-invalidations";
+
+    // Message: entity name, id and whether natural-id resolutions must be dropped
+    private static final String SEPARATOR = "\n";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final List<BiConsumer<Class<?>, UUID>> evictionListeners = new CopyOnWriteArrayList<>();
+
+    private SessionFactoryImplementor sessionFactory;
+    private Map<String, List<String>> cachedCollectionRoles;
+
+    @PostConstruct
+    void register() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+        Map<String, List<String>> roles = new HashMap<>();
+        sessionFactory.getMappingMetamodel().forEachCollectionDescriptor(collection -> {
+            if (collection.hasCache()) {
+                roles.computeIfAbsent(collection.getOwnerEntityPersister().getEntityName(), k -> new ArrayList<>())
+                        .add(collection.getRole());
+            }
+        });
+        cachedCollectionRoles = Map.copyOf(roles);
+
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Notifies other per-node caches of the entity whenever it is evicted here.
+     */
+    public void addEvictionListener(BiConsumer<Class<?>, UUID> listener) {
+        evictionListeners.add(listener);
+    }
+
+    /**
+     * Evicts an entity whose row was changed behind Hibernate's back, e.g. by a plain JDBC update,
+     * on every node once the current transaction commits.
+     */
+    public void invalidate(Class<?> entityType, UUID id) {
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(entityType);
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+
+        String entityName = persister.getEntityName();
+        Runnable evict = () -> {
+            // Locally right away; the message reaches this node too, but only asynchronously
+            sessionFactory.getCache().evictEntityData(entityName, id);
+            publish(entityName + SEPARATOR + id + SEPARATOR + false);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+    }
+
+    // ========== HIBERNATE EVENTS ==========
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        EntityPersister persister = event.getPersister();
+        if (persister.canWriteToCache()) {
+            scheduleInvalidation(event.getSession(), persister.getEntityName(), event.getId(),
+                    naturalIdChanged(persister, event.getDirtyProperties()));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        EntityPersister persister = event.getPersister();
+        if (persister.canWriteToCache()) {
+            scheduleInvalidation(event.getSession(), persister.getEntityName(), event.getId(),
+                    persister.hasNaturalIdCache());
+        }
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        onCollectionChange(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        onCollectionChange(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        onCollectionChange(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        // Publishing is deferred through the action queue instead
+        return false;
+    }
+
+    // ========== INVALIDATION FROM ANY NODE ==========
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(SEPARATOR);
+        if (parts.length != 3) {
+            return;
+        }
+
+        String entityName = parts[0];
+        UUID id = UUID.fromString(parts[1]);
+        Cache cache = sessionFactory.getCache();
+
+        cache.evictEntityData(entityName, id);
+        for (String role : cachedCollectionRoles.getOrDefault(entityName, List.of())) {
+            cache.evictCollectionData(role, id);
+        }
+        if (Boolean.parseBoolean(parts[2])) {
+            cache.evictNaturalIdData(entityName);
+        }
+
+        Class<?> entityType = sessionFactory.getMappingMetamodel().getEntityDescriptor(entityName).getMappedClass();
+        evictionListeners.forEach(listener -> listener.accept(entityType, id));
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void onCollectionChange(AbstractCollectionEvent event) {
+        String role = event.getCollection().getRole();
+        if (role != null && event.getSession().getFactory().getMappingMetamodel()
+                .getCollectionDescriptor(role).hasCache()) {
+            scheduleInvalidation(event.getSession(), event.getAffectedOwnerEntityName(),
+                    event.getAffectedOwnerIdOrNull(), false);
+        }
+    }
+
+    private void scheduleInvalidation(EventSource session, String entityName, Object id, boolean naturalIdChanged) {
+        if (id == null) {
+            return;
+        }
+
+        // Publish only once the change is visible to other nodes' reloads
+        session.getActionQueue().registerProcess((success, s) -> {
+            if (success) {
+                publish(entityName + SEPARATOR + id + SEPARATOR + naturalIdChanged);
+            }
+        });
+    }
+
+    private void publish(String message) {
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, message);
+        } catch (DataAccessException e) {
+            // Other nodes fall back to the region TTL
+            log.warn("Could not publish entity cache invalidation: {}", e.getMessage());
+        }
+    }
+
+    private static boolean naturalIdChanged(EntityPersister persister, int[] dirtyProperties) {
+        if (!persister.hasNaturalIdCache() || dirtyProperties == null) {
+            return persister.hasNaturalIdCache();
+        }
+
+        for (int naturalIdProperty : persister.getNaturalIdentifierProperties()) {
+            for (int dirtyProperty : dirtyProperties) {
+                if (naturalIdProperty == dirtyProperty) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.javaspring.cache;
+
+import java.util.List;
+
+/**
+ * Hibernate second-level cache regions. Entries hold entity state and collection ids, keyed by
+ * entity id; they are kept consistent across nodes by {@link EntityCacheInvalidator}.
+ */
+public final class EntityCacheRegions {
+
+    public static final String USERS = "entity.users";
+    public static final String USER_ROLES = "entity.users.roles";
+    public static final String USER_BY_USERNAME = "entity.users.by-username";
+    public static final String PROJECTS = "entity.projects";
+    public static final String PROJECT_MEMBERS = "entity.projects.members";
+
+    public static final List<String> ALL = List.of(USERS, USER_ROLES, USER_BY_USERNAME, PROJECTS, PROJECT_MEMBERS);
+
+    private EntityCacheRegions() {
+    }
+}
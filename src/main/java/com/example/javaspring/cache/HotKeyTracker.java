@@ -0,0 +1,98 @@
+package com.example.javaspring.cache;
+
+import com.example.javaspring.util.CountMinSketch;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the most frequently accessed keys per keyspace (tasks, projects, users, Redis keys),
+ * e.g. a viral project that overloads one database row or Redis shard.
+ * <p>
+ * Accesses are counted in a count-min sketch whose counters are halved every decay interval, so
+ * counts reflect recent traffic. Keys whose estimate reaches the minimum count become heavy-hitter
+ * candidates; the candidate set is trimmed back to the top keys on every decay. Recording costs a
+ * few atomic increments and takes no locks.
+ */
+@Component
+public class HotKeyTracker {
+
+    public static final String TASK = "task";
+    public static final String PROJECT = "project";
+    public static final String USER = "user";
+    public static final String COMMENT = "comment";
+    public static final String REDIS = "redis";
+
+    private final CountMinSketch sketch;
+    private final long minCount;
+    private final int topK;
+    private final ConcurrentMap<HotKey, Boolean> candidates = new ConcurrentHashMap<>();
+
+    public HotKeyTracker(MeterRegistry meterRegistry,
+                         @Value("${app.hot-keys.epsilon:0.0001}") double epsilon,
+                         @Value("${app.hot-keys.delta:0.01}") double delta,
+                         @Value("${app.hot-keys.min-count:100}") long minCount,
+                         @Value("${app.hot-keys.top-k:20}") int topK) {
+        this.sketch = CountMinSketch.create(epsilon, delta);
+        this.minCount = minCount;
+        this.topK = topK;
+
+        Gauge.builder("hot_keys.candidates", candidates, Map::size)
+                .description("Keys currently tracked as possible heavy hitters")
+                .register(meterRegistry);
+    }
+
+    public void record(String keyspace, Object key) {
+        long hash = CountMinSketch.hash(keyspace, key);
+        long estimate = sketch.increment(hash);
+
+        // Checking the candidate map on every access of a hot key would make it the contention point
+        if (estimate == minCount || (estimate > minCount && (estimate & 0x3F) == 0)) {
+            candidates.putIfAbsent(new HotKey(keyspace, key.toString(), hash), Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Top keys per keyspace with their estimated access counts, hottest first.
+     */
+    public Map<String, List<HotKeyCount>> hotKeys() {
+        return candidates.keySet().stream()
+                .map(key -> new HotKeyCount(key.keyspace(), key.key(), sketch.estimate(key.hash())))
+                .filter(count -> count.estimate() >= minCount)
+                .sorted(Comparator.comparingLong(HotKeyCount::estimate).reversed())
+                .collect(Collectors.groupingBy(HotKeyCount::keyspace, LinkedHashMap::new,
+                        Collectors.collectingAndThen(Collectors.toList(),
+                                counts -> counts.subList(0, Math.min(topK, counts.size())))));
+    }
+
+    @Scheduled(fixedRateString = "${app.hot-keys.decay-interval-ms:60000}")
+    public void decay() {
+        sketch.decay();
+
+        candidates.keySet().removeIf(key -> sketch.estimate(key.hash()) < minCount);
+
+        // Keep a margin above top-k per keyspace so a key climbing into the top is not lost
+        Map<String, List<HotKey>> byKeyspace = candidates.keySet().stream()
+                .collect(Collectors.groupingBy(HotKey::keyspace));
+        byKeyspace.values().forEach(keys -> keys.stream()
+                .sorted(Comparator.comparingLong((HotKey key) -> sketch.estimate(key.hash())).reversed())
+                .skip(topK * 4L)
+                .forEach(candidates::remove));
+    }
+
+    private record HotKey(String keyspace, String key, long hash) {
+    }
+
+    public record HotKeyCount(String keyspace, String key, long estimate) {
+    }
+}
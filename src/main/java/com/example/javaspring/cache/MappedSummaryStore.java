@@ -0,0 +1,299 @@
+package com.example.javaspring.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Fixed-size hash table of small values in a memory-mapped file, keyed by entity id.
+ * <p>
+ * Entries live in the page cache rather than on the heap and survive restarts. The table uses
+ * open addressing with a short probe sequence; when all probed slots are taken, the oldest entry
+ * is overwritten. Each slot is checksummed, so a slot torn by a crash reads as a miss, and values
+ * are encoded with the Redis value codec, whose schema versions reject entries written by an
+ * incompatible release.
+ * <p>
+ * Layout: a {@value #HEADER_SIZE}-byte header (magic, format version, slot size, slot count,
+ * watermark), then slots of: state (1 byte), id (16), written-at millis (8), length (4),
+ * CRC-32 (4), payload.
+ */
+public class MappedSummaryStore<T> implements Closeable {
+
+    private static final int MAGIC = 0x54465343;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int WATERMARK_OFFSET = 16;
+    private static final int SLOT_HEADER_SIZE = 1 + 16 + 8 + 4 + 4;
+    private static final int MAX_PROBES = 8;
+
+    private static final byte EMPTY = 0;
+    private static final byte USED = 1;
+    private static final byte DELETED = 2;
+
+    private final Class<T> type;
+    private final RedisSerializer<Object> codec;
+    private final int slotSize;
+    private final int slotCount;
+    private final long ttlMillis;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long openedWatermark;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter oversized;
+
+    // Reads run concurrently; writes happen on misses only
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private MappedSummaryStore(String name, Path file, Class<T> type, RedisSerializer<Object> codec,
+                               int slotSize, int slotCount, Duration ttl, MeterRegistry meterRegistry)
+            throws IOException {
+        long size = HEADER_SIZE + (long) slotSize * slotCount;
+        if (slotSize <= SLOT_HEADER_SIZE || size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Slot size must exceed " + SLOT_HEADER_SIZE
+                    + " bytes and the file must stay below 2 GB");
+        }
+
+        this.type = type;
+        this.codec = codec;
+        this.slotSize = slotSize;
+        this.slotCount = slotCount;
+        this.ttlMillis = ttl.toMillis();
+
+        boolean existing = Files.exists(file) && Files.size(file) == size;
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (existing && !hasValidHeader(channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE))) {
+            existing = false;
+        }
+        if (!existing) {
+            // Zero-filled again, which marks every slot empty
+            channel.truncate(0);
+        }
+
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        if (existing) {
+            this.openedWatermark = buffer.getLong(WATERMARK_OFFSET);
+        } else {
+            buffer.putInt(0, MAGIC)
+                    .putInt(4, FORMAT_VERSION)
+                    .putInt(8, slotSize)
+                    .putInt(12, slotCount)
+                    .putLong(WATERMARK_OFFSET, 0);
+            this.openedWatermark = 0;
+        }
+
+        this.hits = gets(meterRegistry, name, "hit");
+        this.misses = gets(meterRegistry, name, "miss");
+        this.oversized = Counter.builder("summary_cache.oversized")
+                .description("Values too large for a slot, served without caching")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    public static <T> MappedSummaryStore<T> open(String name, Path file, Class<T> type, RedisSerializer<Object> codec,
+                                                 int slotSize, int slotCount, Duration ttl,
+                                                 MeterRegistry meterRegistry) throws IOException {
+        return new MappedSummaryStore<>(name, file, type, codec, slotSize, slotCount, ttl, meterRegistry);
+    }
+
+    public T get(UUID id, Supplier<T> loader) {
+        T value = lookup(id);
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+
+        misses.increment();
+        value = loader.get();
+        if (value != null) {
+            store(id, value);
+        }
+        return value;
+    }
+
+    public void evict(UUID id) {
+        lock.writeLock().lock();
+        try {
+            int slot = find(id);
+            if (slot >= 0) {
+                buffer.put(slotOffset(slot), DELETED);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Epoch millis up to which every change was applied when the file was last checkpointed;
+     * 0 for a new file.
+     */
+    public long openedWatermark() {
+        return openedWatermark;
+    }
+
+    public void checkpoint(long watermark) {
+        lock.writeLock().lock();
+        try {
+            buffer.putLong(WATERMARK_OFFSET, watermark);
+            buffer.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private T lookup(UUID id) {
+        byte[] payload;
+
+        lock.readLock().lock();
+        try {
+            int slot = find(id);
+            if (slot < 0) {
+                return null;
+            }
+
+            int offset = slotOffset(slot);
+            long writtenAt = buffer.getLong(offset + 17);
+            int length = buffer.getInt(offset + 25);
+            if (System.currentTimeMillis() - writtenAt > ttlMillis || length < 0 || length > slotSize - SLOT_HEADER_SIZE) {
+                return null;
+            }
+
+            payload = new byte[length];
+            buffer.get(offset + SLOT_HEADER_SIZE, payload);
+            if (crc(payload) != buffer.getInt(offset + 29)) {
+                return null;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        try {
+            Object value = codec.deserialize(payload);
+            return type.isInstance(value) ? type.cast(value) : null;
+        } catch (SerializationException e) {
+            // Written by a release with another schema version
+            return null;
+        }
+    }
+
+    private void store(UUID id, T value) {
+        byte[] payload = codec.serialize(value);
+        if (payload == null || payload.length > slotSize - SLOT_HEADER_SIZE) {
+            oversized.increment();
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            int slot = find(id);
+            if (slot < 0) {
+                slot = freeOrOldestSlot(id);
+            }
+
+            // Deleted while written, so a reader never matches a half-written slot
+            int offset = slotOffset(slot);
+            buffer.put(offset, DELETED)
+                    .putLong(offset + 1, id.getMostSignificantBits())
+                    .putLong(offset + 9, id.getLeastSignificantBits())
+                    .putLong(offset + 17, System.currentTimeMillis())
+                    .putInt(offset + 25, payload.length)
+                    .putInt(offset + 29, crc(payload))
+                    .put(offset + SLOT_HEADER_SIZE, payload)
+                    .put(offset, USED);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int find(UUID id) {
+        int home = home(id);
+        for (int i = 0; i < MAX_PROBES; i++) {
+            int slot = (home + i) % slotCount;
+            int offset = slotOffset(slot);
+            byte state = buffer.get(offset);
+            if (state == EMPTY) {
+                return -1;
+            }
+            if (state == USED
+                    && buffer.getLong(offset + 1) == id.getMostSignificantBits()
+                    && buffer.getLong(offset + 9) == id.getLeastSignificantBits()) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int freeOrOldestSlot(UUID id) {
+        int home = home(id);
+        int oldest = home;
+        long oldestWrittenAt = Long.MAX_VALUE;
+
+        for (int i = 0; i < MAX_PROBES; i++) {
+            int slot = (home + i) % slotCount;
+            int offset = slotOffset(slot);
+            if (buffer.get(offset) != USED) {
+                return slot;
+            }
+
+            long writtenAt = buffer.getLong(offset + 17);
+            if (writtenAt < oldestWrittenAt) {
+                oldest = slot;
+                oldestWrittenAt = writtenAt;
+            }
+        }
+        return oldest;
+    }
+
+    private int home(UUID id) {
+        long hash = id.getMostSignificantBits() ^ id.getLeastSignificantBits();
+        return (int) Math.floorMod(hash ^ (hash >>> 32), (long) slotCount);
+    }
+
+    private int slotOffset(int slot) {
+        return HEADER_SIZE + slot * slotSize;
+    }
+
+    private boolean hasValidHeader(MappedByteBuffer header) {
+        return header.getInt(0) == MAGIC
+                && header.getInt(4) == FORMAT_VERSION
+                && header.getInt(8) == slotSize
+                && header.getInt(12) == slotCount;
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static Counter gets(MeterRegistry meterRegistry, String name, String result) {
+        return Counter.builder("summary_cache.gets")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
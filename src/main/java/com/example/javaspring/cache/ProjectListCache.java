@@ -0,0 +1,126 @@
+package com.example.javaspring.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache of list query results scoped to a project, invalidated by generation rather than by key.
+ * <p>
+ * Every project has a generation counter in Redis that is embedded in the keys of its cached
+ * lists. A task or comment write in the project increments it once, which makes all of the
+ * project's cached lists unreachable at the same time, without scanning or deleting keys; the
+ * orphaned entries age out of {@link CacheNames#PROJECT_LISTS}. Nested summaries of users follow
+ * the same TTL-bounded staleness as the other caches.
+ */
+@Slf4j
+@Component
+public class ProjectListCache {
+
+    private static final String GENERATION_PREFIX = "project_generation:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+    private final Counter generationBumps;
+
+    // A task never moves to another project, so this mapping never goes stale
+    private final com.github.benmanes.caffeine.cache.Cache<UUID, UUID> projectIdsByTask = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .build();
+
+    public ProjectListCache(StringRedisTemplate redisTemplate, CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+        this.generationBumps = Counter.builder("project_list_cache.generation_bumps")
+                .description("Project generation increments, each invalidating all cached lists of a project")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param query  name of the list query, unique among the queries cached for a project
+     * @param params the query's parameters besides the project, with a stable {@code toString}
+     */
+    public <T> List<T> get(UUID projectId, String query, Object params, Supplier<List<T>> loader) {
+        String generation = generation(projectId);
+        Cache cache = cacheManager.getCache(CacheNames.PROJECT_LISTS);
+        if (generation == null || cache == null) {
+            record(query, "bypass");
+            return loader.get();
+        }
+
+        boolean[] loaded = {false};
+        List<T> result = cache.get(projectId + ":" + generation + ":" + query + ":" + params, () -> {
+            loaded[0] = true;
+            return loader.get();
+        });
+        record(query, loaded[0] ? "miss" : "hit");
+        return result;
+    }
+
+    /**
+     * Project of a task, looked up once per task.
+     */
+    public UUID projectIdOfTask(UUID taskId, Function<UUID, UUID> loader) {
+        return projectIdsByTask.get(taskId, loader);
+    }
+
+    /**
+     * Invalidates every cached list of the project once the current transaction commits.
+     */
+    public void invalidate(UUID projectId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bumpGeneration(projectId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bumpGeneration(projectId);
+            }
+        });
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private String generation(UUID projectId) {
+        try {
+            String generation = redisTemplate.opsForValue().get(GENERATION_PREFIX + projectId);
+            return generation != null ? generation : "0";
+        } catch (DataAccessException e) {
+            // Without the generation a cached list cannot be trusted
+            log.debug("Could not read generation of project {}: {}", projectId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void bumpGeneration(UUID projectId) {
+        try {
+            // No TTL: resetting a generation could revive lists cached under an older one
+            redisTemplate.opsForValue().increment(GENERATION_PREFIX + projectId);
+            generationBumps.increment();
+        } catch (DataAccessException e) {
+            log.warn("Could not increment generation of project {}; its cached lists expire by TTL: {}",
+                    projectId, e.getMessage());
+        }
+    }
+
+    private void record(String query, String result) {
+        meterRegistry.counter("project_list_cache.requests", "query", query, "result", result).increment();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.javaspring.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Per-node cache of serialized JSON responses, for read endpoints that opt in.
+ * <p>
+ * An entry holds the exact bytes of a response, optionally also gzipped, for one version of a
+ * resource. A hit is written out as-is, without loading the entity, mapping it or running
+ * Jackson. Versions change with every write to anything the response contains, so an entry is
+ * never served for another version; it is replaced on the first read after a write.
+ */
+@Component
+public class ResponseBodyCache {
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int gzipMinBytes;
+    private final Cache<String, Body> bodies;
+
+    public ResponseBodyCache(ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.response-cache.max-bytes:67108864}") long maxBytes,
+                             @Value("${app.response-cache.gzip-min-bytes:1024}") int gzipMinBytes) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.gzipMinBytes = gzipMinBytes;
+        this.bodies = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, Body body) -> body.size())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, bodies, "response-bodies");
+    }
+
+    /**
+     * @param resource     resource type, e.g. {@code "task"}
+     * @param version      version the body must belong to
+     * @param response     builds the response object on a miss
+     * @param acceptGzip   whether the client accepts {@code Content-Encoding: gzip}
+     */
+    public ResponseEntity<byte[]> respond(String resource, UUID id, String version,
+                                          Supplier<?> response, boolean acceptGzip) {
+        String key = resource + ":" + id;
+        Body body = bodies.getIfPresent(key);
+
+        if (body != null && body.version().equals(version)) {
+            record(resource, "hit");
+        } else {
+            record(resource, "miss");
+            body = serialize(version, response.get());
+            bodies.put(key, body);
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (acceptGzip && body.gzip() != null) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip());
+        }
+        return builder.body(body.json());
+    }
+
+    /**
+     * Whether an {@code Accept-Encoding} header value allows gzip.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private Body serialize(String version, Object response) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response);
+            return new Body(version, json, json.length >= gzipMinBytes ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private void record(String resource, String result) {
+        meterRegistry.counter("response_cache.requests", "resource", resource, "result", result).increment();
+    }
+
+    /**
+     * @param gzip compressed {@code json}, or {@code null} if it is too small to be worth it
+     */
+    private record Body(String version, byte[] json, byte[] gzip) {
+
+        int size() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+}
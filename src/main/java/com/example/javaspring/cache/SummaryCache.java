@@ -0,0 +1,154 @@
+package com.example.javaspring.cache;
+
+import com.example.javaspring.dto.response.ProjectSummaryResponse;
+import com.example.javaspring.dto.response.UserSummaryResponse;
+import com.example.javaspring.entity.Project;
+import com.example.javaspring.entity.User;
+import com.example.javaspring.repository.ProjectRepository;
+import com.example.javaspring.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Warm, restart-surviving cache of user and project summaries in memory-mapped files under
+ * {@code app.summary-cache.directory}; disabled when no directory is configured.
+ * <p>
+ * Entries are evicted when the entity changes on any node. On startup, entities updated after
+ * the file's watermark (minus a safety margin for in-flight transactions) are evicted before
+ * the file is used. Nested data, such as a project's owner or task count, and deleted entities
+ * are bounded by the entry TTL, like the other near caches.
+ */
+@Slf4j
+@Component
+public class SummaryCache {
+
+    private final BinaryRedisSerializer codec;
+    private final UserRepository userRepository;
+    private final ProjectRepository projectRepository;
+    private final EntityCacheInvalidator entityCacheInvalidator;
+    private final MeterRegistry meterRegistry;
+    private final String directory;
+    private final int slotSize;
+    private final int userSlots;
+    private final int projectSlots;
+    private final Duration ttl;
+    private final Duration watermarkMargin;
+
+    private MappedSummaryStore<UserSummaryResponse> users;
+    private MappedSummaryStore<ProjectSummaryResponse> projects;
+
+    public SummaryCache(BinaryRedisSerializer redisValueSerializer,
+                        UserRepository userRepository,
+                        ProjectRepository projectRepository,
+                        EntityCacheInvalidator entityCacheInvalidator,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.summary-cache.directory:}") String directory,
+                        @Value("${app.summary-cache.slot-size-bytes:512}") int slotSize,
+                        @Value("${app.summary-cache.user-slots:262144}") int userSlots,
+                        @Value("${app.summary-cache.project-slots:65536}") int projectSlots,
+                        @Value("${app.summary-cache.ttl-seconds:3600}") long ttlSeconds,
+                        @Value("${app.summary-cache.watermark-margin-seconds:300}") long watermarkMarginSeconds) {
+        this.codec = redisValueSerializer;
+        this.userRepository = userRepository;
+        this.projectRepository = projectRepository;
+        this.entityCacheInvalidator = entityCacheInvalidator;
+        this.meterRegistry = meterRegistry;
+        this.directory = directory;
+        this.slotSize = slotSize;
+        this.userSlots = userSlots;
+        this.projectSlots = projectSlots;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.watermarkMargin = Duration.ofSeconds(watermarkMarginSeconds);
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        if (directory.isBlank()) {
+            log.info("Summary cache disabled: app.summary-cache.directory is not set");
+            return;
+        }
+
+        Path dir = Files.createDirectories(Path.of(directory));
+        users = MappedSummaryStore.open("user-summaries", dir.resolve("user-summaries.bin"),
+                UserSummaryResponse.class, codec, slotSize, userSlots, ttl, meterRegistry);
+        projects = MappedSummaryStore.open("project-summaries", dir.resolve("project-summaries.bin"),
+                ProjectSummaryResponse.class, codec, slotSize, projectSlots, ttl, meterRegistry);
+
+        evictUpdatedSince(users, userRepository::findIdsUpdatedAfter);
+        evictUpdatedSince(projects, projectRepository::findIdsUpdatedAfter);
+
+        entityCacheInvalidator.addEvictionListener((entityType, id) -> {
+            if (entityType == User.class) {
+                users.evict(id);
+            } else if (entityType == Project.class) {
+                projects.evict(id);
+            }
+        });
+    }
+
+    public UserSummaryResponse user(UUID id, Supplier<UserSummaryResponse> loader) {
+        return users != null ? users.get(id, loader) : loader.get();
+    }
+
+    public ProjectSummaryResponse project(UUID id, Supplier<ProjectSummaryResponse> loader) {
+        return projects != null ? projects.get(id, loader) : loader.get();
+    }
+
+    /**
+     * Records that every change committed before now has been applied to the files.
+     */
+    @Scheduled(fixedDelayString = "${app.summary-cache.checkpoint-interval-ms:60000}")
+    public void checkpoint() {
+        if (users == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        users.checkpoint(now);
+        projects.checkpoint(now);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (users == null) {
+            return;
+        }
+
+        checkpoint();
+        users.close();
+        projects.close();
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void evictUpdatedSince(MappedSummaryStore<?> store,
+                                   Function<LocalDateTime, List<UUID>> updatedIds) {
+        if (store.openedWatermark() == 0) {
+            return;
+        }
+
+        // A change stamped before the checkpoint may have committed, and been published, after it
+        Instant since = Instant.ofEpochMilli(store.openedWatermark()).minus(watermarkMargin);
+        List<UUID> ids = updatedIds.apply(LocalDateTime.ofInstant(since, ZoneId.systemDefault()));
+        ids.forEach(store::evict);
+
+        log.info("Summary cache opened; evicted {} entries changed since {}", ids.size(), since);
+    }
+}
@@ -0,0 +1,568 @@
+package com.example.javaspring.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Cache backed by a per-node Caffeine cache (L1) in front of Redis (L2).
+ * <p>
+ * Reads try L1, then L2, then the loader, filling the levels on the way back. Evictions remove
+ * the entry from both levels and are published so every other node drops its L1 copy. A value
+ * loaded while an eviction happened on this node is returned but not cached. Evictions also bump
+ * a generation per key in Redis (and clears one per cache), and a loaded value is written to
+ * Redis only if the generations are still those read before the load, so a load that read the
+ * old row on one node cannot overwrite another node's eviction before its message arrives.
+ * <p>
+ * Concurrent misses for a key on this node share one load. Hot entries are also refreshed
+ * shortly before they expire (probabilistic early expiration, "XFetch"): the closer an entry
+ * is to expiry and the longer it took to load, the likelier a read is to refresh it, while
+ * other readers keep getting the current value instead of waiting on an expired key.
+ * <p>
+ * Both levels are refreshed this way. The local level re-reads Redis. The Redis entry stores how
+ * long the loader took and when the entry expires, and a read that decides to recompute it goes
+ * to the loader, holding a short Redis lock per key so only one node does. On a Redis miss the
+ * lock holder loads while other nodes briefly wait for its value.
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    // Bounds how long one node's load blocks the key for others, and how long they wait for it
+    private static final Duration LOAD_LOCK_TTL = Duration.ofSeconds(5);
+    private static final Duration LOAD_WAIT = Duration.ofSeconds(1);
+    private static final Duration LOAD_POLL_INTERVAL = Duration.ofMillis(25);
+    private static final RedisSerializer<String> STRINGS = new StringRedisSerializer();
+    private static final RedisSerializer<Long> LONGS = new GenericToStringSerializer<>(Long.class);
+    private static final RedisSerializer<byte[]> BYTES = RedisSerializer.byteArray();
+    private static final byte[] NO_GENERATION = new byte[0];
+
+    private static final RedisScript<Long> PUT_IF_CURRENT_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/cache_put_if_current.lua"), Long.class);
+    private static final RedisScript<Long> EVICT_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/cache_evict.lua"), Long.class);
+
+    // Releases the load lock only if this caller still holds it
+    private static final RedisScript<Long> UNLOCK_SCRIPT = RedisScript.of(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, LocalEntry> localCache;
+    private final Duration localTtl;
+    private final double earlyRefreshBeta;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisSerializer<Object> valueSerializer;
+    private final Duration remoteTtl;
+    private final Consumer<String> invalidationPublisher;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter invalidationCounter;
+    private final Counter loads;
+    private final Counter coalescedLoads;
+    private final Counter earlyRefreshes;
+    private final Counter earlyRecomputes;
+
+    // Bumped on every eviction; a load that raced with one must not be cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // Keys with an early refresh in progress; other readers keep the current value meanwhile
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    @SuppressWarnings("unchecked")
+    public TwoLevelCache(String name,
+                         long localMaxSize,
+                         Duration localTtl,
+                         double earlyRefreshBeta,
+                         RedisTemplate<String, Object> redisTemplate,
+                         Duration remoteTtl,
+                         Consumer<String> invalidationPublisher,
+                         MeterRegistry meterRegistry) {
+        super(false);
+        this.name = name;
+        this.localTtl = localTtl;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.redisTemplate = redisTemplate;
+        this.valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        this.remoteTtl = remoteTtl;
+        this.invalidationPublisher = invalidationPublisher;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                // Bounds staleness if an invalidation message is ever lost
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, name, "tier", "l1");
+        this.remoteHits = remoteGets(meterRegistry, "hit");
+        this.remoteMisses = remoteGets(meterRegistry, "miss");
+        this.invalidationCounter = Counter.builder("cache.invalidations")
+                .description("Explicit evictions published to all nodes")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.loads = loadCounter(meterRegistry, "loaded");
+        this.coalescedLoads = loadCounter(meterRegistry, "coalesced");
+        this.earlyRefreshes = earlyRefreshCounter(meterRegistry, "l1");
+        this.earlyRecomputes = earlyRefreshCounter(meterRegistry, "l2");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return localCache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String cacheKey = key.toString();
+        LocalEntry entry = localCache.getIfPresent(cacheKey);
+        if (entry != null) {
+            return entry.value();
+        }
+
+        long invalidationsBefore = invalidations.get();
+        long startedAt = System.nanoTime();
+        RemoteEntry remote = getRemote(cacheKey);
+        if (remote == null) {
+            return null;
+        }
+        if (invalidations.get() == invalidationsBefore) {
+            localCache.put(cacheKey, newEntry(remote.value(), System.nanoTime() - startedAt));
+        }
+        return remote.value();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String cacheKey = key.toString();
+        LocalEntry entry = localCache.getIfPresent(cacheKey);
+
+        if (entry != null) {
+            if (entry.shouldRefreshEarly(earlyRefreshBeta) && refreshing.add(cacheKey)) {
+                try {
+                    return (T) refresh(cacheKey, valueLoader);
+                } finally {
+                    refreshing.remove(cacheKey);
+                }
+            }
+            return (T) entry.value();
+        }
+
+        long invalidationsBefore = invalidations.get();
+        boolean[] loadedHere = {false};
+
+        // Caffeine runs at most one load per key on this node at a time
+        LocalEntry loaded = localCache.get(cacheKey, k -> {
+            loadedHere[0] = true;
+            return loadThrough(k, valueLoader, invalidationsBefore);
+        });
+        (loadedHere[0] ? loads : coalescedLoads).increment();
+
+        if (invalidations.get() != invalidationsBefore) {
+            localCache.invalidate(cacheKey);
+        }
+        return loaded != null ? (T) loaded.value() : null;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+
+        String cacheKey = key.toString();
+        localCache.put(cacheKey, newEntry(value, 0));
+        putRemote(cacheKey, value, 0, null);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String cacheKey = key.toString();
+
+        evictLocal(cacheKey);
+        try {
+            // The generation outlives any load that could still write the old value
+            redisTemplate.execute(EVICT_SCRIPT, STRINGS, LONGS, List.of(remoteKey(cacheKey), generationKey(cacheKey)),
+                    String.valueOf(remoteTtl.toMillis()));
+        } catch (DataAccessException e) {
+            log.warn("Could not evict {} from remote cache {}: {}", cacheKey, name, e.getMessage());
+        }
+
+        invalidationCounter.increment();
+        invalidationPublisher.accept(cacheKey);
+    }
+
+    @Override
+    public void clear() {
+        clearLocal();
+        try {
+            redisTemplate.opsForValue().increment(cacheGenerationKey());
+            List<String> keys = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions().match(remoteKey("*")).count(1000).build();
+            try (Cursor<String> cursor = redisTemplate.scan(options)) {
+                cursor.forEachRemaining(keys::add);
+            }
+            if (!keys.isEmpty()) {
+                redisTemplate.delete(keys);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not clear remote cache {}: {}", name, e.getMessage());
+        }
+
+        invalidationCounter.increment();
+        invalidationPublisher.accept(null);
+    }
+
+    // ========== INVALIDATION FROM OTHER NODES ==========
+
+    void evictLocal(String cacheKey) {
+        invalidations.incrementAndGet();
+        localCache.invalidate(cacheKey);
+    }
+
+    void clearLocal() {
+        invalidations.incrementAndGet();
+        localCache.invalidateAll();
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private Object refresh(String cacheKey, Callable<?> valueLoader) {
+        earlyRefreshes.increment();
+
+        long invalidationsBefore = invalidations.get();
+        LocalEntry refreshed = loadThrough(cacheKey, valueLoader, invalidationsBefore);
+        if (refreshed == null) {
+            localCache.invalidate(cacheKey);
+            return null;
+        }
+
+        if (invalidations.get() == invalidationsBefore) {
+            localCache.put(cacheKey, refreshed);
+        }
+        return refreshed.value();
+    }
+
+    private LocalEntry loadThrough(String cacheKey, Callable<?> valueLoader, long invalidationsBefore) {
+        long startedAt = System.nanoTime();
+        RemoteEntry remote = getRemote(cacheKey);
+
+        if (remote != null) {
+            // Only the node holding the lock recomputes; everyone else keeps serving the current value
+            if (remote.shouldRecomputeEarly(earlyRefreshBeta)) {
+                String lockToken = tryLock(cacheKey);
+                if (lockToken != null) {
+                    try {
+                        earlyRecomputes.increment();
+                        Object value = load(cacheKey, valueLoader, invalidationsBefore);
+                        return value != null ? newEntry(value, System.nanoTime() - startedAt) : null;
+                    } catch (ValueRetrievalException e) {
+                        // The current value is still valid; the next read near expiry tries again
+                        log.debug("Early recompute of {} in cache {} failed: {}", cacheKey, name, e.getMessage());
+                        return newEntry(remote.value(), System.nanoTime() - startedAt);
+                    } finally {
+                        unlock(cacheKey, lockToken);
+                    }
+                }
+            }
+            return newEntry(remote.value(), System.nanoTime() - startedAt);
+        }
+
+        String lockToken = tryLock(cacheKey);
+        if (lockToken == null) {
+            // Another node is loading the key; take its value rather than hitting the database as well
+            remote = awaitRemote(cacheKey);
+            if (remote != null) {
+                return newEntry(remote.value(), System.nanoTime() - startedAt);
+            }
+        }
+
+        try {
+            Object value = load(cacheKey, valueLoader, invalidationsBefore);
+            return value != null ? newEntry(value, System.nanoTime() - startedAt) : null;
+        } finally {
+            if (lockToken != null) {
+                unlock(cacheKey, lockToken);
+            }
+        }
+    }
+
+    private Object load(String cacheKey, Callable<?> valueLoader, long invalidationsBefore) {
+        // Read before the loader, so an eviction on any node while it runs is detected
+        Generation generation = getGeneration(cacheKey);
+        long startedAt = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(cacheKey, valueLoader, e);
+        }
+
+        if (value != null && generation != null && invalidations.get() == invalidationsBefore) {
+            putRemote(cacheKey, value, System.nanoTime() - startedAt, generation);
+        }
+        return value;
+    }
+
+    private RemoteEntry awaitRemote(String cacheKey) {
+        long deadline = System.nanoTime() + LOAD_WAIT.toNanos();
+        try {
+            while (System.nanoTime() < deadline) {
+                Thread.sleep(LOAD_POLL_INTERVAL.toMillis());
+                RemoteEntry remote = getRemote(cacheKey);
+                if (remote != null) {
+                    return remote;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // The other load is slow or failed; load here instead
+        return null;
+    }
+
+    private LocalEntry newEntry(Object value, long loadNanos) {
+        return new LocalEntry(value, loadNanos, System.nanoTime() + localTtl.toNanos());
+    }
+
+    private RemoteEntry getRemote(String cacheKey) {
+        try {
+            byte[] bytes = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                    connection.stringCommands().get(utf8(remoteKey(cacheKey))));
+            RemoteEntry entry = RemoteEntry.decode(bytes, valueSerializer);
+            (entry != null ? remoteHits : remoteMisses).increment();
+            return entry;
+        } catch (DataAccessException e) {
+            // Redis is an optimization here; fall through to the database
+            log.debug("Remote cache {} unavailable: {}", name, e.getMessage());
+            remoteMisses.increment();
+            return null;
+        } catch (SerializationException e) {
+            // Typically an entry written with another schema version during a rolling deploy
+            log.debug("Ignoring unreadable entry {} in remote cache {}: {}", cacheKey, name, e.getMessage());
+            remoteMisses.increment();
+            return null;
+        }
+    }
+
+    /**
+     * @return generations of the key and the cache, or {@code null} if Redis is unavailable
+     */
+    private Generation getGeneration(String cacheKey) {
+        try {
+            List<byte[]> values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                    connection.stringCommands().mGet(utf8(generationKey(cacheKey)), utf8(cacheGenerationKey())));
+            if (values == null || values.size() != 2) {
+                return null;
+            }
+            return new Generation(orNoGeneration(values.get(0)), orNoGeneration(values.get(1)));
+        } catch (DataAccessException e) {
+            log.debug("Could not read generation of {} in remote cache {}: {}", cacheKey, name, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @param generation generations read before the value was loaded, or {@code null} to write unconditionally
+     */
+    private void putRemote(String cacheKey, Object value, long computeNanos, Generation generation) {
+        try {
+            byte[] bytes = RemoteEntry.encode(value, computeNanos, System.currentTimeMillis() + remoteTtl.toMillis(),
+                    valueSerializer);
+            if (generation == null) {
+                redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands()
+                        .set(utf8(remoteKey(cacheKey)), bytes, Expiration.from(remoteTtl), SetOption.upsert()));
+                return;
+            }
+
+            Long written = redisTemplate.execute(PUT_IF_CURRENT_SCRIPT, BYTES, LONGS,
+                    List.of(remoteKey(cacheKey), generationKey(cacheKey), cacheGenerationKey()),
+                    generation.key(), generation.cache(), bytes, utf8(String.valueOf(remoteTtl.toMillis())));
+            if (written == null || written == 0) {
+                log.debug("Not writing {} to remote cache {}: evicted while loading", cacheKey, name);
+            }
+        } catch (DataAccessException e) {
+            log.debug("Could not write {} to remote cache {}: {}", cacheKey, name, e.getMessage());
+        } catch (SerializationException e) {
+            // The value stays in the local level only
+            log.warn("Could not serialize {} for remote cache {}: {}", cacheKey, name, e.getMessage());
+        }
+    }
+
+    /**
+     * @return token identifying this holder, or {@code null} if another caller holds the lock
+     */
+    private String tryLock(String cacheKey) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands()
+                    .set(utf8(lockKey(cacheKey)), utf8(token), Expiration.from(LOAD_LOCK_TTL), SetOption.ifAbsent()));
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (DataAccessException e) {
+            // Without Redis there is nobody to coordinate with; load here
+            return token;
+        }
+    }
+
+    private void unlock(String cacheKey, String token) {
+        try {
+            redisTemplate.execute(UNLOCK_SCRIPT, STRINGS, LONGS, List.of(lockKey(cacheKey)), token);
+        } catch (DataAccessException e) {
+            // The lock expires on its own
+            log.debug("Could not release load lock of {} in cache {}: {}", cacheKey, name, e.getMessage());
+        }
+    }
+
+    private String remoteKey(String cacheKey) {
+        return "cache:" + name + "::" + cacheKey;
+    }
+
+    private String lockKey(String cacheKey) {
+        return "cache-lock:" + name + "::" + cacheKey;
+    }
+
+    private String generationKey(String cacheKey) {
+        return "cache-gen:" + name + "::" + cacheKey;
+    }
+
+    private String cacheGenerationKey() {
+        return "cache-gen:" + name;
+    }
+
+    private static byte[] orNoGeneration(byte[] generation) {
+        return generation != null ? generation : NO_GENERATION;
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Counter earlyRefreshCounter(MeterRegistry meterRegistry, String tier) {
+        return Counter.builder("cache.early_refreshes")
+                .description("Entries reloaded before they expired; l1 re-reads Redis, l2 runs the loader")
+                .tag("cache", name)
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+
+    private Counter loadCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cache.loads")
+                .description("Local misses that ran the load themselves or waited for another caller's load")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Counter remoteGets(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cache.gets")
+                .tag("cache", name)
+                .tag("tier", "l2")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param loadNanos      time the value took to fill the local level, which scales how early it is refreshed
+     * @param expiresAtNanos {@link System#nanoTime()} at which the local level drops the entry
+     */
+    private record LocalEntry(Object value, long loadNanos, long expiresAtNanos) {
+
+        boolean shouldRefreshEarly(double beta) {
+            // -ln(U) is exponentially distributed, so refreshes spread out ahead of the expiry
+            double headStart = loadNanos * beta * -Math.log(ThreadLocalRandom.current().nextDouble());
+            return System.nanoTime() + headStart >= expiresAtNanos;
+        }
+    }
+
+    /**
+     * Generations of a key and of its cache as read from Redis; empty when never bumped.
+     */
+    private record Generation(byte[] key, byte[] cache) {
+    }
+
+    /**
+     * Redis entry: the serialized value behind a header with the loader's compute time and the
+     * wall-clock expiry, which every node needs for its early-recompute decision.
+     * <p>
+     * Header: marker (1 byte), compute time in milliseconds (4 bytes), expiry in epoch milliseconds
+     * (8 bytes). The marker never starts a value of the value serializer, so nodes without this
+     * header treat such entries as unreadable, i.e. as misses, during a rolling deploy. Values
+     * without the header are read as entries that are never recomputed early.
+     */
+    private record RemoteEntry(Object value, long computeMillis, long expiresAtMillis) {
+
+        private static final byte MARKER = (byte) 0xE1;
+        private static final int HEADER_LENGTH = 13;
+
+        static byte[] encode(Object value, long computeNanos, long expiresAtMillis, RedisSerializer<Object> serializer) {
+            byte[] payload = serializer.serialize(value);
+            int computeMillis = (int) Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMillis(computeNanos));
+            return ByteBuffer.allocate(HEADER_LENGTH + payload.length)
+                    .put(MARKER)
+                    .putInt(computeMillis)
+                    .putLong(expiresAtMillis)
+                    .put(payload)
+                    .array();
+        }
+
+        static RemoteEntry decode(byte[] bytes, RedisSerializer<Object> serializer) {
+            if (bytes == null || bytes.length == 0) {
+                return null;
+            }
+            if (bytes[0] != MARKER || bytes.length < HEADER_LENGTH) {
+                Object value = serializer.deserialize(bytes);
+                return value != null ? new RemoteEntry(value, 0, Long.MAX_VALUE) : null;
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            buffer.get();
+            int computeMillis = buffer.getInt();
+            long expiresAtMillis = buffer.getLong();
+            byte[] payload = new byte[buffer.remaining()];
+            buffer.get(payload);
+
+            Object value = serializer.deserialize(payload);
+            return value != null ? new RemoteEntry(value, computeMillis, expiresAtMillis) : null;
+        }
+
+        boolean shouldRecomputeEarly(double beta) {
+            double headStart = computeMillis * beta * -Math.log(ThreadLocalRandom.current().nextDouble());
+            return System.currentTimeMillis() + headStart >= expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.javaspring.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Creates {@link TwoLevelCache}s and relays their evictions between nodes over {@value #CHANNEL}.
+ * <p>
+ * Caches are transaction aware: evictions issued inside a transaction run after it commits,
+ * so no node can reload the old row and cache it again.
+ */
+@Slf4j
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager implements MessageListener {
+
+    public static final String CHANNEL = "cache-invalidations";
+
+    // Separates cache name and key in invalidation messages; a message without key clears the cache
+    private static final char SEPARATOR = '\n';
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+    private final Collection<String> cacheNames;
+    private final long localMaxSize;
+    private final Duration localTtl;
+    private final double earlyRefreshBeta;
+    private final Duration remoteTtl;
+
+    public TwoLevelCacheManager(RedisTemplate<String, Object> redisTemplate,
+                                StringRedisTemplate stringRedisTemplate,
+                                RedisMessageListenerContainer listenerContainer,
+                                MeterRegistry meterRegistry,
+                                Collection<String> cacheNames,
+                                long localMaxSize,
+                                Duration localTtl,
+                                double earlyRefreshBeta,
+                                Duration remoteTtl) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.meterRegistry = meterRegistry;
+        this.cacheNames = List.copyOf(cacheNames);
+        this.localMaxSize = localMaxSize;
+        this.localTtl = localTtl;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.remoteTtl = remoteTtl;
+        setTransactionAware(true);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return cacheNames.stream().map(this::createCache).toList();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createCache(name);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(SEPARATOR);
+        String cacheName = separator < 0 ? body : body.substring(0, separator);
+
+        // Unwrap the transaction-aware decorator to reach the local level
+        Cache cache = lookupCache(cacheName);
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        if (!(cache instanceof TwoLevelCache twoLevelCache)) {
+            return;
+        }
+
+        if (separator < 0) {
+            twoLevelCache.clearLocal();
+        } else {
+            twoLevelCache.evictLocal(body.substring(separator + 1));
+        }
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private TwoLevelCache createCache(String name) {
+        return new TwoLevelCache(name, localMaxSize, localTtl, earlyRefreshBeta, redisTemplate, remoteTtl,
+                key -> publishInvalidation(name, key), meterRegistry);
+    }
+
+    private void publishInvalidation(String cacheName, String key) {
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, key == null ? cacheName : cacheName + SEPARATOR + key);
+        } catch (DataAccessException e) {
+            log.warn("Could not publish invalidation for cache {}: {}", cacheName, e.getMessage());
+        }
+    }
+}
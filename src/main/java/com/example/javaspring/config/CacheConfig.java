@@ -0,0 +1,60 @@
+package com.example.javaspring.config;
+
+import com.example.javaspring.cache.BinaryRedisSerializer;
+import com.example.javaspring.cache.CacheNames;
+import com.example.javaspring.cache.TwoLevelCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(
+            RedisConnectionFactory connectionFactory,
+            BinaryRedisSerializer redisValueSerializer,
+            StringRedisTemplate stringRedisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.local.max-size:10000}") long localMaxSize,
+            @Value("${app.cache.local.ttl-seconds:60}") long localTtlSeconds,
+            @Value("${app.cache.local.early-refresh-beta:1.0}") double earlyRefreshBeta,
+            @Value("${app.cache.remote.ttl-seconds:600}") long remoteTtlSeconds) {
+
+        return new TwoLevelCacheManager(
+                cacheRedisTemplate(connectionFactory, redisValueSerializer),
+                stringRedisTemplate,
+                listenerContainer,
+                meterRegistry,
+                List.of(CacheNames.TASKS, CacheNames.PROJECTS, CacheNames.USERS, CacheNames.PROJECT_LISTS),
+                localMaxSize,
+                Duration.ofSeconds(localTtlSeconds),
+                earlyRefreshBeta,
+                Duration.ofSeconds(remoteTtlSeconds)
+        );
+    }
+
+    // Not a bean, so the general-purpose redisTemplate stays the only RedisTemplate<String, Object>
+    private static RedisTemplate<String, Object> cacheRedisTemplate(RedisConnectionFactory connectionFactory,
+                                                                    RedisSerializer<Object> valueSerializer) {
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(valueSerializer);
+        template.afterPropertiesSet();
+        return template;
+    }
+}
@@ -1,11 +1,71 @@
 package com.example.javaspring.config;
 
+import com.example.javaspring.cache.EntityCacheRegions;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.OptionalLong;
+
 @Configuration
 @EntityScan(basePackages = "com.example.javaspring.entity")
 @EnableJpaRepositories(basePackages = "com.example.javaspring.repository")
 public class DataConfig {
-}
\ No newline at end of file
+
+    /**
+     * Second-level cache backed by per-node Caffeine JCache regions. Only the regions in
+     * {@link EntityCacheRegions} exist; mapping a cache to any other region fails at startup.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(
+            @Value("${app.hibernate.cache.max-size:10000}") long maxSize,
+            @Value("${app.hibernate.cache.ttl-seconds:600}") long ttlSeconds) {
+
+        CacheManager cacheManager = secondLevelCacheManager(maxSize, Duration.ofSeconds(ttlSeconds));
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /**
+     * Lazy associations and collections not covered by an entity graph are loaded for up to
+     * this many owners per select, so mapping a list costs a bounded number of statements.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer batchFetchCustomizer(
+            @Value("${app.hibernate.batch-fetch-size:50}") int batchFetchSize) {
+        return properties -> properties.put(AvailableSettings.DEFAULT_BATCH_FETCH_SIZE, batchFetchSize);
+    }
+
+    private static CacheManager secondLevelCacheManager(long maxSize, Duration ttl) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager();
+
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        // Bounds staleness if an invalidation message is ever lost
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStatisticsEnabled(true);
+
+        for (String region : EntityCacheRegions.ALL) {
+            if (cacheManager.getCache(region) == null) {
+                cacheManager.createCache(region, configuration);
+            }
+        }
+        return cacheManager;
+    }
+}
@@ -1,33 +1,30 @@
 package com.example.javaspring.config;
 
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
-import com.fasterxml.jackson.annotation.PropertyAccessor;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.example.javaspring.cache.BinaryRedisSerializer;
+import com.example.javaspring.dto.response.CommentResponse;
+import com.example.javaspring.dto.response.ProjectResponse;
+import com.example.javaspring.dto.response.ProjectSummaryResponse;
+import com.example.javaspring.dto.response.TaskResponse;
+import com.example.javaspring.dto.response.TaskSummaryResponse;
+import com.example.javaspring.dto.response.UserResponse;
+import com.example.javaspring.dto.response.UserSummaryResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class RedisConfig {
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       BinaryRedisSerializer redisValueSerializer) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
-        // JSON serializer
-        Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer =
-                new Jackson2JsonRedisSerializer<>(Object.class);
-
-        ObjectMapper om = new ObjectMapper();
-        om.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
-        om.activateDefaultTyping(LaissezFaireSubTypeValidator.instance, ObjectMapper.DefaultTyping.NON_FINAL);
-        jackson2JsonRedisSerializer.setObjectMapper(om);
-
         // String serializer
         StringRedisSerializer stringRedisSerializer = new StringRedisSerializer();
 
@@ -35,12 +32,49 @@ public class RedisConfig {
         template.setKeySerializer(stringRedisSerializer);
         // Hash的key也采用String的序列化方式
         template.setHashKeySerializer(stringRedisSerializer);
-        // Value序列化方式采用jackson
-        template.setValueSerializer(jackson2JsonRedisSerializer);
-        // Hash的value序列化方式采用jackson
-        template.setHashValueSerializer(jackson2JsonRedisSerializer);
+        // Value序列化方式采用二进制编码
+        template.setValueSerializer(redisValueSerializer);
+        // Hash的value序列化方式采用二进制编码
+        template.setHashValueSerializer(redisValueSerializer);
 
         template.afterPropertiesSet();
         return template;
     }
+
+    /**
+     * Binary value codec. Only registered types can be stored; tags are written to Redis and
+     * must never be reused for another type.
+     */
+    @Bean
+    public BinaryRedisSerializer redisValueSerializer(
+            @Value("${app.redis.compression-threshold-bytes:1024}") int compressionThreshold) {
+        return BinaryRedisSerializer.builder()
+                .register(1, UserResponse.class, 1)
+                .register(2, UserSummaryResponse.class, 1)
+                .register(3, ProjectResponse.class, 1)
+                .register(4, ProjectSummaryResponse.class, 1)
+                .register(5, TaskResponse.class, 1)
+                .register(6, TaskSummaryResponse.class, 1)
+                .register(7, CommentResponse.class, 1)
+                .compressionThreshold(compressionThreshold)
+                .build();
+    }
+
+    /**
+     * Subscribes on startup unless {@code app.redis.listener.auto-startup} is false, which lets
+     * the context start without a Redis server, e.g. in the context-load test.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            @Value("${app.redis.listener.auto-startup:true}") boolean autoStartup) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer() {
+            @Override
+            public boolean isAutoStartup() {
+                return autoStartup;
+            }
+        };
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
 }
\ No newline at end of file
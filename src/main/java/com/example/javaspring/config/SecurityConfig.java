@@ -1,32 +1,70 @@
 package com.example.javaspring.config;
 
+import com.example.javaspring.security.CalibratedBCryptPasswordEncoder;
+import com.example.javaspring.security.JwtAuthenticationFilter;
+import com.example.javaspring.security.RateLimitFilter;
+import com.example.javaspring.security.RateLimiter;
+import com.example.javaspring.security.TokenVerifier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * Delegating encoder: new hashes use {@code app.security.password-hashing.algorithm} and
+     * carry an {@code {id}} prefix, existing unprefixed hashes are read as BCrypt. The BCrypt
+     * cost is calibrated to the target latency unless a fixed strength is configured.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.security.password-hashing.algorithm:bcrypt}") String algorithm,
+            @Value("${app.security.password-hashing.target-ms:100}") long targetMs,
+            @Value("${app.security.password-hashing.bcrypt-strength:0}") int bcryptStrength,
+            @Value("${app.security.password-hashing.min-bcrypt-strength:10}") int minBcryptStrength,
+            @Value("${app.security.password-hashing.max-bcrypt-strength:16}") int maxBcryptStrength) {
+
+        CalibratedBCryptPasswordEncoder bcrypt = bcryptStrength > 0
+                ? new CalibratedBCryptPasswordEncoder(bcryptStrength)
+                : CalibratedBCryptPasswordEncoder.calibrated(targetMs, minBcryptStrength, maxBcryptStrength);
+
+        Map<String, PasswordEncoder> encoders = Map.of(
+                "bcrypt", bcrypt,
+                "argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8()
+        );
+
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return passwordEncoder;
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           TokenVerifier tokenVerifier,
+                                           RateLimiter rateLimiter,
+                                           ObjectMapper objectMapper) throws Exception {
         http
                 // Disable CSRF for API
                 .csrf(AbstractHttpConfigurer::disable)
@@ -49,7 +87,10 @@ public class SecurityConfig {
                         ).permitAll()
 
                         // Admin endpoints
-                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/api/admin/**", "/actuator/hotkeys").hasRole("ADMIN")
+
+                        // Listings span every project and user; single reads are checked per resource
+                        .requestMatchers(HttpMethod.GET, "/api/tasks", "/api/projects", "/api/users").hasRole("ADMIN")
 
                         // All other requests need authentication
                         .anyRequest().authenticated()
@@ -60,6 +101,17 @@ public class SecurityConfig {
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
 
+                // Authenticate bearer tokens from their claims, without loading the user
+                .addFilterBefore(new JwtAuthenticationFilter(tokenVerifier), UsernamePasswordAuthenticationFilter.class)
+
+                // Throttle login and refresh per client before any hashing or token work
+                .addFilterBefore(new RateLimitFilter(rateLimiter, objectMapper), JwtAuthenticationFilter.class)
+
+                // Respond 401 instead of 403 when no valid token was presented
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+                )
+
                 // Configure headers (исправить deprecated)
                 .headers(headers -> headers
                         .frameOptions(frameOptions -> frameOptions.sameOrigin()) // Исправлено
@@ -0,0 +1,27 @@
+package com.example.javaspring.controller;
+
+import com.example.javaspring.dto.response.ApiResponse;
+import com.example.javaspring.exception.ServiceUnavailableException;
+import com.example.javaspring.service.impl.UserUniquenessFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final UserUniquenessFilter userUniquenessFilter;
+
+    @PostMapping("/user-uniqueness-filter/rebuild")
+    public ResponseEntity<ApiResponse<Long>> rebuildUserUniquenessFilter() {
+        long users = userUniquenessFilter.rebuild();
+        if (users < 0) {
+            throw new ServiceUnavailableException("Could not rebuild the user uniqueness filter", 60);
+        }
+        return ResponseEntity.ok(ApiResponse.success("User uniqueness filter rebuilt", users));
+    }
+}
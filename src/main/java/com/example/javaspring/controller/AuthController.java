@@ -0,0 +1,63 @@
+package com.example.javaspring.controller;
+
+import com.example.javaspring.dto.request.LoginRequest;
+import com.example.javaspring.dto.request.RefreshTokenRequest;
+import com.example.javaspring.dto.request.UserCreateRequest;
+import com.example.javaspring.dto.response.ApiResponse;
+import com.example.javaspring.dto.response.AuthResponse;
+import com.example.javaspring.service.AuthService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+public class AuthController {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final AuthService authService;
+
+    @PostMapping("/login")
+    public ResponseEntity<ApiResponse<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
+        return ResponseEntity.ok(ApiResponse.success("Login successful", authService.login(request)));
+    }
+
+    @PostMapping("/register")
+    public ResponseEntity<ApiResponse<AuthResponse>> register(@Valid @RequestBody UserCreateRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Registration successful", authService.register(request)));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<AuthResponse>> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(authService.refreshToken(request)));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        authService.logout(resolveToken(authorization));
+        return ResponseEntity.ok(ApiResponse.success("Logged out", null));
+    }
+
+    @PostMapping("/logout-all")
+    public ResponseEntity<ApiResponse<Void>> logoutEverywhere(
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        authService.logoutEverywhere(authService.extractUsernameFromToken(resolveToken(authorization)));
+        return ResponseEntity.ok(ApiResponse.success("Logged out of all sessions", null));
+    }
+
+    private String resolveToken(String authorization) {
+        return authorization.startsWith(BEARER_PREFIX)
+                ? authorization.substring(BEARER_PREFIX.length()).trim()
+                : authorization;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.javaspring.controller;
+
+import com.example.javaspring.cache.ResponseBodyCache;
+import com.example.javaspring.dto.response.ApiResponse;
+import com.example.javaspring.dto.response.CursorPageResponse;
+import com.example.javaspring.dto.response.PageResponse;
+import com.example.javaspring.dto.response.ProjectResponse;
+import com.example.javaspring.enums.TotalMode;
+import com.example.javaspring.exception.AccessDeniedException;
+import com.example.javaspring.exception.ResourceNotFoundException;
+import com.example.javaspring.security.AuthenticatedUser;
+import com.example.javaspring.service.ProjectService;
+import com.example.javaspring.util.ConditionalGet;
+import com.example.javaspring.util.ETags;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.UUID;
+
+/**
+ * Read endpoints with conditional GET: the ETag is computed from versions alone, so a matching
+ * {@code If-None-Match} is answered with 304 before the project is loaded or mapped. Full
+ * responses for a single project are served from {@link ResponseBodyCache}.
+ * <p>
+ * A single project is readable by its owner, its members and admins; the listings are admin-only
+ * (see {@code SecurityConfig}).
+ */
+@RestController
+@RequestMapping("/api/projects")
+@RequiredArgsConstructor
+public class ProjectController {
+
+    private final ProjectService projectService;
+    private final ResponseBodyCache responseBodyCache;
+
+    @GetMapping("/{id}")
+    public ResponseEntity<byte[]> getProject(@PathVariable UUID id,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                          String acceptEncoding,
+                                          @AuthenticationPrincipal AuthenticatedUser currentUser,
+                                          WebRequest request) {
+        // Checked before the version lookup, so a 304 never confirms a project the caller cannot read
+        if (!currentUser.isAdmin() && !projectService.canUserAccessProject(id, currentUser.id())) {
+            throw new AccessDeniedException("read", "project " + id);
+        }
+
+        // Gzipped and identity bodies are different representations and need different tags
+        boolean gzip = ResponseBodyCache.acceptsGzip(acceptEncoding);
+
+        return ConditionalGet.respond(request, () -> projectService.getProjectVersion(id),
+                version -> ETags.strong(version, gzip ? "gzip" : "identity"),
+                version -> {
+                    if (version == null) {
+                        throw new ResourceNotFoundException("Project", "ID", id);
+                    }
+                    return responseBodyCache.respond("project", id, version,
+                            () -> ApiResponse.success(projectService.getProjectById(id, version)), gzip);
+                });
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<PageResponse<ProjectResponse>>> getAllProjects(
+            @PageableDefault(size = 20) Pageable pageable,
+            @RequestParam(defaultValue = "exact") String withTotal,
+            WebRequest request) {
+        TotalMode totalMode = TotalMode.fromParameter(withTotal);
+        return ConditionalGet.ok(request, projectService::getProjectListVersion,
+                version -> ETags.strong(version, pageable, totalMode),
+                version -> projectService.getAllProjects(pageable, totalMode));
+    }
+
+    /**
+     * Keyset mode, selected by the {@code cursor} parameter; pass it empty for the first page.
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<ApiResponse<CursorPageResponse<ProjectResponse>>> getAllProjects(
+            @RequestParam String cursor, @RequestParam(defaultValue = "20") int size, WebRequest request) {
+        return ConditionalGet.ok(request, projectService::getProjectListVersion,
+                version -> ETags.strong(version, cursor, size),
+                version -> projectService.getAllProjects(cursor, size));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.javaspring.controller;
+
+import com.example.javaspring.cache.ResponseBodyCache;
+import com.example.javaspring.dto.response.ApiResponse;
+import com.example.javaspring.dto.response.CursorPageResponse;
+import com.example.javaspring.dto.response.PageResponse;
+import com.example.javaspring.dto.response.TaskResponse;
+import com.example.javaspring.enums.TotalMode;
+import com.example.javaspring.exception.AccessDeniedException;
+import com.example.javaspring.exception.ResourceNotFoundException;
+import com.example.javaspring.security.AuthenticatedUser;
+import com.example.javaspring.service.TaskService;
+import com.example.javaspring.util.ConditionalGet;
+import com.example.javaspring.util.ETags;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.UUID;
+
+/**
+ * Read endpoints with conditional GET: the ETag is computed from versions alone, so a matching
+ * {@code If-None-Match} is answered with 304 before the task is loaded or mapped. Full
+ * responses for a single task are served from {@link ResponseBodyCache}.
+ * <p>
+ * A single task is readable by the owner and members of its project and by admins; the listings
+ * are admin-only (see {@code SecurityConfig}).
+ */
+@RestController
+@RequestMapping("/api/tasks")
+@RequiredArgsConstructor
+public class TaskController {
+
+    private final TaskService taskService;
+    private final ResponseBodyCache responseBodyCache;
+
+    @GetMapping("/{id}")
+    public ResponseEntity<byte[]> getTask(@PathVariable UUID id,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                          String acceptEncoding,
+                                          @AuthenticationPrincipal AuthenticatedUser currentUser,
+                                          WebRequest request) {
+        // Checked before the version lookup, so a 304 never confirms a task the caller cannot read
+        if (!currentUser.isAdmin() && !taskService.canUserAccessTask(id, currentUser.id())) {
+            throw new AccessDeniedException("read", "task " + id);
+        }
+
+        // Gzipped and identity bodies are different representations and need different tags
+        boolean gzip = ResponseBodyCache.acceptsGzip(acceptEncoding);
+
+        return ConditionalGet.respond(request, () -> taskService.getTaskVersion(id),
+                version -> ETags.strong(version, gzip ? "gzip" : "identity"),
+                version -> {
+                    if (version == null) {
+                        throw new ResourceNotFoundException("Task", "ID", id);
+                    }
+                    return responseBodyCache.respond("task", id, version,
+                            () -> ApiResponse.success(taskService.getTaskById(id, version)), gzip);
+                });
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<PageResponse<TaskResponse>>> getAllTasks(
+            @PageableDefault(size = 20) Pageable pageable,
+            @RequestParam(defaultValue = "exact") String withTotal,
+            WebRequest request) {
+        TotalMode totalMode = TotalMode.fromParameter(withTotal);
+        return ConditionalGet.ok(request, taskService::getTaskListVersion,
+                version -> ETags.strong(version, pageable, totalMode),
+                version -> taskService.getAllTasks(pageable, totalMode));
+    }
+
+    /**
+     * Keyset mode, selected by the {@code cursor} parameter; pass it empty for the first page.
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<ApiResponse<CursorPageResponse<TaskResponse>>> getAllTasks(
+            @RequestParam String cursor, @RequestParam(defaultValue = "20") int size, WebRequest request) {
+        return ConditionalGet.ok(request, taskService::getTaskListVersion,
+                version -> ETags.strong(version, cursor, size),
+                version -> taskService.getAllTasks(cursor, size));
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.javaspring.controller;
+
+import com.example.javaspring.dto.response.ApiResponse;
+import com.example.javaspring.dto.response.CursorPageResponse;
+import com.example.javaspring.dto.response.PageResponse;
+import com.example.javaspring.dto.response.UserResponse;
+import com.example.javaspring.enums.TotalMode;
+import com.example.javaspring.exception.AccessDeniedException;
+import com.example.javaspring.security.AuthenticatedUser;
+import com.example.javaspring.service.UserService;
+import com.example.javaspring.util.ConditionalGet;
+import com.example.javaspring.util.ETags;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.UUID;
+
+/**
+ * Read endpoints with conditional GET: the ETag is computed from versions alone, so a matching
+ * {@code If-None-Match} is answered with 304 before the user is loaded or mapped.
+ * <p>
+ * A user is readable by themselves and by admins; the listings are admin-only
+ * (see {@code SecurityConfig}).
+ */
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class UserController {
+
+    private final UserService userService;
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<UserResponse>> getUser(@PathVariable UUID id,
+                                                             @AuthenticationPrincipal AuthenticatedUser currentUser,
+                                                             WebRequest request) {
+        if (!currentUser.isAdmin() && !currentUser.id().equals(id)) {
+            throw new AccessDeniedException("read", "user " + id);
+        }
+
+        return ConditionalGet.ok(request, () -> userService.getUserVersion(id),
+                version -> ETags.strong(version),
+                // Without a version the regular lookup produces the error
+                version -> version != null ? userService.getUserById(id, version) : userService.getUserById(id));
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<PageResponse<UserResponse>>> getAllUsers(
+            @PageableDefault(size = 20) Pageable pageable,
+            @RequestParam(defaultValue = "exact") String withTotal,
+            WebRequest request) {
+        TotalMode totalMode = TotalMode.fromParameter(withTotal);
+        return ConditionalGet.ok(request, userService::getUserListVersion,
+                version -> ETags.strong(version, pageable, totalMode),
+                version -> userService.getAllUsers(pageable, totalMode));
+    }
+
+    /**
+     * Keyset mode, selected by the {@code cursor} parameter; pass it empty for the first page.
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<ApiResponse<CursorPageResponse<UserResponse>>> getAllUsers(
+            @RequestParam String cursor, @RequestParam(defaultValue = "20") int size, WebRequest request) {
+        return ConditionalGet.ok(request, userService::getUserListVersion,
+                version -> ETags.strong(version, cursor, size),
+                version -> userService.getAllUsers(cursor, size));
+    }
+}
@@ -1,12 +1,21 @@
 package com.example.javaspring.dto.response;
 
+import com.example.javaspring.enums.TotalMode;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
+import java.util.function.LongSupplier;
 
+/**
+ * Page of an offset-paginated listing. {@code totalElements} and {@code totalPages} are
+ * {@code null} when the total was not requested and approximate when {@code totalMode} is
+ * {@link TotalMode#ESTIMATE}.
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,10 +25,44 @@ public class PageResponse<T> {
     private List<T> content;
     private int page;
     private int size;
-    private long totalElements;
-    private int totalPages;
+    private Long totalElements;
+    private Integer totalPages;
+    private TotalMode totalMode;
     private boolean first;
     private boolean last;
     private boolean hasNext;
     private boolean hasPrevious;
-}
\ No newline at end of file
+
+    /**
+     * @param slice    a {@link Page} for {@link TotalMode#EXACT}, otherwise a slice fetched without count
+     * @param estimate row count estimate, only called for {@link TotalMode#ESTIMATE} when it matters
+     */
+    public static <T> PageResponse<T> of(Slice<?> slice, List<T> content, TotalMode totalMode, LongSupplier estimate) {
+        Long totalElements = switch (totalMode) {
+            case EXACT -> slice instanceof Page<?> page ? page.getTotalElements() : null;
+            case NONE -> null;
+            case ESTIMATE -> {
+                long seen = (long) slice.getNumber() * slice.getSize() + slice.getNumberOfElements();
+                // The last page pins the total down; elsewhere the estimate must at least cover the rows seen.
+                // A page past the end pins nothing: the rows before it were skipped, not counted.
+                boolean lastPage = !slice.hasNext() && (slice.hasContent() || slice.getNumber() == 0);
+                yield lastPage ? seen : Math.max(estimate.getAsLong(), slice.hasNext() ? seen + 1 : 0);
+            }
+        };
+        Integer totalPages = totalElements == null ? null
+                : slice.getSize() == 0 ? 1 : (int) Math.ceil((double) totalElements / slice.getSize());
+
+        return PageResponse.<T>builder()
+                .content(content)
+                .page(slice.getNumber())
+                .size(slice.getSize())
+                .totalElements(totalElements)
+                .totalPages(totalPages)
+                .totalMode(totalElements != null ? totalMode : TotalMode.NONE)
+                .first(slice.isFirst())
+                .last(slice.isLast())
+                .hasNext(slice.hasNext())
+                .hasPrevious(slice.hasPrevious())
+                .build();
+    }
+}
@@ -9,7 +9,12 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "comments")
+@NamedEntityGraph(name = Comment.AUTHOR_GRAPH, attributeNodes = @NamedAttributeNode("author"))
+@Table(name = "comments", indexes = {
+        // Keyset pagination seeks on (created_at, id) within a task or an author
+        @Index(name = "idx_comments_task_created_id", columnList = "task_id, created_at, id"),
+        @Index(name = "idx_comments_author_created_id", columnList = "author_id, created_at, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,6 +22,8 @@ import java.util.UUID;
 @Builder
 public class Comment {
 
+    public static final String AUTHOR_GRAPH = "Comment.author";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -32,6 +39,9 @@ public class Comment {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
     // Relationships
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
@@ -1,8 +1,13 @@
 package com.example.javaspring.entity;
 
+import com.example.javaspring.cache.EntityCacheRegions;
 import com.example.javaspring.enums.ProjectStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,7 +17,14 @@ import java.util.Set;
 import java.util.UUID;
 
 @Entity
-@Table(name = "projects")
+@Table(name = "projects", indexes = {
+        @Index(name = "idx_projects_created_id", columnList = "created_at, id"),
+        // "More than N tasks / at least N members" filters range-scan the counters
+        @Index(name = "idx_projects_tasks_count", columnList = "tasks_count"),
+        @Index(name = "idx_projects_members_count", columnList = "members_count")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheRegions.PROJECTS)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -45,6 +57,20 @@ public class Project {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
+    // Counters are maintained by EntityCounters with atomic increments, never written through the entity
+    @Column(name = "tasks_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int tasksCount = 0;
+
+    @Column(name = "members_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int membersCount = 0;
+
     // Relationships
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
@@ -56,10 +82,13 @@ public class Project {
             joinColumns = @JoinColumn(name = "project_id"),
             inverseJoinColumns = @JoinColumn(name = "user_id")
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheRegions.PROJECT_MEMBERS)
+    @BatchSize(size = 50)
     @Builder.Default
     private Set<User> members = new HashSet<>();
 
     @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @Builder.Default
     private Set<Task> tasks = new HashSet<>();
 }
\ No newline at end of file
@@ -4,6 +4,8 @@ import com.example.javaspring.enums.TaskPriority;
 import com.example.javaspring.enums.TaskStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -13,7 +15,25 @@ import java.util.Set;
 import java.util.UUID;
 
 @Entity
-@Table(name = "tasks")
+@NamedEntityGraph(name = Task.LIST_GRAPH, attributeNodes = {
+        @NamedAttributeNode(value = "project", subgraph = "project"),
+        @NamedAttributeNode("assignee"),
+        @NamedAttributeNode("reporter")
+}, subgraphs = @NamedSubgraph(name = "project", attributeNodes = @NamedAttributeNode("owner")))
+@NamedEntityGraph(name = Task.DETAIL_GRAPH, attributeNodes = {
+        @NamedAttributeNode(value = "project", subgraph = "project"),
+        @NamedAttributeNode("assignee"),
+        @NamedAttributeNode("reporter"),
+        @NamedAttributeNode(value = "comments", subgraph = "comments")
+}, subgraphs = {
+        @NamedSubgraph(name = "project", attributeNodes = @NamedAttributeNode("owner")),
+        @NamedSubgraph(name = "comments", attributeNodes = @NamedAttributeNode("author"))
+})
+@Table(name = "tasks", indexes = {
+        // Keyset pagination seeks on (created_at, id), overall and within a project
+        @Index(name = "idx_tasks_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_tasks_project_created_id", columnList = "project_id, created_at, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,6 +41,16 @@ import java.util.UUID;
 @Builder
 public class Task {
 
+    /**
+     * To-one associations of a task response; comments are batch fetched, so pagination stays in SQL.
+     */
+    public static final String LIST_GRAPH = "Task.list";
+
+    /**
+     * Everything a single task response walks, including comments and their authors.
+     */
+    public static final String DETAIL_GRAPH = "Task.detail";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -52,6 +82,15 @@ public class Task {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
+    // Maintained by EntityCounters with atomic increments, never written through the entity
+    @Column(name = "comments_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int commentsCount = 0;
+
     // Relationships
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id", nullable = false)
@@ -66,6 +105,7 @@ public class Task {
     private User reporter;
 
     @OneToMany(mappedBy = "task", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @Builder.Default
     private Set<Comment> comments = new HashSet<>();
 }
@@ -0,0 +1,6 @@
+package com.example.javaspring.enums;
+
+public enum TokenType {
+    ACCESS,
+    REFRESH
+}
@@ -0,0 +1,22 @@
+package com.example.javaspring.enums;
+
+import com.example.javaspring.exception.ValidationException;
+
+import java.util.Locale;
+
+/**
+ * How a paged listing reports its total: counted, estimated from planner statistics, or not at all.
+ */
+public enum TotalMode {
+    NONE,
+    EXACT,
+    ESTIMATE;
+
+    public static TotalMode fromParameter(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("withTotal", "must be one of none, exact, estimate");
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.example.javaspring.mapper;
 
 import com.example.javaspring.dto.response.ProjectResponse;
 import com.example.javaspring.dto.response.ProjectSummaryResponse;
+import com.example.javaspring.dto.response.UserSummaryResponse;
 import com.example.javaspring.entity.Project;
+import com.example.javaspring.repository.projection.ProjectSummaryView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
@@ -14,7 +16,7 @@ public interface ProjectMapper {
 
     @Mapping(target = "owner", source = "owner")
     @Mapping(target = "members", source = "members")
-    @Mapping(target = "tasksCount", expression = "java(project.getTasks() != null ? project.getTasks().size() : 0)")
+    @Mapping(target = "tasksCount", source = "tasksCount")
     ProjectResponse toResponse(Project project);
 
     List<ProjectResponse> toResponseList(List<Project> projects);
@@ -24,8 +26,31 @@ public interface ProjectMapper {
     @Mapping(target = "status", source = "status")
     @Mapping(target = "deadline", source = "deadline")
     @Mapping(target = "owner", source = "owner")
-    @Mapping(target = "tasksCount", expression = "java(project.getTasks() != null ? project.getTasks().size() : 0)")
+    @Mapping(target = "tasksCount", source = "tasksCount")
     ProjectSummaryResponse toSummaryResponse(Project project);
 
     List<ProjectSummaryResponse> toSummaryResponseList(List<Project> projects);
+
+    default ProjectSummaryResponse toSummaryResponse(ProjectSummaryView view) {
+        UserSummaryResponse owner = UserSummaryResponse.builder()
+                .id(view.ownerId())
+                .username(view.ownerUsername())
+                .email(view.ownerEmail())
+                .firstName(view.ownerFirstName())
+                .lastName(view.ownerLastName())
+                .build();
+
+        return ProjectSummaryResponse.builder()
+                .id(view.id())
+                .name(view.name())
+                .status(view.status())
+                .deadline(view.deadline())
+                .owner(owner)
+                .tasksCount(view.tasksCount())
+                .build();
+    }
+
+    default List<ProjectSummaryResponse> toSummaryResponses(List<ProjectSummaryView> views) {
+        return views.stream().map(this::toSummaryResponse).toList();
+    }
 }
\ No newline at end of file
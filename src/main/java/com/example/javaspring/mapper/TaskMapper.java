@@ -2,7 +2,9 @@ package com.example.javaspring.mapper;
 
 import com.example.javaspring.dto.response.TaskResponse;
 import com.example.javaspring.dto.response.TaskSummaryResponse;
+import com.example.javaspring.dto.response.UserSummaryResponse;
 import com.example.javaspring.entity.Task;
+import com.example.javaspring.repository.projection.TaskSummaryView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
@@ -27,8 +29,32 @@ public interface TaskMapper {
     @Mapping(target = "priority", source = "priority")
     @Mapping(target = "dueDate", source = "dueDate")
     @Mapping(target = "assignee", source = "assignee")
-    @Mapping(target = "commentsCount", expression = "java(task.getComments() != null ? task.getComments().size() : 0)")
+    @Mapping(target = "commentsCount", source = "commentsCount")
     TaskSummaryResponse toSummaryResponse(Task task);
 
     List<TaskSummaryResponse> toSummaryResponseList(List<Task> tasks);
+
+    default TaskSummaryResponse toSummaryResponse(TaskSummaryView view) {
+        UserSummaryResponse assignee = view.assigneeId() == null ? null : UserSummaryResponse.builder()
+                .id(view.assigneeId())
+                .username(view.assigneeUsername())
+                .email(view.assigneeEmail())
+                .firstName(view.assigneeFirstName())
+                .lastName(view.assigneeLastName())
+                .build();
+
+        return TaskSummaryResponse.builder()
+                .id(view.id())
+                .title(view.title())
+                .status(view.status())
+                .priority(view.priority())
+                .dueDate(view.dueDate())
+                .assignee(assignee)
+                .commentsCount(view.commentsCount())
+                .build();
+    }
+
+    default List<TaskSummaryResponse> toSummaryResponses(List<TaskSummaryView> views) {
+        return views.stream().map(this::toSummaryResponse).toList();
+    }
 }
\ No newline at end of file
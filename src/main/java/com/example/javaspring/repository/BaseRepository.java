@@ -1,5 +1,7 @@
 package com.example.javaspring.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.NoRepositoryBean;
@@ -8,4 +10,9 @@ import java.util.UUID;
 
 @NoRepositoryBean
 public interface BaseRepository<T> extends JpaRepository<T, UUID>, JpaSpecificationExecutor<T> {
+
+    /**
+     * Like {@link #findAll(Pageable)} without the count query; fetches one extra row for {@code hasNext}.
+     */
+    Slice<T> findSliceBy(Pageable pageable);
 }
\ No newline at end of file
@@ -1,8 +1,11 @@
 package com.example.javaspring.repository;
 
 import com.example.javaspring.entity.Comment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,16 +17,38 @@ import java.util.UUID;
 @Repository
 public interface CommentRepository extends BaseRepository<Comment> {
 
+    // Comment finders load the author in the same select
+
+    @Override
+    @EntityGraph(Comment.AUTHOR_GRAPH)
+    Page<Comment> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(Comment.AUTHOR_GRAPH)
+    Slice<Comment> findSliceBy(Pageable pageable);
+
+    @EntityGraph(Comment.AUTHOR_GRAPH)
     List<Comment> findByTaskId(UUID taskId);
 
+    @EntityGraph(Comment.AUTHOR_GRAPH)
     List<Comment> findByAuthorId(UUID authorId);
 
+    @EntityGraph(Comment.AUTHOR_GRAPH)
     Page<Comment> findByTaskId(UUID taskId, Pageable pageable);
 
+    @EntityGraph(Comment.AUTHOR_GRAPH)
     Page<Comment> findByAuthorId(UUID authorId, Pageable pageable);
 
+    @EntityGraph(Comment.AUTHOR_GRAPH)
+    Slice<Comment> findSliceByTaskId(UUID taskId, Pageable pageable);
+
+    @EntityGraph(Comment.AUTHOR_GRAPH)
+    Slice<Comment> findSliceByAuthorId(UUID authorId, Pageable pageable);
+
+    @EntityGraph(Comment.AUTHOR_GRAPH)
     List<Comment> findByTaskIdOrderByCreatedAtAsc(UUID taskId);
 
+    @EntityGraph(Comment.AUTHOR_GRAPH)
     List<Comment> findByTaskIdOrderByCreatedAtDesc(UUID taskId);
 
     @Query("SELECT c FROM Comment c WHERE c.task.id = :taskId AND " +
@@ -34,10 +59,13 @@ public interface CommentRepository extends BaseRepository<Comment> {
             "LOWER(c.content) LIKE LOWER(CONCAT('%', :search, '%'))")
     List<Comment> searchComments(@Param("search") String search);
 
+    @EntityGraph(Comment.AUTHOR_GRAPH)
     List<Comment> findByCreatedAtAfter(LocalDateTime date);
 
+    @EntityGraph(Comment.AUTHOR_GRAPH)
     List<Comment> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
 
+    @EntityGraph(Comment.AUTHOR_GRAPH)
     @Query("SELECT c FROM Comment c WHERE c.task.id = :taskId AND c.createdAt >= :date")
     List<Comment> findRecentCommentsByTask(@Param("taskId") UUID taskId, @Param("date") LocalDateTime date);
 
@@ -53,12 +81,15 @@ public interface CommentRepository extends BaseRepository<Comment> {
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.createdAt >= :date")
     long countCommentsCreatedAfter(@Param("date") LocalDateTime date);
 
+    @EntityGraph(Comment.AUTHOR_GRAPH)
     @Query("SELECT c FROM Comment c WHERE c.task.project.id = :projectId ORDER BY c.createdAt DESC")
     List<Comment> findRecentCommentsByProject(@Param("projectId") UUID projectId);
 
+    @EntityGraph(Comment.AUTHOR_GRAPH)
     @Query("SELECT c FROM Comment c WHERE c.task.project.id = :projectId AND c.author.id = :authorId")
     List<Comment> findByProjectAndAuthor(@Param("projectId") UUID projectId, @Param("authorId") UUID authorId);
 
+    @EntityGraph(Comment.AUTHOR_GRAPH)
     @Query("SELECT c FROM Comment c WHERE c.author.id = :authorId ORDER BY c.createdAt DESC")
     List<Comment> findRecentCommentsByAuthor(@Param("authorId") UUID authorId);
 
@@ -67,4 +98,37 @@ public interface CommentRepository extends BaseRepository<Comment> {
 
     @Query("SELECT c.author.id, COUNT(c) FROM Comment c WHERE c.task.project.id = :projectId GROUP BY c.author.id ORDER BY COUNT(c) DESC")
     List<Object[]> getMostActiveCommentAuthorsByProject(@Param("projectId") UUID projectId);
-}
\ No newline at end of file
+
+    // Keyset pagination, newest first: "After" seeks to older rows, "Before" to newer rows in ascending order
+    @EntityGraph(Comment.AUTHOR_GRAPH)
+    @Query("SELECT c FROM Comment c WHERE c.task.id = :taskId ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findPageByTaskId(@Param("taskId") UUID taskId, Limit limit);
+
+    @EntityGraph(Comment.AUTHOR_GRAPH)
+    @Query("SELECT c FROM Comment c WHERE c.task.id = :taskId AND (c.createdAt, c.id) < (:createdAt, :id) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findPageByTaskIdAfter(@Param("taskId") UUID taskId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id, Limit limit);
+
+    @EntityGraph(Comment.AUTHOR_GRAPH)
+    @Query("SELECT c FROM Comment c WHERE c.task.id = :taskId AND (c.createdAt, c.id) > (:createdAt, :id) " +
+            "ORDER BY c.createdAt ASC, c.id ASC")
+    List<Comment> findPageByTaskIdBefore(@Param("taskId") UUID taskId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id, Limit limit);
+
+    @EntityGraph(Comment.AUTHOR_GRAPH)
+    @Query("SELECT c FROM Comment c WHERE c.author.id = :authorId ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findPageByAuthorId(@Param("authorId") UUID authorId, Limit limit);
+
+    @EntityGraph(Comment.AUTHOR_GRAPH)
+    @Query("SELECT c FROM Comment c WHERE c.author.id = :authorId AND (c.createdAt, c.id) < (:createdAt, :id) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findPageByAuthorIdAfter(@Param("authorId") UUID authorId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id, Limit limit);
+
+    @EntityGraph(Comment.AUTHOR_GRAPH)
+    @Query("SELECT c FROM Comment c WHERE c.author.id = :authorId AND (c.createdAt, c.id) > (:createdAt, :id) " +
+            "ORDER BY c.createdAt ASC, c.id ASC")
+    List<Comment> findPageByAuthorIdBefore(@Param("authorId") UUID authorId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id, Limit limit);
+}
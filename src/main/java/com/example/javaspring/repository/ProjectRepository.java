@@ -2,6 +2,8 @@ package com.example.javaspring.repository;
 
 import com.example.javaspring.entity.Project;
 import com.example.javaspring.enums.ProjectStatus;
+import com.example.javaspring.repository.projection.ProjectSummaryView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
@@ -10,6 +12,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -57,18 +60,65 @@ public interface ProjectRepository extends BaseRepository<Project> {
     @Query("SELECT COUNT(t) FROM Task t WHERE t.project.id = :projectId AND t.status = 'DONE'")
     long countCompletedTasksByProjectId(@Param("projectId") UUID projectId);
 
-    @Query("SELECT p FROM Project p WHERE SIZE(p.tasks) > :taskCount")
+    @Query("SELECT p FROM Project p WHERE p.tasksCount > :taskCount")
     List<Project> findProjectsWithMoreTasks(@Param("taskCount") int taskCount);
 
     @Query("SELECT COUNT(m) FROM Project p JOIN p.members m WHERE p.id = :projectId")
     long countMembersByProjectId(@Param("projectId") UUID projectId);
 
-    @Query("SELECT p FROM Project p WHERE SIZE(p.members) >= :memberCount")
+    @Query("SELECT p FROM Project p WHERE p.membersCount >= :memberCount")
     List<Project> findProjectsWithMinMembers(@Param("memberCount") int memberCount);
 
-    @Query("SELECT p FROM Project p WHERE p.owner.id = :userId ORDER BY p.updatedAt DESC")
-    List<Project> findRecentProjectsByOwner(@Param("userId") UUID userId);
-
-    @Query("SELECT p FROM Project p JOIN p.members m WHERE m.id = :userId AND p.status = 'ACTIVE' ORDER BY p.deadline ASC")
-    List<Project> findActiveProjectsByMember(@Param("userId") UUID userId);
-}
\ No newline at end of file
+    @Query("SELECT new com.example.javaspring.repository.projection.ProjectSummaryView(p.id, p.name, p.status, p.deadline, " +
+            "o.id, o.username, o.email, o.firstName, o.lastName, " +
+            "p.tasksCount) " +
+            "FROM Project p JOIN p.owner o WHERE o.id = :userId ORDER BY p.updatedAt DESC")
+    List<ProjectSummaryView> findRecentProjectSummariesByOwner(@Param("userId") UUID userId);
+
+    @Query("SELECT new com.example.javaspring.repository.projection.ProjectSummaryView(p.id, p.name, p.status, p.deadline, " +
+            "o.id, o.username, o.email, o.firstName, o.lastName, " +
+            "p.tasksCount) " +
+            "FROM Project p JOIN p.owner o JOIN p.members m " +
+            "WHERE m.id = :userId AND p.status = 'ACTIVE' ORDER BY p.deadline ASC")
+    List<ProjectSummaryView> findActiveProjectSummariesByMember(@Param("userId") UUID userId);
+
+    @Query("SELECT new com.example.javaspring.repository.projection.ProjectSummaryView(p.id, p.name, p.status, p.deadline, " +
+            "o.id, o.username, o.email, o.firstName, o.lastName, " +
+            "p.tasksCount) " +
+            "FROM Project p JOIN p.owner o WHERE p.id = :projectId")
+    Optional<ProjectSummaryView> findSummaryById(@Param("projectId") UUID projectId);
+
+    @Query("SELECT p.id FROM Project p WHERE p.updatedAt > :since")
+    List<UUID> findIdsUpdatedAfter(@Param("since") LocalDateTime since);
+
+    /**
+     * Whether the user owns or is a member of the project, without loading either.
+     */
+    @Query("SELECT COUNT(p) > 0 FROM Project p LEFT JOIN p.members m " +
+            "WHERE p.id = :projectId AND (p.owner.id = :userId OR m.id = :userId)")
+    boolean isOwnerOrMember(@Param("projectId") UUID projectId, @Param("userId") UUID userId);
+
+    /**
+     * Versions of the project and of everything embedded in its response, without loading any entity.
+     * Membership changes bump the project's own version.
+     */
+    @Query("SELECT p.version, o.version, " +
+            "(SELECT SUM(m.version) FROM Project mp JOIN mp.members m WHERE mp = p), " +
+            "p.tasksCount " +
+            "FROM Project p JOIN p.owner o WHERE p.id = :projectId")
+    List<Object[]> findResponseVersion(@Param("projectId") UUID projectId);
+
+    // Keyset pagination, newest first: "After" seeks to older rows, "Before" to newer rows in ascending order
+    @Query("SELECT p FROM Project p ORDER BY p.createdAt DESC, p.id DESC")
+    List<Project> findPage(Limit limit);
+
+    @Query("SELECT p FROM Project p WHERE (p.createdAt, p.id) < (:createdAt, :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Project> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id, Limit limit);
+
+    @Query("SELECT p FROM Project p WHERE (p.createdAt, p.id) > (:createdAt, :id) " +
+            "ORDER BY p.createdAt ASC, p.id ASC")
+    List<Project> findPageBefore(@Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id, Limit limit);
+}
@@ -0,0 +1,100 @@
+package com.example.javaspring.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Row counts for paged listings without a {@code COUNT(*)}.
+ * <p>
+ * On PostgreSQL the estimate is the planner's row estimate from {@code EXPLAIN}: for a whole
+ * table that is {@code pg_class.reltuples} scaled to the table's current size, for a filter the
+ * column statistics on top. Both are off by the staleness of the last {@code ANALYZE}. Other
+ * databases (H2 in tests) get an exact count instead.
+ */
+@Slf4j
+@Component
+public class RowCountEstimator {
+
+    // Table and column names are concatenated into SQL, so only plain identifiers are accepted
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile Boolean postgres;
+
+    public RowCountEstimator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long estimate(String table) {
+        return estimate(table, null, null);
+    }
+
+    /**
+     * Estimated number of rows in {@code table} whose {@code column} equals {@code value}.
+     */
+    public long estimate(String table, String column, UUID value) {
+        requireIdentifier(table);
+        String where = "";
+        if (column != null) {
+            requireIdentifier(column);
+            // A UUID's string form cannot break out of the literal
+            where = " WHERE " + column + " = '" + value + "'";
+        }
+
+        if (!isPostgres()) {
+            Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + where, Long.class);
+            return count != null ? count : 0;
+        }
+
+        String plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) SELECT 1 FROM " + table + where, String.class);
+        return planRows(plan);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            try {
+                String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                        connection.getMetaData().getDatabaseProductName());
+                result = product != null && product.toLowerCase(Locale.ROOT).contains("postgresql");
+            } catch (DataAccessException e) {
+                log.warn("Could not determine database product, counting rows exactly: {}", e.getMessage());
+                return false;
+            }
+            postgres = result;
+        }
+        return result;
+    }
+
+    private long planRows(String plan) {
+        try {
+            JsonNode rows = objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows");
+            if (!rows.isNumber()) {
+                throw new IllegalStateException("No row estimate in plan: " + plan);
+            }
+            return rows.asLong();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not parse plan: " + plan, e);
+        }
+    }
+
+    private static void requireIdentifier(String name) {
+        if (!IDENTIFIER.matcher(name).matches()) {
+            throw new IllegalArgumentException("Not a plain identifier: " + name);
+        }
+    }
+}
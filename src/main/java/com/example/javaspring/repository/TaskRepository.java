@@ -3,45 +3,83 @@ package com.example.javaspring.repository;
 import com.example.javaspring.entity.Task;
 import com.example.javaspring.enums.TaskPriority;
 import com.example.javaspring.enums.TaskStatus;
+import com.example.javaspring.repository.projection.TaskSummaryView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface TaskRepository extends BaseRepository<Task> {
 
+    // Task finders load the list graph: the to-one associations in the same select, comments batch fetched
+
+    @Override
+    @EntityGraph(Task.LIST_GRAPH)
+    Page<Task> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(Task.LIST_GRAPH)
+    Slice<Task> findSliceBy(Pageable pageable);
+
+    @EntityGraph(Task.DETAIL_GRAPH)
+    Optional<Task> findDetailById(UUID id);
+
+    @EntityGraph(Task.LIST_GRAPH)
     List<Task> findByProjectId(UUID projectId);
 
+    @EntityGraph(Task.LIST_GRAPH)
     Page<Task> findByProjectId(UUID projectId, Pageable pageable);
 
+    @EntityGraph(Task.LIST_GRAPH)
+    Slice<Task> findSliceByProjectId(UUID projectId, Pageable pageable);
+
+    @EntityGraph(Task.LIST_GRAPH)
     Page<Task> findByAssigneeId(UUID assigneeId, Pageable pageable);
 
+    @EntityGraph(Task.LIST_GRAPH)
     Page<Task> findByReporterId(UUID reporterId, Pageable pageable);
 
+    @EntityGraph(Task.LIST_GRAPH)
     Page<Task> findByStatus(TaskStatus status, Pageable pageable);
 
+    @EntityGraph(Task.LIST_GRAPH)
     Page<Task> findByPriority(TaskPriority priority, Pageable pageable);
 
+    @EntityGraph(Task.LIST_GRAPH)
     List<Task> findByAssigneeId(UUID assigneeId);
 
+    @EntityGraph(Task.LIST_GRAPH)
     List<Task> findByReporterId(UUID reporterId);
 
+    @EntityGraph(Task.LIST_GRAPH)
     List<Task> findByStatus(TaskStatus status);
 
+    @EntityGraph(Task.LIST_GRAPH)
     List<Task> findByPriority(TaskPriority priority);
 
+    @EntityGraph(Task.LIST_GRAPH)
     List<Task> findByProjectIdAndStatus(UUID projectId, TaskStatus status);
 
+    @EntityGraph(Task.LIST_GRAPH)
     List<Task> findByAssigneeIdAndStatus(UUID assigneeId, TaskStatus status);
 
+    @EntityGraph(Task.LIST_GRAPH)
     List<Task> findByProjectIdAndAssigneeId(UUID projectId, UUID assigneeId);
 
+    @Query("SELECT t.project.id FROM Task t WHERE t.id = :taskId")
+    Optional<UUID> findProjectIdById(@Param("taskId") UUID taskId);
+
+    @EntityGraph(Task.LIST_GRAPH)
     @Query("SELECT t FROM Task t WHERE t.project.id = :projectId AND t.status = :status AND t.priority = :priority")
     List<Task> findByProjectIdAndStatusAndPriority(
             @Param("projectId") UUID projectId,
@@ -49,16 +87,21 @@ public interface TaskRepository extends BaseRepository<Task> {
             @Param("priority") TaskPriority priority
     );
 
+    @EntityGraph(Task.LIST_GRAPH)
     List<Task> findByDueDateBefore(LocalDateTime dueDate);
 
+    @EntityGraph(Task.LIST_GRAPH)
     List<Task> findByDueDateBetween(LocalDateTime start, LocalDateTime end);
 
+    @EntityGraph(Task.LIST_GRAPH)
     @Query("SELECT t FROM Task t WHERE t.dueDate IS NOT NULL AND t.dueDate <= :date AND t.status NOT IN ('DONE', 'CANCELLED')")
     List<Task> findOverdueTasks(@Param("date") LocalDateTime date);
 
+    @EntityGraph(Task.LIST_GRAPH)
     @Query("SELECT t FROM Task t WHERE t.dueDate IS NOT NULL AND t.dueDate BETWEEN :start AND :end AND t.status NOT IN ('DONE', 'CANCELLED')")
     List<Task> findTasksDueSoon(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
+    @EntityGraph(Task.LIST_GRAPH)
     @Query("SELECT t FROM Task t WHERE t.assignee.id = :assigneeId AND t.dueDate IS NOT NULL AND t.dueDate <= :date AND t.status NOT IN ('DONE', 'CANCELLED')")
     List<Task> findOverdueTasksByAssignee(@Param("assigneeId") UUID assigneeId, @Param("date") LocalDateTime date);
 
@@ -90,18 +133,79 @@ public interface TaskRepository extends BaseRepository<Task> {
     @Query("SELECT t.assignee.id, COUNT(t) FROM Task t WHERE t.project.id = :projectId AND t.status IN ('TODO', 'IN_PROGRESS', 'IN_REVIEW') GROUP BY t.assignee.id")
     List<Object[]> getAssigneeWorkloadByProject(@Param("projectId") UUID projectId);
 
+    @EntityGraph(Task.LIST_GRAPH)
     @Query("SELECT t FROM Task t WHERE t.assignee.id = :assigneeId AND t.status IN ('TODO', 'IN_PROGRESS') ORDER BY t.priority DESC, t.dueDate ASC")
     List<Task> findActiveTasksByAssigneeOrderedByPriority(@Param("assigneeId") UUID assigneeId);
 
-    @Query("SELECT t FROM Task t WHERE t.assignee.id = :assigneeId ORDER BY t.updatedAt DESC")
-    List<Task> findRecentTasksByAssignee(@Param("assigneeId") UUID assigneeId);
+    @Query("SELECT new com.example.javaspring.repository.projection.TaskSummaryView(t.id, t.title, t.status, t.priority, t.dueDate, " +
+            "a.id, a.username, a.email, a.firstName, a.lastName, " +
+            "t.commentsCount) " +
+            "FROM Task t LEFT JOIN t.assignee a WHERE a.id = :assigneeId ORDER BY t.updatedAt DESC")
+    List<TaskSummaryView> findRecentTaskSummariesByAssignee(@Param("assigneeId") UUID assigneeId);
 
-    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId ORDER BY t.createdAt DESC")
-    List<Task> findRecentTasksByProject(@Param("projectId") UUID projectId);
+    @Query("SELECT new com.example.javaspring.repository.projection.TaskSummaryView(t.id, t.title, t.status, t.priority, t.dueDate, " +
+            "a.id, a.username, a.email, a.firstName, a.lastName, " +
+            "t.commentsCount) " +
+            "FROM Task t LEFT JOIN t.assignee a WHERE t.project.id = :projectId ORDER BY t.createdAt DESC")
+    List<TaskSummaryView> findRecentTaskSummariesByProject(@Param("projectId") UUID projectId);
 
+    @EntityGraph(Task.LIST_GRAPH)
     @Query("SELECT t FROM Task t WHERE t.status = 'IN_PROGRESS' AND t.assignee.id = :assigneeId ORDER BY t.priority DESC")
     List<Task> findInProgressTasksByAssignee(@Param("assigneeId") UUID assigneeId);
 
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.task.id = :taskId")
     long countCommentsByTaskId(@Param("taskId") UUID taskId);
-}
\ No newline at end of file
+
+    /**
+     * Whether the user owns or is a member of the task's project, without loading any entity.
+     */
+    @Query("SELECT COUNT(t) > 0 FROM Task t JOIN t.project p LEFT JOIN p.members m " +
+            "WHERE t.id = :taskId AND (p.owner.id = :userId OR m.id = :userId)")
+    boolean isProjectOwnerOrMember(@Param("taskId") UUID taskId, @Param("userId") UUID userId);
+
+    /**
+     * Versions of the task and of everything embedded in its response, without loading any entity.
+     * Comments are inverse-side, so their versions are included separately.
+     */
+    @Query("SELECT t.version, p.version, o.version, a.version, r.version, " +
+            "p.tasksCount, t.commentsCount, " +
+            "(SELECT SUM(c.version) FROM Comment c WHERE c.task = t), " +
+            "(SELECT MAX(c.updatedAt) FROM Comment c WHERE c.task = t), " +
+            "(SELECT SUM(ca.version) FROM Comment c JOIN c.author ca WHERE c.task = t) " +
+            "FROM Task t JOIN t.project p JOIN p.owner o LEFT JOIN t.assignee a LEFT JOIN t.reporter r " +
+            "WHERE t.id = :taskId")
+    List<Object[]> findResponseVersion(@Param("taskId") UUID taskId);
+
+    // Keyset pagination, newest first: "After" seeks to older rows, "Before" to newer rows in ascending order
+    @EntityGraph(Task.LIST_GRAPH)
+    @Query("SELECT t FROM Task t ORDER BY t.createdAt DESC, t.id DESC")
+    List<Task> findPage(Limit limit);
+
+    @EntityGraph(Task.LIST_GRAPH)
+    @Query("SELECT t FROM Task t WHERE (t.createdAt, t.id) < (:createdAt, :id) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Task> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id, Limit limit);
+
+    @EntityGraph(Task.LIST_GRAPH)
+    @Query("SELECT t FROM Task t WHERE (t.createdAt, t.id) > (:createdAt, :id) " +
+            "ORDER BY t.createdAt ASC, t.id ASC")
+    List<Task> findPageBefore(@Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id, Limit limit);
+
+    @EntityGraph(Task.LIST_GRAPH)
+    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId ORDER BY t.createdAt DESC, t.id DESC")
+    List<Task> findPageByProjectId(@Param("projectId") UUID projectId, Limit limit);
+
+    @EntityGraph(Task.LIST_GRAPH)
+    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId AND (t.createdAt, t.id) < (:createdAt, :id) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Task> findPageByProjectIdAfter(@Param("projectId") UUID projectId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id, Limit limit);
+
+    @EntityGraph(Task.LIST_GRAPH)
+    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId AND (t.createdAt, t.id) > (:createdAt, :id) " +
+            "ORDER BY t.createdAt ASC, t.id ASC")
+    List<Task> findPageByProjectIdBefore(@Param("projectId") UUID projectId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id, Limit limit);
+}
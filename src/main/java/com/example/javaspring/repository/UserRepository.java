@@ -1,8 +1,13 @@
 package com.example.javaspring.repository;
 
+import com.example.javaspring.dto.response.UserSummaryResponse;
 import com.example.javaspring.entity.User;
 import com.example.javaspring.enums.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -11,11 +16,10 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends BaseRepository<User> {
-
-    Optional<User> findByUsername(String username);
+public interface UserRepository extends BaseRepository<User>, UserRepositoryCustom {
 
     Optional<User> findByEmail(String email);
 
@@ -55,6 +59,41 @@ public interface UserRepository extends BaseRepository<User> {
     @Query("SELECT COUNT(DISTINCT u) FROM User u JOIN u.assignedTasks t WHERE t.status = 'IN_PROGRESS'")
     long countUsersWithActiveTasks();
 
-    @Query("SELECT u.id, u.username, u.email, u.firstName, u.lastName FROM User u WHERE u.enabled = true")
-    List<Object[]> findUserSummaries();
-}
\ No newline at end of file
+    @Query("SELECT new com.example.javaspring.dto.response.UserSummaryResponse(" +
+            "u.id, u.username, u.email, u.firstName, u.lastName) FROM User u WHERE u.enabled = true")
+    List<UserSummaryResponse> findUserSummaries();
+
+    /**
+     * Streams (username, email) of all users; must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.username, u.email FROM User u")
+    Stream<Object[]> streamUsernamesAndEmails();
+
+    @Query("SELECT u.id FROM User u WHERE u.updatedAt > :since")
+    List<UUID> findIdsUpdatedAfter(@Param("since") LocalDateTime since);
+
+    /**
+     * Reads the user and its roles from the database, bypassing the second-level cache, for
+     * checks that must see the committed row.
+     */
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.username = :username")
+    Optional<User> findCurrentByUsername(@Param("username") String username);
+
+    @Query("SELECT u.version FROM User u WHERE u.id = :userId")
+    Optional<Long> findVersionById(@Param("userId") UUID userId);
+
+    // Keyset pagination, newest first: "After" seeks to older rows, "Before" to newer rows in ascending order
+    @Query("SELECT u FROM User u ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findPage(Limit limit);
+
+    @Query("SELECT u FROM User u WHERE (u.createdAt, u.id) < (:createdAt, :id) " +
+            "ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id, Limit limit);
+
+    @Query("SELECT u FROM User u WHERE (u.createdAt, u.id) > (:createdAt, :id) " +
+            "ORDER BY u.createdAt ASC, u.id ASC")
+    List<User> findPageBefore(@Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id, Limit limit);
+}
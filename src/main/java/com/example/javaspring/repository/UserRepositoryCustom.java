@@ -0,0 +1,14 @@
+package com.example.javaspring.repository;
+
+import com.example.javaspring.entity.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Looks the user up by natural id, so repeated lookups are served from the second-level
+     * cache instead of running a query.
+     */
+    Optional<User> findByUsername(String username);
+}
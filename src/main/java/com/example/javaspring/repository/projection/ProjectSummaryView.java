@@ -0,0 +1,21 @@
+package com.example.javaspring.repository.projection;
+
+import com.example.javaspring.enums.ProjectStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Columns of a project summary, selected with a JPQL constructor expression.
+ */
+public record ProjectSummaryView(UUID id,
+                                 String name,
+                                 ProjectStatus status,
+                                 LocalDateTime deadline,
+                                 UUID ownerId,
+                                 String ownerUsername,
+                                 String ownerEmail,
+                                 String ownerFirstName,
+                                 String ownerLastName,
+                                 Integer tasksCount) {
+}
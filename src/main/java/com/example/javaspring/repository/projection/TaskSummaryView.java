@@ -0,0 +1,24 @@
+package com.example.javaspring.repository.projection;
+
+import com.example.javaspring.enums.TaskPriority;
+import com.example.javaspring.enums.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Columns of a task summary, selected with a JPQL constructor expression. The assignee columns
+ * are {@code null} for unassigned tasks.
+ */
+public record TaskSummaryView(UUID id,
+                              String title,
+                              TaskStatus status,
+                              TaskPriority priority,
+                              LocalDateTime dueDate,
+                              UUID assigneeId,
+                              String assigneeUsername,
+                              String assigneeEmail,
+                              String assigneeFirstName,
+                              String assigneeLastName,
+                              Integer commentsCount) {
+}
@@ -0,0 +1,134 @@
+package com.example.javaspring.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Per-node near cache of "account is not locked" answers.
+ * <p>
+ * Almost no account is ever locked, so only negative answers are cached; locked accounts are
+ * always confirmed against Redis. Every lock or unlock, on any node, publishes the username on
+ * {@value #CHANNEL} and all nodes drop their entry as soon as the message arrives.
+ */
+@Slf4j
+@Component
+public class AccountLockCache implements MessageListener {
+
+    public static final String CHANNEL = "account-lock-invalidations";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Cache<String, Boolean> unlockedAccounts;
+    private final Timer invalidationLag;
+
+    // Bumped on every invalidation; a lookup that raced with one must not be cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public AccountLockCache(StringRedisTemplate redisTemplate,
+                            RedisMessageListenerContainer listenerContainer,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.security.lock-cache.max-size:100000}") long maxSize,
+                            @Value("${app.security.lock-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.unlockedAccounts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                // Bounds staleness if an invalidation message is ever lost
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.invalidationLag = Timer.builder("account_lock.invalidation.lag")
+                .description("Time between a lock state change and its invalidation reaching this node")
+                .register(meterRegistry);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, unlockedAccounts, "account-lock");
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * @param lockLookup authoritative check against Redis, called on a local miss
+     */
+    public boolean isLocked(String username, BooleanSupplier lockLookup) {
+        if (unlockedAccounts.getIfPresent(username) != null) {
+            return false;
+        }
+
+        long invalidationsBefore = invalidations.get();
+        boolean locked = lockLookup.getAsBoolean();
+
+        if (!locked && invalidations.get() == invalidationsBefore) {
+            unlockedAccounts.put(username, Boolean.TRUE);
+        }
+        return locked;
+    }
+
+    /**
+     * Drops the cached state locally and on every other node.
+     */
+    public void invalidate(String username) {
+        evictLocal(username);
+
+        try {
+            redisTemplate.convertAndSend(CHANNEL, invalidationMessage(username));
+        } catch (DataAccessException e) {
+            log.warn("Could not publish lock invalidation for {}: {}", username, e.getMessage());
+        }
+    }
+
+    /**
+     * Message format understood by {@link #onMessage}; also published from Lua scripts.
+     */
+    public static String invalidationMessage(String username) {
+        return System.currentTimeMillis() + ":" + username;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        if (separator <= 0) {
+            log.warn("Ignoring malformed lock invalidation message: {}", body);
+            return;
+        }
+
+        evictLocal(body.substring(separator + 1));
+
+        try {
+            long publishedAt = Long.parseLong(body.substring(0, separator));
+            invalidationLag.record(Math.max(0, System.currentTimeMillis() - publishedAt), TimeUnit.MILLISECONDS);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed lock invalidation timestamp: {}", body);
+        }
+    }
+
+    /**
+     * Drops the cached state on this node only, for changes whose invalidation was already published.
+     */
+    public void evictLocal(String username) {
+        invalidations.incrementAndGet();
+        unlockedAccounts.invalidate(username);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.javaspring.security;
+
+import com.example.javaspring.enums.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Principal of a request authenticated by an access token, built from the token claims alone.
+ */
+public record AuthenticatedUser(
+        UUID id,
+        String username,
+        String email,
+        Set<Role> roles
+) {
+
+    public static AuthenticatedUser from(VerifiedToken token) {
+        return new AuthenticatedUser(token.userId(), token.subject(), token.email(), token.roles());
+    }
+
+    public boolean isAdmin() {
+        return roles.contains(Role.ADMIN);
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return roles.stream()
+                .<GrantedAuthority>map(role -> new SimpleGrantedAuthority("ROLE_" + role.name()))
+                .toList();
+    }
+}
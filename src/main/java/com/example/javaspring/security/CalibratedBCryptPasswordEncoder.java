@@ -0,0 +1,82 @@
+package com.example.javaspring.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder whose cost is chosen at startup so one hash takes about the target time on
+ * the current hardware. Stored hashes with a lower cost are reported by
+ * {@link #upgradeEncoding(String)} so they can be rehashed on the next successful login; higher
+ * costs are kept, so nodes that calibrate differently never rehash each other's hashes back and
+ * forth.
+ * <p>
+ * Calibration is meant for development. In production pin the cost on every node with
+ * {@code app.security.password-hashing.bcrypt-strength}, using the value logged here.
+ */
+@Slf4j
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[abyx]?\\$(\\d\\d)\\$");
+    private static final int MAX_STRENGTH = 31;
+    private static final int SAMPLES = 3;
+
+    private final int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * Measures BCrypt on this machine and returns an encoder whose cost best matches the target.
+     * Each additional cost step doubles the work, so only the minimum cost is timed.
+     */
+    public static CalibratedBCryptPasswordEncoder calibrated(long targetMs, int minStrength, int maxStrength) {
+        long baselineMs = measure(minStrength);
+        int steps = (int) Math.round(Math.log((double) targetMs / Math.max(1, baselineMs)) / Math.log(2));
+        int strength = Math.max(minStrength, Math.min(Math.min(maxStrength, MAX_STRENGTH), minStrength + steps));
+
+        log.info("BCrypt calibrated to strength {} for a {} ms target (strength {} took {} ms, expected ~{} ms); "
+                        + "pin it with app.security.password-hashing.bcrypt-strength={} when running several nodes",
+                strength, targetMs, minStrength, baselineMs, baselineMs << (strength - minStrength), strength);
+
+        return new CalibratedBCryptPasswordEncoder(strength);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) < strength;
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private static long measure(int strength) {
+        String salt = BCrypt.gensalt(strength);
+        // First run warms up the JIT and is discarded
+        BCrypt.hashpw("calibration", salt);
+
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long startedAt = System.nanoTime();
+            BCrypt.hashpw("calibration", salt);
+            samples[i] = (System.nanoTime() - startedAt) / 1_000_000;
+        }
+
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.javaspring.security;
+
+import com.example.javaspring.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Signs and parses JWTs. The signing key, the verification key ring and the parser are
+ * built once at startup; {@link JwtParser} is immutable and safe to share between threads.
+ * <p>
+ * Tokens carry the id of their signing key in the {@code kid} header. Retired keys can be
+ * kept in {@code app.jwt.verification-keys} ({@code kid=secret,kid=secret}) so tokens signed
+ * before a rotation stay valid until they expire.
+ * <p>
+ * Tokens issued before key ids were introduced have no {@code kid} header. They are verified
+ * with the key named by {@code app.jwt.legacy-key-id} (by default the active key id). Once those
+ * tokens have expired, i.e. one refresh expiration after the upgrade, set it to empty so
+ * kid-less tokens are rejected; otherwise the legacy path stays open for good.
+ */
+@Slf4j
+@Component
+public class JwtTokenProvider {
+
+    private final String activeKeyId;
+    private final SecretKey signingKey;
+    private final SignatureAlgorithm signatureAlgorithm;
+    private final Map<String, SecretKey> verificationKeys;
+    private final SecretKey legacyKey;
+    private final JwtParser parser;
+    private final long accessExpirationMs;
+    private final long refreshExpirationMs;
+
+    public JwtTokenProvider(
+            @Value("${app.jwt.secret:taskflow-secret-key-very-long-for-security}") String secret,
+            @Value("${app.jwt.key-id:primary}") String keyId,
+            @Value("${app.jwt.verification-keys:}") String retiredKeys,
+            @Value("${app.jwt.legacy-key-id:${app.jwt.key-id:primary}}") String legacyKeyId,
+            @Value("${app.jwt.expiration:86400000}") long accessExpirationMs, // 24 hours
+            @Value("${app.jwt.refresh-expiration:604800000}") long refreshExpirationMs) { // 7 days
+
+        this.activeKeyId = keyId;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.signatureAlgorithm = SignatureAlgorithm.forSigningKey(signingKey);
+        this.accessExpirationMs = accessExpirationMs;
+        this.refreshExpirationMs = refreshExpirationMs;
+
+        Map<String, SecretKey> keys = new LinkedHashMap<>();
+        keys.put(keyId, signingKey);
+        parseRetiredKeys(retiredKeys).forEach((retiredKeyId, key) -> {
+            // A retired entry must never shadow the key this node signs with
+            if (keys.putIfAbsent(retiredKeyId, key) != null) {
+                throw new IllegalArgumentException("app.jwt.verification-keys must not contain the active key id '"
+                        + retiredKeyId + "'");
+            }
+        });
+        this.verificationKeys = Collections.unmodifiableMap(keys);
+
+        if (legacyKeyId == null || legacyKeyId.isBlank()) {
+            this.legacyKey = null;
+        } else {
+            this.legacyKey = keys.get(legacyKeyId.trim());
+            if (legacyKey == null) {
+                throw new IllegalArgumentException("app.jwt.legacy-key-id '" + legacyKeyId + "' is not a known key id");
+            }
+        }
+
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveKey(header.getKeyId());
+                    }
+                })
+                .build();
+
+        log.info("JWT provider initialized with active key '{}' ({}) and {} verification key(s), legacy tokens {}",
+                activeKeyId, signatureAlgorithm, verificationKeys.size(), legacyKey != null ? "accepted" : "rejected");
+    }
+
+    // ========== SIGNING ==========
+
+    /**
+     * @param familyId refresh-token family of the session the access token belongs to
+     * @param epoch    current token epoch of the user; tokens from an older epoch are rejected
+     */
+    public String generateAccessToken(User user, String familyId, long epoch) {
+        return newToken(user, UUID.randomUUID().toString(), accessExpirationMs)
+                .claim("userId", user.getId().toString())
+                .claim("email", user.getEmail())
+                .claim("roles", user.getRoles())
+                .claim("familyId", familyId)
+                .claim("epoch", epoch)
+                .compact();
+    }
+
+    public String generateRefreshToken(User user, String tokenId, String familyId) {
+        return newToken(user, tokenId, refreshExpirationMs)
+                .claim("type", "refresh")
+                .claim("userId", user.getId().toString())
+                .claim("familyId", familyId)
+                .compact();
+    }
+
+    // ========== PARSING ==========
+
+    /**
+     * Verifies the signature and expiry of the token and returns its claims.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, expired or not signed by a known key
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    public long getAccessExpirationMs() {
+        return accessExpirationMs;
+    }
+
+    public long getRefreshExpirationMs() {
+        return refreshExpirationMs;
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private JwtBuilder newToken(User user, String tokenId, long expirationMs) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + expirationMs);
+
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, activeKeyId)
+                .setId(tokenId)
+                .setSubject(user.getUsername())
+                .setIssuedAt(now)
+                .setExpiration(expiryDate)
+                .signWith(signingKey, signatureAlgorithm);
+    }
+
+    private Key resolveKey(String keyId) {
+        // Tokens issued before key ids were introduced have no kid header
+        if (keyId == null) {
+            if (legacyKey == null) {
+                throw new UnsupportedJwtException("Token has no signing key id");
+            }
+            return legacyKey;
+        }
+
+        SecretKey key = verificationKeys.get(keyId);
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown signing key id: " + keyId);
+        }
+        return key;
+    }
+
+    private static Map<String, SecretKey> parseRetiredKeys(String retiredKeys) {
+        Map<String, SecretKey> keys = new LinkedHashMap<>();
+        if (retiredKeys == null || retiredKeys.isBlank()) {
+            return keys;
+        }
+
+        for (String entry : retiredKeys.split(",")) {
+            int separator = entry.indexOf('=');
+            if (separator <= 0 || separator == entry.length() - 1) {
+                throw new IllegalArgumentException("Invalid app.jwt.verification-keys entry, expected kid=secret");
+            }
+            String keyId = entry.substring(0, separator).trim();
+            String secret = entry.substring(separator + 1).trim();
+            if (keys.put(keyId, Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8))) != null) {
+                throw new IllegalArgumentException("app.jwt.verification-keys lists key id '" + keyId + "' twice");
+            }
+        }
+        return keys;
+    }
+}
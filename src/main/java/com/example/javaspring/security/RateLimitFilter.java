@@ -0,0 +1,79 @@
+package com.example.javaspring.security;
+
+import com.example.javaspring.dto.response.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Limits login and refresh attempts per client address before the request reaches any
+ * password hashing or token work. Per-username limits are applied in the auth service,
+ * where the request body has already been read.
+ * <p>
+ * The client address is {@link HttpServletRequest#getRemoteAddr()}; behind a proxy enable
+ * {@code server.forward-headers-strategy} so it reflects the real client.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String LOGIN_PATH = "/api/auth/login";
+    public static final String REFRESH_PATH = "/api/auth/refresh";
+
+    private static final RateLimiter.Limit LOGIN_PER_IP = RateLimiter.Limit.perMinute("login-ip", 20);
+    private static final RateLimiter.Limit REFRESH_PER_IP = RateLimiter.Limit.perMinute("refresh-ip", 60);
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || resolveLimit(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RateLimiter.Limit limit = resolveLimit(request);
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(limit, request.getRemoteAddr());
+
+        if (!decision.allowed()) {
+            log.warn("Rate limit '{}' exceeded for client {}", limit.name(), request.getRemoteAddr());
+            writeTooManyRequests(response, decision.retryAfterSeconds());
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private RateLimiter.Limit resolveLimit(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return switch (path) {
+            case LOGIN_PATH -> LOGIN_PER_IP;
+            case REFRESH_PATH -> REFRESH_PER_IP;
+            default -> null;
+        };
+    }
+
+    private void writeTooManyRequests(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("Too many requests, please retry later"));
+    }
+}
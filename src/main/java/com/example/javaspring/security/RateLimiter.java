@@ -0,0 +1,192 @@
+package com.example.javaspring.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Token-bucket rate limiter shared by all nodes through an atomic Redis script.
+ * <p>
+ * The script runs on a virtual thread and the caller waits at most
+ * {@code app.rate-limit.redis-timeout-ms} for it. If Redis fails or misses that budget, the
+ * request and all decisions for a short cool-down fall back to per-node buckets, so a slow
+ * Redis adds at most the budget to the endpoints it protects.
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    private static final String KEY_PREFIX = "rate_limit:";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> TOKEN_BUCKET_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/token_bucket.lua"), List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long redisTimeoutMs;
+    private final long fallbackCooldownMs;
+    private final Cache<String, LocalTokenBucket> localBuckets;
+    private final Counter fallbacks;
+    private final ExecutorService redisCalls = Executors.newVirtualThreadPerTaskExecutor();
+
+    private volatile long degradedUntil;
+
+    public RateLimiter(StringRedisTemplate redisTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.rate-limit.redis-timeout-ms:50}") long redisTimeoutMs,
+                       @Value("${app.rate-limit.fallback-cooldown-ms:5000}") long fallbackCooldownMs) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.redisTimeoutMs = redisTimeoutMs;
+        this.fallbackCooldownMs = fallbackCooldownMs;
+        this.localBuckets = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        this.fallbacks = Counter.builder("rate_limit.fallback")
+                .description("Decisions taken by the local buckets because Redis was slow or unavailable")
+                .register(meterRegistry);
+    }
+
+    public record Limit(String name, int capacity, double refillPerSecond) {
+
+        public static Limit perMinute(String name, int requestsPerMinute) {
+            return new Limit(name, requestsPerMinute, requestsPerMinute / 60.0);
+        }
+    }
+
+    /**
+     * @param retryAfterSeconds how long the caller should wait before retrying; 0 when allowed
+     */
+    public record Decision(boolean allowed, long retryAfterSeconds) {
+    }
+
+    public Decision tryAcquire(Limit limit, String key) {
+        String bucketKey = KEY_PREFIX + limit.name() + ":" + key;
+
+        Decision decision = System.currentTimeMillis() < degradedUntil
+                ? acquireLocally(limit, bucketKey)
+                : acquireFromRedis(limit, bucketKey);
+
+        meterRegistry.counter("rate_limit.decisions",
+                "limit", limit.name(),
+                "outcome", decision.allowed() ? "allowed" : "rejected").increment();
+
+        return decision;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        redisCalls.shutdownNow();
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private Decision acquireFromRedis(Limit limit, String bucketKey) {
+        Future<List<?>> call = redisCalls.submit(() -> redisTemplate.execute(
+                TOKEN_BUCKET_SCRIPT,
+                List.of(bucketKey),
+                String.valueOf(limit.capacity()),
+                String.valueOf(limit.refillPerSecond())
+        ));
+
+        List<?> result;
+        try {
+            result = call.get(redisTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // A late answer may still take a token in Redis; erring towards stricter is fine here
+            call.cancel(true);
+            degrade("Redis rate limiter did not answer within " + redisTimeoutMs + " ms");
+            return acquireLocally(limit, bucketKey);
+        } catch (InterruptedException e) {
+            call.cancel(true);
+            Thread.currentThread().interrupt();
+            return acquireLocally(limit, bucketKey);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DataAccessException failure) {
+                degrade("Redis rate limiter failed: " + failure.getMessage());
+                return acquireLocally(limit, bucketKey);
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Redis rate limiter failed", e.getCause());
+        }
+
+        if (result == null || result.size() < 2) {
+            return acquireLocally(limit, bucketKey);
+        }
+
+        boolean allowed = ((Number) result.get(0)).longValue() == 1;
+        long retryAfterMs = ((Number) result.get(1)).longValue();
+        return new Decision(allowed, allowed ? 0 : toSeconds(retryAfterMs));
+    }
+
+    private Decision acquireLocally(Limit limit, String bucketKey) {
+        fallbacks.increment();
+
+        LocalTokenBucket bucket = localBuckets.get(bucketKey, key -> new LocalTokenBucket(limit));
+        long retryAfterMs = bucket.tryAcquire();
+        return new Decision(retryAfterMs == 0, toSeconds(retryAfterMs));
+    }
+
+    private void degrade(String reason) {
+        if (System.currentTimeMillis() >= degradedUntil) {
+            log.warn("{}; using local rate limit buckets for {} ms", reason, fallbackCooldownMs);
+        }
+        degradedUntil = System.currentTimeMillis() + fallbackCooldownMs;
+    }
+
+    private static long toSeconds(long millis) {
+        return millis <= 0 ? 0 : Math.max(1, (millis + 999) / 1000);
+    }
+
+    private static class LocalTokenBucket {
+
+        private final int capacity;
+        private final double refillPerMs;
+        private double tokens;
+        private long updatedAt;
+
+        LocalTokenBucket(Limit limit) {
+            this.capacity = limit.capacity();
+            this.refillPerMs = limit.refillPerSecond() / 1000.0;
+            this.tokens = limit.capacity();
+            this.updatedAt = System.currentTimeMillis();
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise milliseconds until one is available
+         */
+        synchronized long tryAcquire() {
+            long now = System.currentTimeMillis();
+            tokens = Math.min(capacity, tokens + (now - updatedAt) * refillPerMs);
+            updatedAt = now;
+
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / refillPerMs);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.javaspring.security;
+
+import com.example.javaspring.util.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tracks refresh tokens as families, one per login session, in a Redis hash per user that maps
+ * each family to the id of its only valid refresh token.
+ * <p>
+ * Refreshing rotates the family to a new token. Presenting any earlier token of the family means
+ * it was copied, so the whole family is revoked and both holders have to log in again. Revoking
+ * a family also revokes its access tokens through {@link TokenRevocationService}.
+ */
+@Slf4j
+@Component
+public class RefreshTokenFamilyService {
+
+    private static final String FAMILIES_PREFIX = "refresh_families:";
+
+    private static final RedisScript<Long> START_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/refresh_family_start.lua"), Long.class);
+    private static final RedisScript<Long> ROTATE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/refresh_family_rotate.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final TokenRevocationService revocationService;
+    private final long refreshExpirationMs;
+
+    public RefreshTokenFamilyService(StringRedisTemplate redisTemplate,
+                                     TokenRevocationService revocationService,
+                                     @Value("${app.jwt.refresh-expiration:604800000}") long refreshExpirationMs) {
+        this.redisTemplate = redisTemplate;
+        this.revocationService = revocationService;
+        this.refreshExpirationMs = refreshExpirationMs;
+    }
+
+    public enum Rotation {
+        ROTATED,
+        UNKNOWN_FAMILY,
+        REUSE_DETECTED
+    }
+
+    /**
+     * Starts a new family whose first refresh token is {@code tokenId}.
+     *
+     * @return the family id to embed in the session's tokens
+     */
+    public String startFamily(UUID userId, String tokenId) {
+        String familyId = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+
+        redisTemplate.execute(
+                START_SCRIPT,
+                List.of(FAMILIES_PREFIX + userId),
+                familyId,
+                tokenId,
+                String.valueOf(now + refreshExpirationMs),
+                String.valueOf(now),
+                String.valueOf(refreshExpirationMs)
+        );
+        return familyId;
+    }
+
+    /**
+     * Replaces the presented refresh token of its family with {@code newTokenId}, atomically.
+     */
+    public Rotation rotate(VerifiedToken presented, String newTokenId) {
+        Long result = redisTemplate.execute(
+                ROTATE_SCRIPT,
+                List.of(FAMILIES_PREFIX + presented.userId()),
+                presented.familyId(),
+                presented.tokenId(),
+                newTokenId,
+                String.valueOf(System.currentTimeMillis() + refreshExpirationMs),
+                String.valueOf(refreshExpirationMs)
+        );
+
+        if (result == null || result == 0) {
+            return Rotation.UNKNOWN_FAMILY;
+        }
+        if (result < 0) {
+            revocationService.revokeFamily(presented.familyId());
+            log.warn("Refresh token reuse detected for user {}, family {} revoked",
+                    presented.userId(), presented.familyId());
+            return Rotation.REUSE_DETECTED;
+        }
+        return Rotation.ROTATED;
+    }
+
+    public void revokeFamily(UUID userId, String familyId) {
+        redisTemplate.opsForHash().delete(FAMILIES_PREFIX + userId, familyId);
+        revocationService.revokeFamily(familyId);
+    }
+
+    /**
+     * Inside a transaction the families are dropped once it commits, so a rolled-back change keeps the sessions.
+     */
+    public void revokeAllFamilies(UUID userId) {
+        AfterCommit.run(() -> redisTemplate.delete(FAMILIES_PREFIX + userId));
+    }
+}
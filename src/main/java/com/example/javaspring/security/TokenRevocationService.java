@@ -0,0 +1,278 @@
+package com.example.javaspring.security;
+
+import com.example.javaspring.util.AfterCommit;
+import com.example.javaspring.util.BloomFilter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token revocation shared by all nodes through Redis.
+ * <p>
+ * Revoked token ids ({@code jti}) are stored in Redis with a TTL equal to the token's
+ * remaining lifetime. Each node keeps a Bloom filter of revoked ids in front of Redis, so
+ * the common "not revoked" answer needs no network round trip; only filter hits are
+ * confirmed against Redis. New revocations are pushed to every node over pub/sub and the
+ * filter is rebuilt from Redis periodically to drop expired ids.
+ * <p>
+ * All access tokens of a user are revoked at once by incrementing the user's token epoch,
+ * which every access token carries. Nodes cache epochs locally and receive increments over
+ * the same channel.
+ * <p>
+ * Ending one session (logout, refresh-token reuse) revokes its family id the same way as a
+ * token id, for the lifetime of an access token, so every access token of the family is
+ * rejected too.
+ */
+@Slf4j
+@Component
+public class TokenRevocationService implements MessageListener {
+
+    private static final String REVOKED_TOKEN_PREFIX = "revoked_token:";
+    private static final String REVOKED_FAMILY_PREFIX = "revoked_family:";
+    private static final String TOKEN_EPOCH_PREFIX = "token_epoch:";
+    private static final String CHANNEL = "token-revocations";
+    private static final String TOKEN_MESSAGE = "token:";
+    private static final String EPOCH_MESSAGE = "epoch:";
+    private static final String FAMILY_MESSAGE = "family:";
+
+    // Token ids and family ids share the Bloom filter
+    private static final String FAMILY_ENTRY = "family:";
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final long expectedRevocations;
+    private final long accessExpirationMs;
+
+    private volatile BloomFilter revokedTokens;
+
+    // Revocations seen since the last rebuild started, re-applied after the filter swap
+    private final Map<String, Long> recentRevocations = new ConcurrentHashMap<>();
+
+    // Current token epoch per user; the TTL bounds staleness if an increment message is lost
+    private final Cache<UUID, Long> userEpochs;
+
+    public TokenRevocationService(StringRedisTemplate redisTemplate,
+                                  RedisMessageListenerContainer listenerContainer,
+                                  @Value("${app.jwt.revocation.expected-insertions:100000}") long expectedRevocations,
+                                  @Value("${app.jwt.expiration:86400000}") long accessExpirationMs,
+                                  @Value("${app.jwt.epoch-cache.max-size:100000}") long epochCacheSize,
+                                  @Value("${app.jwt.epoch-cache.ttl-seconds:60}") long epochCacheTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.expectedRevocations = expectedRevocations;
+        this.accessExpirationMs = accessExpirationMs;
+        this.revokedTokens = BloomFilter.create(expectedRevocations, FALSE_POSITIVE_RATE);
+        this.userEpochs = Caffeine.newBuilder()
+                .maximumSize(epochCacheSize)
+                .expireAfterWrite(Duration.ofSeconds(epochCacheTtlSeconds))
+                .build();
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    // ========== REVOCATION ==========
+
+    public void revoke(VerifiedToken token) {
+        long ttlMillis = token.getRemainingMillis();
+        if (ttlMillis <= 0) {
+            return;
+        }
+
+        rememberRevokedToken(token.tokenId());
+        redisTemplate.opsForValue().set(REVOKED_TOKEN_PREFIX + token.tokenId(), "1", ttlMillis, TimeUnit.MILLISECONDS);
+        redisTemplate.convertAndSend(CHANNEL, TOKEN_MESSAGE + token.tokenId());
+
+        log.debug("Token revoked for subject: {}", token.subject());
+    }
+
+    /**
+     * Revokes every access token of a refresh-token family, i.e. of one session. Refresh tokens
+     * are revoked by dropping the family in {@link RefreshTokenFamilyService}.
+     */
+    public void revokeFamily(String familyId) {
+        // No access token of the family outlives one access-token lifetime from now
+        rememberRevokedToken(FAMILY_ENTRY + familyId);
+        redisTemplate.opsForValue().set(REVOKED_FAMILY_PREFIX + familyId, "1", accessExpirationMs, TimeUnit.MILLISECONDS);
+        redisTemplate.convertAndSend(CHANNEL, FAMILY_MESSAGE + familyId);
+
+        log.debug("Access tokens revoked for family: {}", familyId);
+    }
+
+    /**
+     * Revokes every access token issued to the user so far, e.g. after the account is
+     * disabled or its roles change. Claims in those tokens are no longer trustworthy.
+     * Costs one increment, however many tokens the user holds.
+     * <p>
+     * Inside a transaction the increment runs once it commits: a rolled-back change keeps the
+     * user's sessions, and a login that still reads the old row cannot pick up the new epoch.
+     */
+    public void revokeUserTokens(UUID userId) {
+        AfterCommit.run(() -> incrementEpoch(userId));
+    }
+
+    /**
+     * Epoch to embed in newly issued access tokens of the user. Read from Redis rather than the
+     * local cache: a token minted with an epoch this node has not heard of yet would be revoked
+     * as soon as the increment message arrives.
+     */
+    public long currentEpoch(UUID userId) {
+        try {
+            return userEpochs.asMap().merge(userId, loadEpoch(userId), Math::max);
+        } catch (DataAccessException e) {
+            log.warn("Could not read token epoch of user {} from Redis: {}", userId, e.getMessage());
+            return userEpochs.asMap().getOrDefault(userId, 0L);
+        }
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        // Refresh tokens are governed by their family, not the epoch
+        if (!token.isRefreshToken() && token.userId() != null && token.epoch() < cachedEpoch(token.userId())) {
+            return true;
+        }
+
+        if (isConfirmedRevoked(token.tokenId(), REVOKED_TOKEN_PREFIX + token.tokenId())) {
+            return true;
+        }
+
+        // Refresh tokens of a revoked family are already rejected by the family hash
+        return !token.isRefreshToken() && token.familyId() != null
+                && isConfirmedRevoked(FAMILY_ENTRY + token.familyId(), REVOKED_FAMILY_PREFIX + token.familyId());
+    }
+
+    // ========== SYNCHRONIZATION ==========
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+
+        try {
+            if (body.startsWith(TOKEN_MESSAGE)) {
+                rememberRevokedToken(body.substring(TOKEN_MESSAGE.length()));
+            } else if (body.startsWith(FAMILY_MESSAGE)) {
+                rememberRevokedToken(FAMILY_ENTRY + body.substring(FAMILY_MESSAGE.length()));
+            } else if (body.startsWith(EPOCH_MESSAGE)) {
+                String[] parts = body.substring(EPOCH_MESSAGE.length()).split(":");
+                userEpochs.asMap().merge(UUID.fromString(parts[0]), Long.parseLong(parts[1]), Math::max);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed revocation message: {}", body);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.rebuild-interval-ms:300000}",
+            initialDelayString = "${app.jwt.revocation.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+
+        try {
+            List<String> revokedTokenIds = scanKeys(REVOKED_TOKEN_PREFIX);
+            List<String> revokedFamilyIds = scanKeys(REVOKED_FAMILY_PREFIX);
+            long entries = revokedTokenIds.size() + (long) revokedFamilyIds.size();
+            BloomFilter rebuilt = BloomFilter.create(Math.max(expectedRevocations, entries * 2), FALSE_POSITIVE_RATE);
+            revokedTokenIds.forEach(rebuilt::put);
+            revokedFamilyIds.forEach(familyId -> rebuilt.put(FAMILY_ENTRY + familyId));
+
+            revokedTokens = rebuilt;
+
+            // Revocations received while scanning may have gone to the old filter only
+            recentRevocations.keySet().forEach(rebuilt::put);
+            recentRevocations.values().removeIf(receivedAt -> receivedAt < startedAt);
+
+            log.debug("Revocation filter rebuilt with {} token and family ids in {} ms",
+                    rebuilt.approximateElementCount(), System.currentTimeMillis() - startedAt);
+        } catch (DataAccessException e) {
+            log.warn("Could not rebuild revocation filter from Redis: {}", e.getMessage());
+        }
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private boolean isConfirmedRevoked(String filterEntry, String redisKey) {
+        if (!revokedTokens.mightContain(filterEntry)) {
+            return false;
+        }
+
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(redisKey));
+        } catch (DataAccessException e) {
+            // Filter hits are almost always real revocations; fail closed while Redis is unavailable
+            log.warn("Could not confirm token revocation in Redis: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private void rememberRevokedToken(String tokenId) {
+        recentRevocations.put(tokenId, System.currentTimeMillis());
+        revokedTokens.put(tokenId);
+    }
+
+    private void incrementEpoch(UUID userId) {
+        // The epoch never expires: resetting it would revive tokens from older epochs
+        Long epoch = redisTemplate.opsForValue().increment(TOKEN_EPOCH_PREFIX + userId);
+        if (epoch == null) {
+            throw new IllegalStateException("Could not increment token epoch for user: " + userId);
+        }
+
+        userEpochs.asMap().merge(userId, epoch, Math::max);
+        redisTemplate.convertAndSend(CHANNEL, EPOCH_MESSAGE + userId + ":" + epoch);
+
+        log.debug("All access tokens revoked for user: {} (epoch {})", userId, epoch);
+    }
+
+    private long cachedEpoch(UUID userId) {
+        try {
+            return userEpochs.get(userId, this::loadEpoch);
+        } catch (DataAccessException e) {
+            // Not cached, so the next request retries; fail open like the other near caches
+            log.warn("Could not read token epoch of user {} from Redis: {}", userId, e.getMessage());
+            return 0L;
+        }
+    }
+
+    private Long loadEpoch(UUID userId) {
+        String epoch = redisTemplate.opsForValue().get(TOKEN_EPOCH_PREFIX + userId);
+        return epoch != null ? Long.parseLong(epoch) : 0L;
+    }
+
+    private List<String> scanKeys(String prefix) {
+        List<String> suffixes = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(1000).build();
+
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            cursor.forEachRemaining(key -> suffixes.add(key.substring(prefix.length())));
+        }
+        return suffixes;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.javaspring.security;
+
+import com.example.javaspring.enums.Role;
+import com.example.javaspring.enums.TokenType;
+import com.example.javaspring.exception.TokenException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single entry point for turning a raw JWT into a {@link VerifiedToken}.
+ * <p>
+ * Verified claims are cached by the SHA-256 of the token until the token expires, so a
+ * bearer token seen again costs one hash and one map lookup. Revocation is checked on
+ * every call, cached or not, so a revoked token is never returned.
+ */
+@Slf4j
+@Component
+public class TokenVerifier {
+
+    private static final String CACHE_NAME = "jwt.verified-tokens";
+
+    private final JwtTokenProvider tokenProvider;
+    private final TokenRevocationService revocationService;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public TokenVerifier(JwtTokenProvider tokenProvider,
+                         TokenRevocationService revocationService,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.jwt.cache.max-size:10000}") long maxSize) {
+        this.tokenProvider = tokenProvider;
+        this.revocationService = revocationService;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, CACHE_NAME);
+    }
+
+    /**
+     * Verifies signature, expiry and revocation status of the token.
+     *
+     * @throws TokenException if the token is invalid, expired or revoked
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isBlank()) {
+            throw new TokenException("Token is empty");
+        }
+
+        String tokenHash = hash(token);
+        VerifiedToken verified = verifiedTokens.getIfPresent(tokenHash);
+
+        if (verified == null) {
+            verified = parse(token, tokenHash);
+            verifiedTokens.put(tokenHash, verified);
+        }
+
+        if (revocationService.isRevoked(verified)) {
+            verifiedTokens.invalidate(tokenHash);
+            throw new TokenException("Token has been revoked");
+        }
+
+        return verified;
+    }
+
+    public void evict(String token) {
+        verifiedTokens.invalidate(hash(token));
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private VerifiedToken parse(String token, String tokenHash) {
+        try {
+            Claims claims = tokenProvider.parseClaims(token);
+
+            String userId = claims.get("userId", String.class);
+            TokenType type = "refresh".equals(claims.get("type", String.class)) ? TokenType.REFRESH : TokenType.ACCESS;
+
+            return new VerifiedToken(
+                    tokenHash,
+                    claims.getId() != null ? claims.getId() : tokenHash,
+                    claims.getSubject(),
+                    userId != null ? UUID.fromString(userId) : null,
+                    claims.get("email", String.class),
+                    parseRoles(claims.get("roles")),
+                    type,
+                    claims.get("familyId", String.class),
+                    claims.get("epoch") instanceof Number epoch ? epoch.longValue() : 0L,
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                    claims.getExpiration().toInstant()
+            );
+        } catch (ExpiredJwtException e) {
+            log.debug("JWT token is expired: {}", e.getMessage());
+            throw new TokenException("Token is expired", e);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Invalid JWT token: {}", e.getMessage());
+            throw new TokenException("Invalid token", e);
+        }
+    }
+
+    private static Set<Role> parseRoles(Object rawRoles) {
+        Set<Role> roles = EnumSet.noneOf(Role.class);
+        if (rawRoles instanceof Collection<?> values) {
+            values.forEach(value -> roles.add(Role.valueOf(value.toString())));
+        }
+        return Set.copyOf(roles);
+    }
+
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+            long remainingMillis = token.expiresAt().toEpochMilli() - Instant.now().toEpochMilli();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
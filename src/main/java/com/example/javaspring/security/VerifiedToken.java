@@ -0,0 +1,41 @@
+package com.example.javaspring.security;
+
+import com.example.javaspring.enums.Role;
+import com.example.javaspring.enums.TokenType;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been checked.
+ * {@code email}, {@code roles} and {@code epoch} are only present on access tokens.
+ * {@code tokenId} is the {@code jti} claim, or the token hash for tokens issued without one.
+ * {@code familyId} is the refresh-token family of the session; null on legacy tokens.
+ */
+public record VerifiedToken(
+        String tokenHash,
+        String tokenId,
+        String subject,
+        UUID userId,
+        String email,
+        Set<Role> roles,
+        TokenType type,
+        String familyId,
+        long epoch,
+        Instant issuedAt,
+        Instant expiresAt
+) {
+
+    public boolean isExpired() {
+        return !Instant.now().isBefore(expiresAt);
+    }
+
+    public boolean isRefreshToken() {
+        return type == TokenType.REFRESH;
+    }
+
+    public long getRemainingMillis() {
+        return Math.max(0, expiresAt.toEpochMilli() - System.currentTimeMillis());
+    }
+}
@@ -15,6 +15,8 @@ public interface AuthService {
 
     void logout(String token);
 
+    void logoutEverywhere(String username);
+
     boolean validateToken(String token);
 
     String extractUsernameFromToken(String token);
@@ -3,7 +3,9 @@ package com.example.javaspring.service;
 import com.example.javaspring.dto.request.CommentCreateRequest;
 import com.example.javaspring.dto.request.CommentUpdateRequest;
 import com.example.javaspring.dto.response.CommentResponse;
+import com.example.javaspring.dto.response.CursorPageResponse;
 import com.example.javaspring.dto.response.PageResponse;
+import com.example.javaspring.enums.TotalMode;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
@@ -16,7 +18,7 @@ public interface CommentService {
 
     CommentResponse getCommentById(UUID id);
 
-    PageResponse<CommentResponse> getAllComments(Pageable pageable);
+    PageResponse<CommentResponse> getAllComments(Pageable pageable, TotalMode totalMode);
 
     CommentResponse updateComment(UUID id, CommentUpdateRequest request, UUID authorId);
 
@@ -26,13 +28,17 @@ public interface CommentService {
 
     List<CommentResponse> getCommentsByTaskOrderedByDate(UUID taskId, boolean ascending);
 
-    PageResponse<CommentResponse> getCommentsByTask(UUID taskId, Pageable pageable);
+    PageResponse<CommentResponse> getCommentsByTask(UUID taskId, Pageable pageable, TotalMode totalMode);
+
+    CursorPageResponse<CommentResponse> getCommentsByTask(UUID taskId, String cursor, int size);
 
     List<CommentResponse> getCommentsByAuthor(UUID authorId);
 
     List<CommentResponse> getRecentCommentsByAuthor(UUID authorId);
 
-    PageResponse<CommentResponse> getCommentsByAuthor(UUID authorId, Pageable pageable);
+    PageResponse<CommentResponse> getCommentsByAuthor(UUID authorId, Pageable pageable, TotalMode totalMode);
+
+    CursorPageResponse<CommentResponse> getCommentsByAuthor(UUID authorId, String cursor, int size);
 
     long getCommentsCountByProject(UUID projectId);
 
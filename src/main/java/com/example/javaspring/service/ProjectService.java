@@ -2,14 +2,17 @@ package com.example.javaspring.service;
 
 import com.example.javaspring.dto.request.ProjectCreateRequest;
 import com.example.javaspring.dto.request.ProjectUpdateRequest;
+import com.example.javaspring.dto.response.CursorPageResponse;
 import com.example.javaspring.dto.response.PageResponse;
 import com.example.javaspring.dto.response.ProjectResponse;
 import com.example.javaspring.dto.response.ProjectSummaryResponse;
 import com.example.javaspring.enums.ProjectStatus;
+import com.example.javaspring.enums.TotalMode;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
@@ -19,7 +22,36 @@ public interface ProjectService {
 
     ProjectResponse getProjectById(UUID id);
 
-    PageResponse<ProjectResponse> getAllProjects(Pageable pageable);
+    /**
+     * Fingerprint of everything {@link #getProjectById(UUID)} returns, read without loading the
+     * project; empty if the project does not exist.
+     */
+    Optional<String> getProjectVersion(UUID id);
+
+    /**
+     * Same as {@link #getProjectById(UUID)}, cached per version so a cached response can never
+     * be served under a newer version.
+     */
+    ProjectResponse getProjectById(UUID id, String version);
+
+    /**
+     * Stamp that changes with any write affecting project responses; empty if unavailable.
+     */
+    Optional<String> getProjectListVersion();
+
+    /**
+     * Whether the user owns or is a member of the project; false if the project does not exist.
+     */
+    boolean canUserAccessProject(UUID projectId, UUID userId);
+
+    /**
+     * Summary of the project, served from the persistent summary cache when it is enabled.
+     */
+    ProjectSummaryResponse getProjectSummary(UUID id);
+
+    PageResponse<ProjectResponse> getAllProjects(Pageable pageable, TotalMode totalMode);
+
+    CursorPageResponse<ProjectResponse> getAllProjects(String cursor, int size);
 
     ProjectResponse updateProject(UUID id, ProjectUpdateRequest request);
 
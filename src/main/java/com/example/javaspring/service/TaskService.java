@@ -2,15 +2,18 @@ package com.example.javaspring.service;
 
 import com.example.javaspring.dto.request.TaskCreateRequest;
 import com.example.javaspring.dto.request.TaskUpdateRequest;
+import com.example.javaspring.dto.response.CursorPageResponse;
 import com.example.javaspring.dto.response.PageResponse;
 import com.example.javaspring.dto.response.TaskResponse;
 import com.example.javaspring.dto.response.TaskSummaryResponse;
 import com.example.javaspring.enums.TaskPriority;
 import com.example.javaspring.enums.TaskStatus;
+import com.example.javaspring.enums.TotalMode;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface TaskService {
@@ -19,7 +22,31 @@ public interface TaskService {
 
     TaskResponse getTaskById(UUID id);
 
-    PageResponse<TaskResponse> getAllTasks(Pageable pageable);
+    /**
+     * Fingerprint of everything {@link #getTaskById(UUID)} returns, read without loading the
+     * task; empty if the task does not exist.
+     */
+    Optional<String> getTaskVersion(UUID id);
+
+    /**
+     * Same as {@link #getTaskById(UUID)}, cached per version so a cached response can never be
+     * served under a newer version.
+     */
+    TaskResponse getTaskById(UUID id, String version);
+
+    /**
+     * Stamp that changes with any write affecting task responses; empty if unavailable.
+     */
+    Optional<String> getTaskListVersion();
+
+    /**
+     * Whether the user owns or is a member of the task's project; false if the task does not exist.
+     */
+    boolean canUserAccessTask(UUID taskId, UUID userId);
+
+    PageResponse<TaskResponse> getAllTasks(Pageable pageable, TotalMode totalMode);
+
+    CursorPageResponse<TaskResponse> getAllTasks(String cursor, int size);
 
     TaskResponse updateTask(UUID id, TaskUpdateRequest request);
 
@@ -29,7 +56,9 @@ public interface TaskService {
 
     List<TaskResponse> getTasksByProjectAndStatus(UUID projectId, TaskStatus status);
 
-    PageResponse<TaskResponse> getTasksByProject(UUID projectId, Pageable pageable);
+    PageResponse<TaskResponse> getTasksByProject(UUID projectId, Pageable pageable, TotalMode totalMode);
+
+    CursorPageResponse<TaskResponse> getTasksByProject(UUID projectId, String cursor, int size);
 
     List<TaskResponse> getTasksByAssignee(UUID assigneeId);
 
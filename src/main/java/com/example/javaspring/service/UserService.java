@@ -2,13 +2,16 @@ package com.example.javaspring.service;
 
 import com.example.javaspring.dto.request.UserCreateRequest;
 import com.example.javaspring.dto.request.UserUpdateRequest;
+import com.example.javaspring.dto.response.CursorPageResponse;
 import com.example.javaspring.dto.response.PageResponse;
 import com.example.javaspring.dto.response.UserResponse;
 import com.example.javaspring.dto.response.UserSummaryResponse;
 import com.example.javaspring.enums.Role;
+import com.example.javaspring.enums.TotalMode;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
@@ -18,11 +21,34 @@ public interface UserService {
 
     UserResponse getUserById(UUID id);
 
+    /**
+     * Version of the user, read without loading it; empty if the user does not exist.
+     */
+    Optional<String> getUserVersion(UUID id);
+
+    /**
+     * Same as {@link #getUserById(UUID)}, cached per version so a cached response can never be
+     * served under a newer version.
+     */
+    UserResponse getUserById(UUID id, String version);
+
+    /**
+     * Stamp that changes with any write affecting user responses; empty if unavailable.
+     */
+    Optional<String> getUserListVersion();
+
+    /**
+     * Summary of the user, served from the persistent summary cache when it is enabled.
+     */
+    UserSummaryResponse getUserSummary(UUID id);
+
     UserResponse getUserByUsername(String username);
 
     UserResponse getUserByEmail(String email);
 
-    PageResponse<UserResponse> getAllUsers(Pageable pageable);
+    PageResponse<UserResponse> getAllUsers(Pageable pageable, TotalMode totalMode);
+
+    CursorPageResponse<UserResponse> getAllUsers(String cursor, int size);
 
     UserResponse updateUser(UUID id, UserUpdateRequest request);
 
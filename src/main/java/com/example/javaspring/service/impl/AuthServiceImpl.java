@@ -1,5 +1,7 @@
 package com.example.javaspring.service.impl;
 
+import com.example.javaspring.cache.CacheNames;
+import com.example.javaspring.cache.HotKeyTracker;
 import com.example.javaspring.dto.request.LoginRequest;
 import com.example.javaspring.dto.request.RefreshTokenRequest;
 import com.example.javaspring.dto.request.UserCreateRequest;
@@ -7,28 +9,40 @@ import com.example.javaspring.dto.response.AuthResponse;
 import com.example.javaspring.entity.User;
 import com.example.javaspring.enums.Role;
 import com.example.javaspring.exception.AuthenticationException;
+import com.example.javaspring.exception.RateLimitExceededException;
 import com.example.javaspring.exception.ResourceNotFoundException;
+import com.example.javaspring.exception.ServiceUnavailableException;
 import com.example.javaspring.exception.TokenException;
 import com.example.javaspring.mapper.AuthMapper;
 import com.example.javaspring.repository.UserRepository;
+import com.example.javaspring.security.AccountLockCache;
+import com.example.javaspring.security.JwtTokenProvider;
+import com.example.javaspring.security.PasswordHashingService;
+import com.example.javaspring.security.RateLimiter;
+import com.example.javaspring.security.RefreshTokenFamilyService;
+import com.example.javaspring.security.TokenRevocationService;
+import com.example.javaspring.security.TokenVerifier;
+import com.example.javaspring.security.VerifiedToken;
 import com.example.javaspring.service.AuthService;
 import com.example.javaspring.service.UserService;
-import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import javax.crypto.SecretKey;
 import java.time.LocalDateTime;
-import java.util.Date;
-import java.util.Map;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
@@ -40,41 +54,57 @@ public class AuthServiceImpl implements AuthService {
     private final UserRepository userRepository;
     private final UserService userService;
     private final AuthMapper authMapper;
-    private final PasswordEncoder passwordEncoder;
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final PasswordHashingService passwordHashingService;
+    private final StringRedisTemplate redisTemplate;
+    private final JwtTokenProvider tokenProvider;
+    private final TokenVerifier tokenVerifier;
+    private final TokenRevocationService revocationService;
+    private final AccountLockCache accountLockCache;
+    private final RateLimiter rateLimiter;
+    private final RefreshTokenFamilyService refreshTokenFamilies;
+    private final CacheManager cacheManager;
+    private final HotKeyTracker hotKeyTracker;
+    private final PlatformTransactionManager transactionManager;
 
-    private final Set<String> blacklistedTokens = ConcurrentHashMap.newKeySet();
-    private final Map<String, Integer> failedAttempts = new ConcurrentHashMap<>();
-    private final Map<String, LocalDateTime> lockedAccounts = new ConcurrentHashMap<>();
-
-    @Value("${app.jwt.secret:taskflow-secret-key-very-long-for-security}")
-    private String jwtSecret;
-
-    @Value("${app.jwt.expiration:86400000}") // 24 hours
-    private Long jwtExpirationMs;
-
-    @Value("${app.jwt.refresh-expiration:604800000}") // 7 days
-    private Long refreshExpirationMs;
-
-    private static final String BLACKLIST_PREFIX = "blacklisted_token:";
     private static final String FAILED_ATTEMPTS_PREFIX = "failed_attempts:";
     private static final String LOCKED_ACCOUNT_PREFIX = "locked_account:";
     private static final int MAX_FAILED_ATTEMPTS = 5;
     private static final long LOCK_DURATION_MINUTES = 30;
+    private static final long FAILED_ATTEMPTS_TTL_HOURS = 24;
+    private static final RateLimiter.Limit LOGIN_PER_USERNAME = RateLimiter.Limit.perMinute("login-username", 10);
+
+    // Checks the lock, increments the counter, applies the lock and publishes its invalidation in one round trip
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> LOGIN_FAILURE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/login_failure.lua"), List.class);
 
     // ========== AUTHENTICATION ==========
 
+    /**
+     * Runs outside a transaction: hashing may wait for a slot on the hashing pool, and must not
+     * hold a pooled database connection meanwhile. The user is read and its hash upgraded in
+     * short transactions of their own.
+     */
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse login(LoginRequest request) {
         log.debug("Attempting login for username: {}", request.getUsername());
 
+        // Throttle before the lock check and the password hash, which are the expensive parts
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(LOGIN_PER_USERNAME, request.getUsername().toLowerCase());
+        if (!decision.allowed()) {
+            throw new RateLimitExceededException("Too many login attempts, please retry later",
+                    decision.retryAfterSeconds());
+        }
+
         // Check if account is locked
         if (isAccountLocked(request.getUsername())) {
             throw new AuthenticationException("Account is temporarily locked due to multiple failed attempts");
         }
 
-        User user = userRepository.findByUsername(request.getUsername())
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        User user = readOnly.execute(status -> userRepository.findByUsername(request.getUsername()))
                 .orElseThrow(() -> {
                     incrementFailedAttempts(request.getUsername());
                     return new AuthenticationException("Invalid username or password");
@@ -84,20 +114,22 @@ public class AuthServiceImpl implements AuthService {
             throw new AuthenticationException("Account is disabled");
         }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
             incrementFailedAttempts(request.getUsername());
             throw new AuthenticationException("Invalid username or password");
         }
 
+        // The raw password is only available here, so hashes from an older algorithm or cost are migrated on login
+        if (passwordHashingService.upgradeEncoding(user.getPassword())) {
+            user = upgradePasswordHash(user, passwordHashingService.encode(request.getPassword()));
+        }
+
         // Reset failed attempts on successful login
         resetFailedAttempts(request.getUsername());
 
-        String accessToken = generateAccessToken(user);
-        String refreshToken = generateRefreshToken(user);
-
         log.info("User {} logged in successfully", user.getUsername());
 
-        return authMapper.toAuthResponse(accessToken, refreshToken, jwtExpirationMs, user);
+        return startSession(user);
     }
 
     @Override
@@ -117,41 +149,44 @@ public class AuthServiceImpl implements AuthService {
         User user = userRepository.findById(userResponse.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found after creation"));
 
-        String accessToken = generateAccessToken(user);
-        String refreshToken = generateRefreshToken(user);
-
         log.info("User {} registered and logged in successfully", user.getUsername());
 
-        return authMapper.toAuthResponse(accessToken, refreshToken, jwtExpirationMs, user);
+        return startSession(user);
     }
 
     @Override
     public AuthResponse refreshToken(RefreshTokenRequest request) {
         log.debug("Attempting to refresh token");
 
-        String refreshToken = request.getRefreshToken();
+        VerifiedToken verified = verifyToken(request.getRefreshToken());
 
-        if (!validateToken(refreshToken)) {
+        // Refresh tokens issued before families were introduced cannot be rotated safely
+        if (!verified.isRefreshToken() || verified.userId() == null || verified.familyId() == null) {
             throw new TokenException("Invalid refresh token");
         }
 
-        String username = extractUsernameFromToken(refreshToken);
-        User user = userRepository.findByUsername(username)
+        // Read past the second-level cache: a stale cached version would fail the check below on every retry
+        String username = verified.subject();
+        User user = userRepository.findCurrentByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
 
         if (!user.getEnabled()) {
             throw new AuthenticationException("Account is disabled");
         }
 
-        String newAccessToken = generateAccessToken(user);
-        String newRefreshToken = generateRefreshToken(user);
+        // Everything that can fail runs before the rotation; a client retrying after it would present
+        // the replaced token, which counts as reuse and revokes the family
+        long epoch = currentEpoch(user);
 
-        // Invalidate old refresh token
-        invalidateToken(refreshToken);
-
-        log.info("Token refreshed successfully for user: {}", username);
+        // Only the latest token of a family can be exchanged; presenting an older one revokes the family
+        String newRefreshTokenId = UUID.randomUUID().toString();
+        switch (refreshTokenFamilies.rotate(verified, newRefreshTokenId)) {
+            case UNKNOWN_FAMILY -> throw new TokenException("Refresh token has been revoked");
+            case REUSE_DETECTED -> throw new TokenException("Refresh token has already been used");
+            case ROTATED -> log.info("Token refreshed successfully for user: {}", username);
+        }
 
-        return authMapper.toAuthResponse(newAccessToken, newRefreshToken, jwtExpirationMs, user);
+        return issueTokens(user, verified.familyId(), newRefreshTokenId, epoch);
     }
 
     @Override
@@ -164,73 +199,54 @@ public class AuthServiceImpl implements AuthService {
         }
     }
 
+    @Override
+    public void logoutEverywhere(String username) {
+        log.debug("Logging out all sessions of user: {}", username);
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+
+        endAllSessions(user.getId());
+
+        log.info("All sessions ended for user: {}", username);
+    }
+
     // ========== TOKEN MANAGEMENT ==========
 
     @Override
     public boolean validateToken(String token) {
         try {
-            // Check if token is blacklisted
-            if (isTokenBlacklisted(token)) {
-                return false;
-            }
-
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
-
+            verifyToken(token);
             return true;
-        } catch (MalformedJwtException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
-        } catch (ExpiredJwtException e) {
-            log.error("JWT token is expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            log.error("JWT token is unsupported: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            log.error("JWT claims string is empty: {}", e.getMessage());
+        } catch (TokenException e) {
+            log.error("Token validation failed: {}", e.getMessage());
+            return false;
         }
-
-        return false;
     }
 
     @Override
     public String extractUsernameFromToken(String token) {
-        try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            return claims.getSubject();
-        } catch (Exception e) {
-            throw new TokenException("Failed to extract username from token", e);
-        }
+        return verifyToken(token).subject();
     }
 
     @Override
     public boolean isTokenExpired(String token) {
         try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            return claims.getExpiration().before(new Date());
-        } catch (ExpiredJwtException e) {
-            return true;
-        } catch (Exception e) {
+            return verifyToken(token).isExpired();
+        } catch (TokenException e) {
             return true;
         }
     }
 
     @Override
     public boolean invalidateToken(String token) {
-        return blacklistedTokens.contains(token);
+        try {
+            revokeToken(token, verifyToken(token));
+            return true;
+        } catch (TokenException e) {
+            log.debug("Token not invalidated: {}", e.getMessage());
+            return false;
+        }
     }
 
     @Override
@@ -241,12 +257,13 @@ public class AuthServiceImpl implements AuthService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
 
-        if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
+        if (!passwordHashingService.matches(oldPassword, user.getPassword())) {
             throw new AuthenticationException("Current password is incorrect");
         }
 
-        user.setPassword(passwordEncoder.encode(newPassword));
+        user.setPassword(passwordHashingService.encode(newPassword));
         userRepository.save(user);
+        endAllSessions(user.getId());
 
         log.info("Password changed successfully for user: {}", username);
     }
@@ -261,8 +278,9 @@ public class AuthServiceImpl implements AuthService {
 
         // Generate temporary password (in real app, send email with reset link)
         String tempPassword = generateTemporaryPassword();
-        user.setPassword(passwordEncoder.encode(tempPassword));
+        user.setPassword(passwordHashingService.encode(tempPassword));
         userRepository.save(user);
+        endAllSessions(user.getId());
 
         // In real application, send email with temporary password or reset link
         log.info("Password reset for user: {} (temp password: {})", user.getUsername(), tempPassword);
@@ -273,7 +291,7 @@ public class AuthServiceImpl implements AuthService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
 
-        return passwordEncoder.matches(password, user.getPassword());
+        return passwordHashingService.matches(password, user.getPassword());
     }
 
     // ========== ACCOUNT MANAGEMENT ==========
@@ -288,6 +306,7 @@ public class AuthServiceImpl implements AuthService {
 
         user.setEnabled(true);
         userRepository.save(user);
+        evictCachedUser(user.getId());
 
         log.info("Account enabled: {}", username);
     }
@@ -302,6 +321,8 @@ public class AuthServiceImpl implements AuthService {
 
         user.setEnabled(false);
         userRepository.save(user);
+        evictCachedUser(user.getId());
+        endAllSessions(user.getId());
 
         log.info("Account disabled: {}", username);
     }
@@ -320,12 +341,14 @@ public class AuthServiceImpl implements AuthService {
     public void lockAccount(String username) {
         log.debug("Locking account: {}", username);
 
+        hotKeyTracker.record(HotKeyTracker.REDIS, LOCKED_ACCOUNT_PREFIX + username);
         redisTemplate.opsForValue().set(
                 LOCKED_ACCOUNT_PREFIX + username,
                 LocalDateTime.now().toString(),
                 LOCK_DURATION_MINUTES,
                 TimeUnit.MINUTES
         );
+        accountLockCache.invalidate(username);
 
         log.info("Account locked for {} minutes: {}", LOCK_DURATION_MINUTES, username);
     }
@@ -334,93 +357,142 @@ public class AuthServiceImpl implements AuthService {
     public void unlockAccount(String username) {
         log.debug("Unlocking account: {}", username);
 
-        redisTemplate.delete(LOCKED_ACCOUNT_PREFIX + username);
-        resetFailedAttempts(username);
+        hotKeyTracker.record(HotKeyTracker.REDIS, LOCKED_ACCOUNT_PREFIX + username);
+        redisTemplate.delete(List.of(LOCKED_ACCOUNT_PREFIX + username, FAILED_ATTEMPTS_PREFIX + username));
+        accountLockCache.invalidate(username);
 
         log.info("Account unlocked: {}", username);
     }
 
     @Override
     public boolean isAccountLocked(String username) {
-        return redisTemplate.hasKey(LOCKED_ACCOUNT_PREFIX + username);
+        // Served from the near cache unless the account may be locked
+        return accountLockCache.isLocked(username, () -> {
+            hotKeyTracker.record(HotKeyTracker.REDIS, LOCKED_ACCOUNT_PREFIX + username);
+            return Boolean.TRUE.equals(redisTemplate.hasKey(LOCKED_ACCOUNT_PREFIX + username));
+        });
     }
 
     @Override
     public int getFailedAttempts(String username) {
-        Object attempts = redisTemplate.opsForValue().get(FAILED_ATTEMPTS_PREFIX + username);
-        return attempts != null ? Integer.parseInt(attempts.toString()) : 0;
+        hotKeyTracker.record(HotKeyTracker.REDIS, FAILED_ATTEMPTS_PREFIX + username);
+        String attempts = redisTemplate.opsForValue().get(FAILED_ATTEMPTS_PREFIX + username);
+        return attempts != null ? Integer.parseInt(attempts) : 0;
     }
 
     @Override
     public void resetFailedAttempts(String username) {
+        hotKeyTracker.record(HotKeyTracker.REDIS, FAILED_ATTEMPTS_PREFIX + username);
         redisTemplate.delete(FAILED_ATTEMPTS_PREFIX + username);
     }
 
     // ========== PRIVATE HELPER METHODS ==========
 
-    private String generateAccessToken(User user) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
-
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-
-        return Jwts.builder()
-                .setSubject(user.getUsername())
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .claim("userId", user.getId().toString())
-                .claim("email", user.getEmail())
-                .claim("roles", user.getRoles())
-                .signWith(key, SignatureAlgorithm.HS512)
-                .compact();
+    /**
+     * Stores the new hash unless the password changed since the user was read.
+     *
+     * @return the user as stored, with the version the session check compares against
+     */
+    private User upgradePasswordHash(User user, String newHash) {
+        User stored = new TransactionTemplate(transactionManager).execute(status -> {
+            User current = userRepository.findById(user.getId()).orElse(null);
+            if (current == null || !current.getPassword().equals(user.getPassword())) {
+                return null;
+            }
+            current.setPassword(newHash);
+            return current;
+        });
+
+        if (stored == null) {
+            // The session check turns this into a retry against the current row
+            return user;
+        }
+        log.info("Password hash upgraded for user: {}", user.getUsername());
+        return stored;
     }
 
-    private String generateRefreshToken(User user) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + refreshExpirationMs);
+    private AuthResponse startSession(User user) {
+        long epoch = currentEpoch(user);
+        String refreshTokenId = UUID.randomUUID().toString();
+        String familyId = refreshTokenFamilies.startFamily(user.getId(), refreshTokenId);
+        return issueTokens(user, familyId, refreshTokenId, epoch);
+    }
 
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    /**
+     * Token epoch to embed in the user's new access token.
+     */
+    private long currentEpoch(User user) {
+        long epoch = revocationService.currentEpoch(user.getId());
+
+        // Role and status changes bump the epoch only after they commit. If one committed after the user
+        // was loaded, the epoch read above may already be the new one, paired with the old claims.
+        Optional<Long> storedVersion = userRepository.findVersionById(user.getId());
+        if (!storedVersion.equals(Optional.ofNullable(user.getVersion()))) {
+            throw new ServiceUnavailableException("Account changed during sign-in, please retry", 1);
+        }
+        return epoch;
+    }
 
-        return Jwts.builder()
-                .setSubject(user.getUsername())
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .claim("type", "refresh")
-                .signWith(key, SignatureAlgorithm.HS512)
-                .compact();
+    private AuthResponse issueTokens(User user, String familyId, String refreshTokenId, long epoch) {
+        String accessToken = tokenProvider.generateAccessToken(user, familyId, epoch);
+        String refreshToken = tokenProvider.generateRefreshToken(user, refreshTokenId, familyId);
+
+        return authMapper.toAuthResponse(accessToken, refreshToken, tokenProvider.getAccessExpirationMs(), user);
     }
 
-    private boolean isTokenBlacklisted(String token) {
-        return blacklistedTokens.contains(token);
+    /**
+     * One epoch increment invalidates every access token; dropping the families invalidates every refresh token.
+     * Both happen once the current transaction commits.
+     */
+    private void endAllSessions(UUID userId) {
+        refreshTokenFamilies.revokeAllFamilies(userId);
+        revocationService.revokeUserTokens(userId);
     }
 
-    private long getTokenExpiration(String token) {
-        try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            Date expiration = claims.getExpiration();
-            return expiration.getTime() - System.currentTimeMillis();
-        } catch (Exception e) {
-            return 0;
+    private void evictCachedUser(UUID userId) {
+        Cache cache = cacheManager.getCache(CacheNames.USERS);
+        if (cache != null) {
+            cache.evict(userId);
         }
     }
 
-    private void incrementFailedAttempts(String username) {
-        String key = FAILED_ATTEMPTS_PREFIX + username;
-        int attempts = getFailedAttempts(username) + 1;
+    private VerifiedToken verifyToken(String token) {
+        return tokenVerifier.verify(token);
+    }
 
-        redisTemplate.opsForValue().set(key, attempts, 24, TimeUnit.HOURS);
+    private void revokeToken(String token, VerifiedToken verified) {
+        revocationService.revoke(verified);
+        tokenVerifier.evict(token);
 
-        if (attempts >= MAX_FAILED_ATTEMPTS) {
-            lockAccount(username);
+        // Ends the session the token belongs to, so its refresh token stops working too
+        if (verified.userId() != null && verified.familyId() != null) {
+            refreshTokenFamilies.revokeFamily(verified.userId(), verified.familyId());
         }
+    }
+
+    private void incrementFailedAttempts(String username) {
+        hotKeyTracker.record(HotKeyTracker.REDIS, FAILED_ATTEMPTS_PREFIX + username);
+        List<?> result = redisTemplate.execute(
+                LOGIN_FAILURE_SCRIPT,
+                List.of(LOCKED_ACCOUNT_PREFIX + username, FAILED_ATTEMPTS_PREFIX + username),
+                String.valueOf(MAX_FAILED_ATTEMPTS),
+                String.valueOf(TimeUnit.HOURS.toSeconds(FAILED_ATTEMPTS_TTL_HOURS)),
+                String.valueOf(TimeUnit.MINUTES.toSeconds(LOCK_DURATION_MINUTES)),
+                LocalDateTime.now().toString(),
+                AccountLockCache.CHANNEL,
+                AccountLockCache.invalidationMessage(username)
+        );
+
+        boolean locked = result != null && ((Number) result.get(0)).longValue() == 1;
+        long attempts = result != null ? ((Number) result.get(1)).longValue() : 0;
 
         log.warn("Failed login attempt {} for user: {}", attempts, username);
+
+        if (locked) {
+            // The script already published the invalidation for the other nodes
+            accountLockCache.evictLocal(username);
+            log.info("Account locked for {} minutes: {}", LOCK_DURATION_MINUTES, username);
+        }
     }
 
     private String generateTemporaryPassword() {
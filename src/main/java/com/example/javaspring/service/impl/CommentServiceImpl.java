@@ -1,24 +1,33 @@
 package com.example.javaspring.service.impl;
 
+import com.example.javaspring.cache.CacheNames;
+import com.example.javaspring.cache.HotKeyTracker;
+import com.example.javaspring.cache.ProjectListCache;
 import com.example.javaspring.dto.request.CommentCreateRequest;
 import com.example.javaspring.dto.request.CommentUpdateRequest;
 import com.example.javaspring.dto.response.CommentResponse;
+import com.example.javaspring.dto.response.CursorPageResponse;
 import com.example.javaspring.dto.response.PageResponse;
 import com.example.javaspring.entity.Comment;
 import com.example.javaspring.entity.Task;
 import com.example.javaspring.entity.User;
+import com.example.javaspring.enums.TotalMode;
 import com.example.javaspring.exception.AccessDeniedException;
 import com.example.javaspring.exception.BusinessLogicException;
 import com.example.javaspring.exception.ResourceNotFoundException;
 import com.example.javaspring.mapper.CommentMapper;
 import com.example.javaspring.repository.CommentRepository;
+import com.example.javaspring.repository.RowCountEstimator;
 import com.example.javaspring.repository.TaskRepository;
 import com.example.javaspring.repository.UserRepository;
 import com.example.javaspring.service.CommentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,11 +45,18 @@ public class CommentServiceImpl implements CommentService {
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final CommentMapper commentMapper;
+    private final CacheManager cacheManager;
+    private final ProjectListCache projectListCache;
+    private final HotKeyTracker hotKeyTracker;
+    private final KeysetPaginator keysetPaginator;
+    private final RowCountEstimator rowCountEstimator;
+    private final EntityCounters entityCounters;
 
     // ========== CRUD OPERATIONS ==========
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.TASKS, key = "#taskId")
     public CommentResponse createComment(UUID taskId, CommentCreateRequest request, UUID authorId) {
         log.debug("Creating comment for task {} by author {}", taskId, authorId);
 
@@ -57,6 +73,8 @@ public class CommentServiceImpl implements CommentService {
                 .build();
 
         Comment savedComment = commentRepository.save(comment);
+        entityCounters.adjustComments(task, 1);
+        projectListCache.invalidate(comment.getTask().getProject().getId());
         log.info("Comment created successfully with ID: {}", savedComment.getId());
 
         return commentMapper.toResponse(savedComment);
@@ -71,13 +89,15 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
-    public PageResponse<CommentResponse> getAllComments(Pageable pageable) {
-        log.debug("Fetching all comments with pagination: {}", pageable);
+    public PageResponse<CommentResponse> getAllComments(Pageable pageable, TotalMode totalMode) {
+        log.debug("Fetching all comments with pagination: {} (total: {})", pageable, totalMode);
 
-        Page<Comment> commentPage = commentRepository.findAll(pageable);
+        Slice<Comment> commentPage = totalMode == TotalMode.EXACT
+                ? commentRepository.findAll(pageable)
+                : commentRepository.findSliceBy(pageable);
         List<CommentResponse> commentResponses = commentMapper.toResponseList(commentPage.getContent());
 
-        return buildPageResponse(commentPage, commentResponses);
+        return PageResponse.of(commentPage, commentResponses, totalMode, () -> rowCountEstimator.estimate("comments"));
     }
 
     @Override
@@ -94,6 +114,8 @@ public class CommentServiceImpl implements CommentService {
 
         comment.setContent(request.getContent());
         Comment updatedComment = commentRepository.save(comment);
+        projectListCache.invalidate(comment.getTask().getProject().getId());
+        evictCache(CacheNames.TASKS, comment.getTask().getId());
 
         log.info("Comment updated successfully with ID: {}", updatedComment.getId());
         return commentMapper.toResponse(updatedComment);
@@ -112,6 +134,9 @@ public class CommentServiceImpl implements CommentService {
         }
 
         commentRepository.delete(comment);
+        entityCounters.adjustComments(comment.getTask(), -1);
+        projectListCache.invalidate(comment.getTask().getProject().getId());
+        evictCache(CacheNames.TASKS, comment.getTask().getId());
         log.info("Comment deleted successfully with ID: {}", id);
     }
 
@@ -121,8 +146,10 @@ public class CommentServiceImpl implements CommentService {
     public List<CommentResponse> getCommentsByTask(UUID taskId) {
         log.debug("Fetching comments by task ID: {}", taskId);
 
-        List<Comment> comments = commentRepository.findByTaskIdOrderByCreatedAtAsc(taskId);
-        return commentMapper.toResponseList(comments);
+        UUID projectId = projectListCache.projectIdOfTask(taskId, id -> taskRepository.findProjectIdById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + id)));
+        return projectListCache.get(projectId, "comments-by-task", taskId,
+                () -> commentMapper.toResponseList(commentRepository.findByTaskIdOrderByCreatedAtAsc(taskId)));
     }
 
     @Override
@@ -137,13 +164,27 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
-    public PageResponse<CommentResponse> getCommentsByTask(UUID taskId, Pageable pageable) {
-        log.debug("Fetching comments by task {} with pagination: {}", taskId, pageable);
+    public PageResponse<CommentResponse> getCommentsByTask(UUID taskId, Pageable pageable, TotalMode totalMode) {
+        log.debug("Fetching comments by task {} with pagination: {} (total: {})", taskId, pageable, totalMode);
 
-        Page<Comment> commentPage = commentRepository.findByTaskId(taskId, pageable);
+        Slice<Comment> commentPage = totalMode == TotalMode.EXACT
+                ? commentRepository.findByTaskId(taskId, pageable)
+                : commentRepository.findSliceByTaskId(taskId, pageable);
         List<CommentResponse> commentResponses = commentMapper.toResponseList(commentPage.getContent());
 
-        return buildPageResponse(commentPage, commentResponses);
+        return PageResponse.of(commentPage, commentResponses, totalMode,
+                () -> rowCountEstimator.estimate("comments", "task_id", taskId));
+    }
+
+    @Override
+    public CursorPageResponse<CommentResponse> getCommentsByTask(UUID taskId, String cursor, int size) {
+        log.debug("Fetching comments by task {} after cursor: {}", taskId, cursor);
+
+        return keysetPaginator.page("comments-by-task:" + taskId, cursor, size, new KeysetPaginator.KeysetQuery<>(
+                        limit -> commentRepository.findPageByTaskId(taskId, limit),
+                        (createdAt, id, limit) -> commentRepository.findPageByTaskIdAfter(taskId, createdAt, id, limit),
+                        (createdAt, id, limit) -> commentRepository.findPageByTaskIdBefore(taskId, createdAt, id, limit)),
+                Comment::getCreatedAt, Comment::getId, commentMapper::toResponseList);
     }
 
     // ========== AUTHOR RELATED ==========
@@ -165,13 +206,27 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
-    public PageResponse<CommentResponse> getCommentsByAuthor(UUID authorId, Pageable pageable) {
-        log.debug("Fetching comments by author {} with pagination: {}", authorId, pageable);
+    public PageResponse<CommentResponse> getCommentsByAuthor(UUID authorId, Pageable pageable, TotalMode totalMode) {
+        log.debug("Fetching comments by author {} with pagination: {} (total: {})", authorId, pageable, totalMode);
 
-        Page<Comment> commentPage = commentRepository.findByAuthorId(authorId, pageable);
+        Slice<Comment> commentPage = totalMode == TotalMode.EXACT
+                ? commentRepository.findByAuthorId(authorId, pageable)
+                : commentRepository.findSliceByAuthorId(authorId, pageable);
         List<CommentResponse> commentResponses = commentMapper.toResponseList(commentPage.getContent());
 
-        return buildPageResponse(commentPage, commentResponses);
+        return PageResponse.of(commentPage, commentResponses, totalMode,
+                () -> rowCountEstimator.estimate("comments", "author_id", authorId));
+    }
+
+    @Override
+    public CursorPageResponse<CommentResponse> getCommentsByAuthor(UUID authorId, String cursor, int size) {
+        log.debug("Fetching comments by author {} after cursor: {}", authorId, cursor);
+
+        return keysetPaginator.page("comments-by-author:" + authorId, cursor, size, new KeysetPaginator.KeysetQuery<>(
+                        limit -> commentRepository.findPageByAuthorId(authorId, limit),
+                        (createdAt, id, limit) -> commentRepository.findPageByAuthorIdAfter(authorId, createdAt, id, limit),
+                        (createdAt, id, limit) -> commentRepository.findPageByAuthorIdBefore(authorId, createdAt, id, limit)),
+                Comment::getCreatedAt, Comment::getId, commentMapper::toResponseList);
     }
 
     // ========== PROJECT RELATED ==========
@@ -297,20 +352,31 @@ public class CommentServiceImpl implements CommentService {
     // ========== PRIVATE HELPER METHODS ==========
 
     private Comment findCommentById(UUID id) {
+        hotKeyTracker.record(HotKeyTracker.COMMENT, id);
         return commentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment not found with ID: " + id));
     }
 
     private Task findTaskById(UUID id) {
+        hotKeyTracker.record(HotKeyTracker.TASK, id);
         return taskRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + id));
     }
 
     private User findUserById(UUID id) {
+        hotKeyTracker.record(HotKeyTracker.USER, id);
         return userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + id));
     }
 
+    // Cached tasks embed their comments; the task id is only known after loading the comment
+    private void evictCache(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
     private void validateUserCanAccessTask(User user, Task task) {
         boolean canAccess = task.getProject().getOwner().getId().equals(user.getId()) ||
                 task.getProject().getMembers().contains(user) ||
@@ -321,18 +387,4 @@ public class CommentServiceImpl implements CommentService {
             throw new BusinessLogicException("access task", "user does not have permission to access this task");
         }
     }
-
-    private PageResponse<CommentResponse> buildPageResponse(Page<Comment> commentPage, List<CommentResponse> commentResponses) {
-        return PageResponse.<CommentResponse>builder()
-                .content(commentResponses)
-                .page(commentPage.getNumber())
-                .size(commentPage.getSize())
-                .totalElements(commentPage.getTotalElements())
-                .totalPages(commentPage.getTotalPages())
-                .first(commentPage.isFirst())
-                .last(commentPage.isLast())
-                .hasNext(commentPage.hasNext())
-                .hasPrevious(commentPage.hasPrevious())
-                .build();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.example.javaspring.service.impl;
+
+import com.example.javaspring.cache.EntityCacheInvalidator;
+import com.example.javaspring.entity.Project;
+import com.example.javaspring.entity.Task;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Denormalized child counts: {@code projects.tasks_count}, {@code projects.members_count} and
+ * {@code tasks.comments_count}.
+ * <p>
+ * Write paths adjust a counter in the same transaction as the child row with an atomic
+ * {@code UPDATE ... SET n = n + ?}, so concurrent writers never lose an increment and never hit
+ * an optimistic lock conflict on the parent. The update goes through JDBC rather than a JPQL bulk
+ * update, which would drop the whole second-level cache region of the parent; only the one
+ * parent is evicted instead. Writes that bypass these paths (cascades, manual SQL) leave drift
+ * behind, which the scheduled reconciliation repairs from the child tables. The same
+ * reconciliation runs on startup, which also backfills rows written before the counters existed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EntityCounters {
+
+    private static final CounterColumn TASKS =
+            new CounterColumn("projects", "tasks_count", "tasks", "project_id", Project.class);
+    private static final CounterColumn MEMBERS =
+            new CounterColumn("projects", "members_count", "project_members", "project_id", Project.class);
+    private static final CounterColumn COMMENTS =
+            new CounterColumn("tasks", "comments_count", "comments", "task_id", Task.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityCacheInvalidator entityCacheInvalidator;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    public void adjustTasks(Project project, int delta) {
+        if (adjust(TASKS, project.getId(), delta)) {
+            project.setTasksCount(project.getTasksCount() + delta);
+        }
+    }
+
+    public void adjustMembers(Project project, int delta) {
+        if (adjust(MEMBERS, project.getId(), delta)) {
+            project.setMembersCount(project.getMembersCount() + delta);
+        }
+    }
+
+    public void adjustComments(Task task, int delta) {
+        if (adjust(COMMENTS, task.getId(), delta)) {
+            task.setCommentsCount(task.getCommentsCount() + delta);
+        }
+    }
+
+    // ========== RECONCILIATION ==========
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        int repaired = reconcile();
+        log.info("Counters reconciled on startup; {} rows repaired", repaired);
+    }
+
+    /**
+     * Recomputes every counter that disagrees with its child table.
+     *
+     * @return number of rows repaired
+     */
+    @Scheduled(cron = "${app.counters.reconcile-cron:0 30 3 * * *}")
+    public int reconcile() {
+        int repaired = 0;
+        for (CounterColumn counter : List.of(TASKS, MEMBERS, COMMENTS)) {
+            try {
+                repaired += reconcile(counter);
+            } catch (DataAccessException e) {
+                log.warn("Could not reconcile {}.{}: {}", counter.table(), counter.column(), e.getMessage());
+            }
+        }
+        return repaired;
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private boolean adjust(CounterColumn counter, UUID id, int delta) {
+        if (delta == 0 || id == null) {
+            return false;
+        }
+
+        jdbcTemplate.update("UPDATE " + counter.table() + " SET " + counter.column() + " = "
+                + counter.column() + " + ? WHERE id = ?", delta, id);
+        entityCacheInvalidator.invalidate(counter.entityType(), id);
+        return true;
+    }
+
+    private int reconcile(CounterColumn counter) {
+        String actual = "(SELECT COUNT(*) FROM " + counter.childTable() + " c WHERE c."
+                + counter.foreignKey() + " = p.id)";
+
+        List<UUID> repaired = new TransactionTemplate(transactionManager).execute(status -> {
+            List<UUID> drifted = jdbcTemplate.queryForList("SELECT p.id FROM " + counter.table() + " p WHERE p."
+                    + counter.column() + " <> " + actual, UUID.class);
+            for (UUID id : drifted) {
+                // Recounted in the update itself, so increments since the select are not lost
+                jdbcTemplate.update("UPDATE " + counter.table() + " p SET " + counter.column() + " = "
+                        + actual + " WHERE p.id = ?", id);
+                entityCacheInvalidator.invalidate(counter.entityType(), id);
+            }
+            return drifted;
+        });
+
+        if (repaired != null && !repaired.isEmpty()) {
+            log.warn("Repaired {} drifted {}.{} counters", repaired.size(), counter.table(), counter.column());
+            meterRegistry.counter("counters.repaired", "counter", counter.column()).increment(repaired.size());
+        }
+        return repaired != null ? repaired.size() : 0;
+    }
+
+    private record CounterColumn(String table, String column, String childTable, String foreignKey,
+                                 Class<?> entityType) {
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.javaspring.service.impl;
+
+import com.example.javaspring.dto.response.CursorPageResponse;
+import com.example.javaspring.exception.ValidationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination over listings ordered newest first by {@code (createdAt, id)}.
+ * <p>
+ * A page is fetched with a seek predicate on the last row the client saw, so every page costs
+ * the same index range scan regardless of depth, and no {@code COUNT(*)} is run. The position is
+ * handed out as an opaque cursor signed with HMAC-SHA256 over the listing's scope, so clients can
+ * neither forge positions nor reuse a cursor on another listing.
+ */
+@Component
+public class KeysetPaginator {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_LENGTH = 16;
+    private static final char SEPARATOR = '|';
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec signingKey;
+
+    public KeysetPaginator(
+            @Value("${app.pagination.cursor-secret:${app.jwt.secret:taskflow-secret-key-very-long-for-security}}")
+            String secret) {
+        this.signingKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+    }
+
+    /**
+     * @param scope  identifies the listing and its filters, e.g. {@code "comments-by-task:" + taskId}
+     * @param cursor cursor from a previous page, or {@code null} for the first page
+     */
+    public <E, R> CursorPageResponse<R> page(String scope, String cursor, int size, KeysetQuery<E> query,
+                                              Function<E, LocalDateTime> createdAt, Function<E, UUID> id,
+                                              Function<List<E>, List<R>> mapper) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Limit limit = Limit.of(pageSize + 1);
+        Position position = cursor != null && !cursor.isBlank() ? decode(scope, cursor) : null;
+
+        List<E> rows;
+        if (position == null) {
+            rows = query.first().apply(limit);
+        } else if (position.forward()) {
+            rows = query.after().fetch(position.createdAt(), position.id(), limit);
+        } else {
+            rows = query.before().fetch(position.createdAt(), position.id(), limit);
+        }
+
+        boolean more = rows.size() > pageSize;
+        List<E> content = new ArrayList<>(more ? rows.subList(0, pageSize) : rows);
+
+        boolean hasNext;
+        boolean hasPrevious;
+        if (position == null || position.forward()) {
+            hasNext = more;
+            hasPrevious = position != null;
+        } else {
+            // Rows before the cursor come back oldest first
+            Collections.reverse(content);
+            hasNext = true;
+            hasPrevious = more;
+        }
+
+        String nextCursor = null;
+        String prevCursor = null;
+        if (!content.isEmpty()) {
+            E last = content.get(content.size() - 1);
+            E first = content.get(0);
+            nextCursor = hasNext ? encode(scope, new Position(createdAt.apply(last), id.apply(last), true)) : null;
+            prevCursor = hasPrevious ? encode(scope, new Position(createdAt.apply(first), id.apply(first), false)) : null;
+        }
+
+        return CursorPageResponse.<R>builder()
+                .content(mapper.apply(content))
+                .size(pageSize)
+                .nextCursor(nextCursor)
+                .prevCursor(prevCursor)
+                .hasNext(nextCursor != null)
+                .hasPrevious(prevCursor != null)
+                .build();
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private String encode(String scope, Position position) {
+        String payload = (position.forward() ? "n" : "p") + SEPARATOR + position.createdAt() + SEPARATOR + position.id();
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(scope, payloadBytes));
+    }
+
+    private Position decode(String scope, String cursor) {
+        try {
+            int dot = cursor.indexOf('.');
+            if (dot < 0) {
+                throw invalidCursor();
+            }
+            byte[] payloadBytes = DECODER.decode(cursor.substring(0, dot));
+            byte[] signature = DECODER.decode(cursor.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(scope, payloadBytes))) {
+                throw invalidCursor();
+            }
+
+            String[] parts = new String(payloadBytes, StandardCharsets.UTF_8).split("\\" + SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw invalidCursor();
+            }
+            return new Position(LocalDateTime.parse(parts[1]), UUID.fromString(parts[2]), "n".equals(parts[0]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw invalidCursor();
+        }
+    }
+
+    private byte[] sign(String scope, byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            mac.update(scope.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Arrays.copyOf(mac.doFinal(payload), SIGNATURE_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private static ValidationException invalidCursor() {
+        return new ValidationException("cursor", "is invalid or belongs to another listing");
+    }
+
+    /**
+     * @param forward {@code true} to continue with older rows, {@code false} to go back to newer ones
+     */
+    private record Position(LocalDateTime createdAt, UUID id, boolean forward) {
+    }
+
+    @FunctionalInterface
+    public interface Seek<E> {
+        List<E> fetch(LocalDateTime createdAt, UUID id, Limit limit);
+    }
+
+    /**
+     * Repository queries of one listing.
+     *
+     * @param first  newest rows
+     * @param after  rows older than the position, newest first
+     * @param before rows newer than the position, oldest first
+     */
+    public record KeysetQuery<E>(Function<Limit, List<E>> first, Seek<E> after, Seek<E> before) {
+    }
+}
@@ -1,28 +1,42 @@
 package com.example.javaspring.service.impl;
 
+import com.example.javaspring.cache.CacheNames;
+import com.example.javaspring.cache.CollectionVersions;
+import com.example.javaspring.cache.HotKeyTracker;
+import com.example.javaspring.cache.ProjectListCache;
+import com.example.javaspring.cache.RequestCoalescer;
+import com.example.javaspring.cache.SummaryCache;
 import com.example.javaspring.dto.request.ProjectCreateRequest;
 import com.example.javaspring.dto.request.ProjectUpdateRequest;
+import com.example.javaspring.dto.response.CursorPageResponse;
 import com.example.javaspring.dto.response.PageResponse;
 import com.example.javaspring.dto.response.ProjectResponse;
 import com.example.javaspring.dto.response.ProjectSummaryResponse;
 import com.example.javaspring.entity.Project;
 import com.example.javaspring.entity.User;
 import com.example.javaspring.enums.ProjectStatus;
+import com.example.javaspring.enums.TotalMode;
 import com.example.javaspring.exception.ResourceNotFoundException;
 import com.example.javaspring.mapper.ProjectMapper;
 import com.example.javaspring.repository.ProjectRepository;
+import com.example.javaspring.repository.RowCountEstimator;
 import com.example.javaspring.repository.UserRepository;
 import com.example.javaspring.service.ProjectService;
+import com.example.javaspring.util.ETags;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -36,6 +50,14 @@ public class ProjectServiceImpl implements ProjectService {
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
     private final ProjectMapper projectMapper;
+    private final RequestCoalescer requestCoalescer;
+    private final CollectionVersions collectionVersions;
+    private final ProjectListCache projectListCache;
+    private final SummaryCache summaryCache;
+    private final HotKeyTracker hotKeyTracker;
+    private final KeysetPaginator keysetPaginator;
+    private final RowCountEstimator rowCountEstimator;
+    private final EntityCounters entityCounters;
 
     @Override
     @Transactional
@@ -60,6 +82,7 @@ public class ProjectServiceImpl implements ProjectService {
                     .collect(Collectors.toSet());
             project.setMembers(members);
         }
+        project.setMembersCount(project.getMembers().size());
 
         Project savedProject = projectRepository.save(project);
         log.info("Project created successfully with ID: {}", savedProject.getId());
@@ -68,6 +91,7 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheNames.PROJECTS, key = "#id", sync = true)
     public ProjectResponse getProjectById(UUID id) {
         log.debug("Fetching project by ID: {}", id);
 
@@ -76,27 +100,60 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     @Override
-    public PageResponse<ProjectResponse> getAllProjects(Pageable pageable) {
-        log.debug("Fetching all projects with pagination: {}", pageable);
+    public Optional<String> getProjectVersion(UUID id) {
+        return projectRepository.findResponseVersion(id).stream().findFirst().map(ETags::fingerprint);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheNames.PROJECTS, key = "#id + '@' + #version", sync = true)
+    public ProjectResponse getProjectById(UUID id, String version) {
+        // The entry may hold a newer state than its version, never an older one
+        return getProjectById(id);
+    }
 
-        Page<Project> projectPage = projectRepository.findAll(pageable);
+    @Override
+    public Optional<String> getProjectListVersion() {
+        return collectionVersions.current(CacheNames.PROJECTS);
+    }
+
+    @Override
+    public boolean canUserAccessProject(UUID projectId, UUID userId) {
+        return projectRepository.isOwnerOrMember(projectId, userId);
+    }
+
+    @Override
+    public ProjectSummaryResponse getProjectSummary(UUID id) {
+        return summaryCache.project(id, () -> projectRepository.findSummaryById(id)
+                .map(projectMapper::toSummaryResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Project not found with ID: " + id)));
+    }
+
+    @Override
+    public PageResponse<ProjectResponse> getAllProjects(Pageable pageable, TotalMode totalMode) {
+        log.debug("Fetching all projects with pagination: {} (total: {})", pageable, totalMode);
+
+        Slice<Project> projectPage = totalMode == TotalMode.EXACT
+                ? projectRepository.findAll(pageable)
+                : projectRepository.findSliceBy(pageable);
         List<ProjectResponse> projectResponses = projectMapper.toResponseList(projectPage.getContent());
 
-        return PageResponse.<ProjectResponse>builder()
-                .content(projectResponses)
-                .page(projectPage.getNumber())
-                .size(projectPage.getSize())
-                .totalElements(projectPage.getTotalElements())
-                .totalPages(projectPage.getTotalPages())
-                .first(projectPage.isFirst())
-                .last(projectPage.isLast())
-                .hasNext(projectPage.hasNext())
-                .hasPrevious(projectPage.hasPrevious())
-                .build();
+        return PageResponse.of(projectPage, projectResponses, totalMode, () -> rowCountEstimator.estimate("projects"));
+    }
+
+    @Override
+    public CursorPageResponse<ProjectResponse> getAllProjects(String cursor, int size) {
+        log.debug("Fetching all projects after cursor: {}", cursor);
+
+        return keysetPaginator.page("projects", cursor, size, new KeysetPaginator.KeysetQuery<>(
+                        projectRepository::findPage,
+                        projectRepository::findPageAfter,
+                        projectRepository::findPageBefore),
+                Project::getCreatedAt, Project::getId, projectMapper::toResponseList);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PROJECTS, key = "#id")
     public ProjectResponse updateProject(UUID id, ProjectUpdateRequest request) {
         log.debug("Updating project with ID: {}", id);
 
@@ -122,10 +179,12 @@ public class ProjectServiceImpl implements ProjectService {
             Set<User> members = request.getMemberIds().stream()
                     .map(this::findUserById)
                     .collect(Collectors.toSet());
+            entityCounters.adjustMembers(project, members.size() - project.getMembers().size());
             project.setMembers(members);
         }
 
         Project updatedProject = projectRepository.save(project);
+        projectListCache.invalidate(id);
         log.info("Project updated successfully with ID: {}", updatedProject.getId());
 
         return projectMapper.toResponse(updatedProject);
@@ -133,11 +192,17 @@ public class ProjectServiceImpl implements ProjectService {
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.PROJECTS, key = "#id"),
+            // The project's tasks are deleted with it
+            @CacheEvict(cacheNames = CacheNames.TASKS, allEntries = true)
+    })
     public void deleteProject(UUID id) {
         log.debug("Deleting project with ID: {}", id);
 
         Project project = findProjectById(id);
         projectRepository.delete(project);
+        projectListCache.invalidate(id);
 
         log.info("Project deleted successfully with ID: {}", id);
     }
@@ -168,13 +233,16 @@ public class ProjectServiceImpl implements ProjectService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PROJECTS, key = "#projectId")
     public ProjectResponse addMember(UUID projectId, UUID userId) {
         log.debug("Adding member {} to project {}", userId, projectId);
 
         Project project = findProjectById(projectId);
         User user = findUserById(userId);
 
-        project.getMembers().add(user);
+        if (project.getMembers().add(user)) {
+            entityCounters.adjustMembers(project, 1);
+        }
         Project updatedProject = projectRepository.save(project);
 
         log.info("Member {} added to project {}", userId, projectId);
@@ -183,13 +251,16 @@ public class ProjectServiceImpl implements ProjectService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PROJECTS, key = "#projectId")
     public ProjectResponse removeMember(UUID projectId, UUID userId) {
         log.debug("Removing member {} from project {}", userId, projectId);
 
         Project project = findProjectById(projectId);
         User user = findUserById(userId);
 
-        project.getMembers().remove(user);
+        if (project.getMembers().remove(user)) {
+            entityCounters.adjustMembers(project, -1);
+        }
         Project updatedProject = projectRepository.save(project);
 
         log.info("Member {} removed from project {}", userId, projectId);
@@ -198,6 +269,7 @@ public class ProjectServiceImpl implements ProjectService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PROJECTS, key = "#projectId")
     public ProjectResponse addMembers(UUID projectId, Set<UUID> userIds) {
         log.debug("Adding {} members to project {}", userIds.size(), projectId);
 
@@ -206,7 +278,8 @@ public class ProjectServiceImpl implements ProjectService {
                 .map(this::findUserById)
                 .collect(Collectors.toSet());
 
-        project.getMembers().addAll(users);
+        int added = (int) users.stream().filter(project.getMembers()::add).count();
+        entityCounters.adjustMembers(project, added);
         Project updatedProject = projectRepository.save(project);
 
         log.info("{} members added to project {}", userIds.size(), projectId);
@@ -215,6 +288,7 @@ public class ProjectServiceImpl implements ProjectService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PROJECTS, key = "#projectId")
     public ProjectResponse removeMembers(UUID projectId, Set<UUID> userIds) {
         log.debug("Removing {} members from project {}", userIds.size(), projectId);
 
@@ -223,7 +297,8 @@ public class ProjectServiceImpl implements ProjectService {
                 .map(this::findUserById)
                 .collect(Collectors.toSet());
 
-        project.getMembers().removeAll(users);
+        int removed = (int) users.stream().filter(project.getMembers()::remove).count();
+        entityCounters.adjustMembers(project, -removed);
         Project updatedProject = projectRepository.save(project);
 
         log.info("{} members removed from project {}", userIds.size(), projectId);
@@ -240,6 +315,7 @@ public class ProjectServiceImpl implements ProjectService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PROJECTS, key = "#id")
     public ProjectResponse updateProjectStatus(UUID id, ProjectStatus status) {
         log.debug("Updating project {} status to {}", id, status);
 
@@ -247,6 +323,7 @@ public class ProjectServiceImpl implements ProjectService {
         project.setStatus(status);
 
         Project updatedProject = projectRepository.save(project);
+        projectListCache.invalidate(id);
         log.info("Project {} status updated to {}", id, status);
 
         return projectMapper.toResponse(updatedProject);
@@ -296,16 +373,14 @@ public class ProjectServiceImpl implements ProjectService {
     public List<ProjectSummaryResponse> getRecentProjectsByOwner(UUID ownerId) {
         log.debug("Fetching recent projects by owner: {}", ownerId);
 
-        List<Project> projects = projectRepository.findRecentProjectsByOwner(ownerId);
-        return projectMapper.toSummaryResponseList(projects);
+        return projectMapper.toSummaryResponses(projectRepository.findRecentProjectSummariesByOwner(ownerId));
     }
 
     @Override
     public List<ProjectSummaryResponse> getActiveProjectsByMember(UUID memberId) {
         log.debug("Fetching active projects by member: {}", memberId);
 
-        List<Project> projects = projectRepository.findActiveProjectsByMember(memberId);
-        return projectMapper.toSummaryResponseList(projects);
+        return projectMapper.toSummaryResponses(projectRepository.findActiveProjectSummariesByMember(memberId));
     }
 
     @Override
@@ -320,12 +395,14 @@ public class ProjectServiceImpl implements ProjectService {
 
     @Override
     public long getProjectMembersCount(UUID projectId) {
-        return projectRepository.countMembersByProjectId(projectId);
+        return requestCoalescer.execute("project-members-count", projectId,
+                () -> projectRepository.countMembersByProjectId(projectId));
     }
 
     @Override
     public List<Object[]> getProjectStatusStatistics() {
-        return projectRepository.getProjectStatusStatistics();
+        return requestCoalescer.execute("project-status-statistics", "all",
+                projectRepository::getProjectStatusStatistics);
     }
 
     @Override
@@ -345,11 +422,13 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     private Project findProjectById(UUID id) {
+        hotKeyTracker.record(HotKeyTracker.PROJECT, id);
         return projectRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Project not found with ID: " + id));
     }
 
     private User findUserById(UUID id) {
+        hotKeyTracker.record(HotKeyTracker.USER, id);
         return userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + id));
     }
@@ -1,7 +1,13 @@
 package com.example.javaspring.service.impl;
 
+import com.example.javaspring.cache.CacheNames;
+import com.example.javaspring.cache.CollectionVersions;
+import com.example.javaspring.cache.HotKeyTracker;
+import com.example.javaspring.cache.ProjectListCache;
+import com.example.javaspring.cache.RequestCoalescer;
 import com.example.javaspring.dto.request.TaskCreateRequest;
 import com.example.javaspring.dto.request.TaskUpdateRequest;
+import com.example.javaspring.dto.response.CursorPageResponse;
 import com.example.javaspring.dto.response.PageResponse;
 import com.example.javaspring.dto.response.TaskResponse;
 import com.example.javaspring.dto.response.TaskSummaryResponse;
@@ -10,22 +16,30 @@ import com.example.javaspring.entity.Task;
 import com.example.javaspring.entity.User;
 import com.example.javaspring.enums.TaskPriority;
 import com.example.javaspring.enums.TaskStatus;
+import com.example.javaspring.enums.TotalMode;
 import com.example.javaspring.exception.BusinessLogicException;
 import com.example.javaspring.exception.ResourceNotFoundException;
 import com.example.javaspring.mapper.TaskMapper;
 import com.example.javaspring.repository.ProjectRepository;
+import com.example.javaspring.repository.RowCountEstimator;
 import com.example.javaspring.repository.TaskRepository;
 import com.example.javaspring.repository.UserRepository;
 import com.example.javaspring.service.TaskService;
+import com.example.javaspring.util.ETags;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Slf4j
@@ -38,9 +52,18 @@ public class TaskServiceImpl implements TaskService {
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
     private final TaskMapper taskMapper;
+    private final CacheManager cacheManager;
+    private final RequestCoalescer requestCoalescer;
+    private final CollectionVersions collectionVersions;
+    private final ProjectListCache projectListCache;
+    private final HotKeyTracker hotKeyTracker;
+    private final KeysetPaginator keysetPaginator;
+    private final RowCountEstimator rowCountEstimator;
+    private final EntityCounters entityCounters;
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PROJECTS, key = "#request.projectId")
     public TaskResponse createTask(TaskCreateRequest request, UUID reporterId) {
         log.debug("Creating task: {} for project: {} by reporter: {}",
                 request.getTitle(), request.getProjectId(), reporterId);
@@ -69,31 +92,72 @@ public class TaskServiceImpl implements TaskService {
         }
 
         Task savedTask = taskRepository.save(task);
+        entityCounters.adjustTasks(project, 1);
+        projectListCache.invalidate(task.getProject().getId());
         log.info("Task created successfully with ID: {}", savedTask.getId());
 
         return taskMapper.toResponse(savedTask);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheNames.TASKS, key = "#id", sync = true)
     public TaskResponse getTaskById(UUID id) {
         log.debug("Fetching task by ID: {}", id);
 
-        Task task = findTaskById(id);
+        hotKeyTracker.record(HotKeyTracker.TASK, id);
+        Task task = taskRepository.findDetailById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + id));
         return taskMapper.toResponse(task);
     }
 
     @Override
-    public PageResponse<TaskResponse> getAllTasks(Pageable pageable) {
-        log.debug("Fetching all tasks with pagination: {}", pageable);
+    public Optional<String> getTaskVersion(UUID id) {
+        return taskRepository.findResponseVersion(id).stream().findFirst().map(ETags::fingerprint);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheNames.TASKS, key = "#id + '@' + #version", sync = true)
+    public TaskResponse getTaskById(UUID id, String version) {
+        // The entry may hold a newer state than its version, never an older one
+        return getTaskById(id);
+    }
 
-        Page<Task> taskPage = taskRepository.findAll(pageable);
+    @Override
+    public Optional<String> getTaskListVersion() {
+        return collectionVersions.current(CacheNames.TASKS);
+    }
+
+    @Override
+    public boolean canUserAccessTask(UUID taskId, UUID userId) {
+        return taskRepository.isProjectOwnerOrMember(taskId, userId);
+    }
+
+    @Override
+    public PageResponse<TaskResponse> getAllTasks(Pageable pageable, TotalMode totalMode) {
+        log.debug("Fetching all tasks with pagination: {} (total: {})", pageable, totalMode);
+
+        Slice<Task> taskPage = totalMode == TotalMode.EXACT
+                ? taskRepository.findAll(pageable)
+                : taskRepository.findSliceBy(pageable);
         List<TaskResponse> taskResponses = taskMapper.toResponseList(taskPage.getContent());
 
-        return buildPageResponse(taskPage, taskResponses);
+        return PageResponse.of(taskPage, taskResponses, totalMode, () -> rowCountEstimator.estimate("tasks"));
+    }
+
+    @Override
+    public CursorPageResponse<TaskResponse> getAllTasks(String cursor, int size) {
+        log.debug("Fetching all tasks after cursor: {}", cursor);
+
+        return keysetPaginator.page("tasks", cursor, size, new KeysetPaginator.KeysetQuery<>(
+                        taskRepository::findPage,
+                        taskRepository::findPageAfter,
+                        taskRepository::findPageBefore),
+                Task::getCreatedAt, Task::getId, taskMapper::toResponseList);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.TASKS, key = "#id")
     public TaskResponse updateTask(UUID id, TaskUpdateRequest request) {
         log.debug("Updating task with ID: {}", id);
 
@@ -127,6 +191,7 @@ public class TaskServiceImpl implements TaskService {
         }
 
         Task updatedTask = taskRepository.save(task);
+        projectListCache.invalidate(task.getProject().getId());
         log.info("Task updated successfully with ID: {}", updatedTask.getId());
 
         return taskMapper.toResponse(updatedTask);
@@ -134,6 +199,7 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.TASKS, key = "#id")
     public void deleteTask(UUID id) {
         log.debug("Deleting task with ID: {}", id);
 
@@ -145,6 +211,9 @@ public class TaskServiceImpl implements TaskService {
         }
 
         taskRepository.delete(task);
+        entityCounters.adjustTasks(task.getProject(), -1);
+        projectListCache.invalidate(task.getProject().getId());
+        evictCache(CacheNames.PROJECTS, task.getProject().getId());
         log.info("Task deleted successfully with ID: {}", id);
     }
 
@@ -152,26 +221,40 @@ public class TaskServiceImpl implements TaskService {
     public List<TaskResponse> getTasksByProject(UUID projectId) {
         log.debug("Fetching tasks by project ID: {}", projectId);
 
-        List<Task> tasks = taskRepository.findByProjectId(projectId);
-        return taskMapper.toResponseList(tasks);
+        return projectListCache.get(projectId, "tasks-by-project", "",
+                () -> taskMapper.toResponseList(taskRepository.findByProjectId(projectId)));
     }
 
     @Override
     public List<TaskResponse> getTasksByProjectAndStatus(UUID projectId, TaskStatus status) {
         log.debug("Fetching tasks by project {} and status {}", projectId, status);
 
-        List<Task> tasks = taskRepository.findByProjectIdAndStatus(projectId, status);
-        return taskMapper.toResponseList(tasks);
+        return projectListCache.get(projectId, "tasks-by-project-and-status", status,
+                () -> taskMapper.toResponseList(taskRepository.findByProjectIdAndStatus(projectId, status)));
     }
 
     @Override
-    public PageResponse<TaskResponse> getTasksByProject(UUID projectId, Pageable pageable) {
-        log.debug("Fetching tasks by project ID {} with pagination: {}", projectId, pageable);
+    public PageResponse<TaskResponse> getTasksByProject(UUID projectId, Pageable pageable, TotalMode totalMode) {
+        log.debug("Fetching tasks by project ID {} with pagination: {} (total: {})", projectId, pageable, totalMode);
 
-        Page<Task> taskPage = taskRepository.findByProjectId(projectId, pageable);
+        Slice<Task> taskPage = totalMode == TotalMode.EXACT
+                ? taskRepository.findByProjectId(projectId, pageable)
+                : taskRepository.findSliceByProjectId(projectId, pageable);
         List<TaskResponse> taskResponses = taskMapper.toResponseList(taskPage.getContent());
 
-        return buildPageResponse(taskPage, taskResponses);
+        return PageResponse.of(taskPage, taskResponses, totalMode,
+                () -> rowCountEstimator.estimate("tasks", "project_id", projectId));
+    }
+
+    @Override
+    public CursorPageResponse<TaskResponse> getTasksByProject(UUID projectId, String cursor, int size) {
+        log.debug("Fetching tasks by project ID {} after cursor: {}", projectId, cursor);
+
+        return keysetPaginator.page("tasks-by-project:" + projectId, cursor, size, new KeysetPaginator.KeysetQuery<>(
+                        limit -> taskRepository.findPageByProjectId(projectId, limit),
+                        (createdAt, id, limit) -> taskRepository.findPageByProjectIdAfter(projectId, createdAt, id, limit),
+                        (createdAt, id, limit) -> taskRepository.findPageByProjectIdBefore(projectId, createdAt, id, limit)),
+                Task::getCreatedAt, Task::getId, taskMapper::toResponseList);
     }
 
     @Override
@@ -200,6 +283,7 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.TASKS, key = "#taskId")
     public TaskResponse assignTask(UUID taskId, UUID assigneeId) {
         log.debug("Assigning task {} to user {}", taskId, assigneeId);
 
@@ -210,6 +294,7 @@ public class TaskServiceImpl implements TaskService {
 
         task.setAssignee(assignee);
         Task updatedTask = taskRepository.save(task);
+        projectListCache.invalidate(task.getProject().getId());
 
         log.info("Task {} assigned to user {}", taskId, assigneeId);
         return taskMapper.toResponse(updatedTask);
@@ -217,6 +302,7 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.TASKS, key = "#taskId")
     public TaskResponse unassignTask(UUID taskId) {
         log.debug("Unassigning task {}", taskId);
 
@@ -224,6 +310,7 @@ public class TaskServiceImpl implements TaskService {
         task.setAssignee(null);
 
         Task updatedTask = taskRepository.save(task);
+        projectListCache.invalidate(task.getProject().getId());
         log.info("Task {} unassigned", taskId);
 
         return taskMapper.toResponse(updatedTask);
@@ -239,6 +326,7 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.TASKS, key = "#id")
     public TaskResponse updateTaskStatus(UUID id, TaskStatus status) {
         log.debug("Updating task {} status to {}", id, status);
 
@@ -247,6 +335,7 @@ public class TaskServiceImpl implements TaskService {
 
         task.setStatus(status);
         Task updatedTask = taskRepository.save(task);
+        projectListCache.invalidate(task.getProject().getId());
 
         log.info("Task {} status updated to {}", id, status);
         return taskMapper.toResponse(updatedTask);
@@ -270,6 +359,7 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.TASKS, key = "#id")
     public TaskResponse updateTaskPriority(UUID id, TaskPriority priority) {
         log.debug("Updating task {} priority to {}", id, priority);
 
@@ -277,6 +367,7 @@ public class TaskServiceImpl implements TaskService {
         task.setPriority(priority);
 
         Task updatedTask = taskRepository.save(task);
+        projectListCache.invalidate(task.getProject().getId());
         log.info("Task {} priority updated to {}", id, priority);
 
         return taskMapper.toResponse(updatedTask);
@@ -358,16 +449,14 @@ public class TaskServiceImpl implements TaskService {
     public List<TaskSummaryResponse> getRecentTasksByAssignee(UUID assigneeId) {
         log.debug("Fetching recent tasks by assignee: {}", assigneeId);
 
-        List<Task> tasks = taskRepository.findRecentTasksByAssignee(assigneeId);
-        return taskMapper.toSummaryResponseList(tasks);
+        return taskMapper.toSummaryResponses(taskRepository.findRecentTaskSummariesByAssignee(assigneeId));
     }
 
     @Override
     public List<TaskSummaryResponse> getRecentTasksByProject(UUID projectId) {
         log.debug("Fetching recent tasks by project: {}", projectId);
 
-        List<Task> tasks = taskRepository.findRecentTasksByProject(projectId);
-        return taskMapper.toSummaryResponseList(tasks);
+        return taskMapper.toSummaryResponses(taskRepository.findRecentTaskSummariesByProject(projectId));
     }
 
     @Override
@@ -400,39 +489,54 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     public List<Object[]> getTaskStatusStatisticsByProject(UUID projectId) {
-        return taskRepository.getTaskStatusStatisticsByProject(projectId);
+        return requestCoalescer.execute("task-status-statistics", projectId,
+                () -> taskRepository.getTaskStatusStatisticsByProject(projectId));
     }
 
     @Override
     public List<Object[]> getTaskPriorityStatisticsByProject(UUID projectId) {
-        return taskRepository.getTaskPriorityStatisticsByProject(projectId);
+        return requestCoalescer.execute("task-priority-statistics", projectId,
+                () -> taskRepository.getTaskPriorityStatisticsByProject(projectId));
     }
 
     @Override
     public List<Object[]> getAssigneeWorkloadByProject(UUID projectId) {
-        return taskRepository.getAssigneeWorkloadByProject(projectId);
+        return requestCoalescer.execute("assignee-workload", projectId,
+                () -> taskRepository.getAssigneeWorkloadByProject(projectId));
     }
 
     @Override
     public long getCommentsCountByTask(UUID taskId) {
-        return taskRepository.countCommentsByTaskId(taskId);
+        return requestCoalescer.execute("task-comments-count", taskId,
+                () -> taskRepository.countCommentsByTaskId(taskId));
     }
 
     private Task findTaskById(UUID id) {
+        hotKeyTracker.record(HotKeyTracker.TASK, id);
         return taskRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + id));
     }
 
     private Project findProjectById(UUID id) {
+        hotKeyTracker.record(HotKeyTracker.PROJECT, id);
         return projectRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Project not found with ID: " + id));
     }
 
     private User findUserById(UUID id) {
+        hotKeyTracker.record(HotKeyTracker.USER, id);
         return userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + id));
     }
 
+    // Evicts entries whose key is only known after loading the entity; deferred until commit like @CacheEvict
+    private void evictCache(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
     private void validateUserCanAccessProject(User user, Project project) {
         boolean canAccess = project.getOwner().getId().equals(user.getId()) ||
                 project.getMembers().contains(user);
@@ -460,18 +564,4 @@ public class TaskServiceImpl implements TaskService {
                     String.format("invalid transition from %s to %s", currentStatus, newStatus));
         }
     }
-
-    private PageResponse<TaskResponse> buildPageResponse(Page<Task> taskPage, List<TaskResponse> taskResponses) {
-        return PageResponse.<TaskResponse>builder()
-                .content(taskResponses)
-                .page(taskPage.getNumber())
-                .size(taskPage.getSize())
-                .totalElements(taskPage.getTotalElements())
-                .totalPages(taskPage.getTotalPages())
-                .first(taskPage.isFirst())
-                .last(taskPage.isLast())
-                .hasNext(taskPage.hasNext())
-                .hasPrevious(taskPage.hasPrevious())
-                .build();
-    }
 }
\ No newline at end of file
@@ -1,27 +1,39 @@
 package com.example.javaspring.service.impl;
 
+import com.example.javaspring.cache.CacheNames;
+import com.example.javaspring.cache.CollectionVersions;
+import com.example.javaspring.cache.HotKeyTracker;
+import com.example.javaspring.cache.SummaryCache;
 import com.example.javaspring.dto.request.UserCreateRequest;
 import com.example.javaspring.dto.request.UserUpdateRequest;
+import com.example.javaspring.dto.response.CursorPageResponse;
 import com.example.javaspring.dto.response.PageResponse;
 import com.example.javaspring.dto.response.UserResponse;
 import com.example.javaspring.dto.response.UserSummaryResponse;
 import com.example.javaspring.entity.User;
 import com.example.javaspring.enums.Role;
+import com.example.javaspring.enums.TotalMode;
 import com.example.javaspring.exception.DuplicateResourceException;
 import com.example.javaspring.exception.ResourceNotFoundException;
 import com.example.javaspring.mapper.UserMapper;
+import com.example.javaspring.repository.RowCountEstimator;
 import com.example.javaspring.repository.UserRepository;
+import com.example.javaspring.security.PasswordHashingService;
+import com.example.javaspring.security.TokenRevocationService;
 import com.example.javaspring.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
@@ -33,7 +45,14 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final TokenRevocationService revocationService;
+    private final UserUniquenessFilter uniquenessFilter;
+    private final CollectionVersions collectionVersions;
+    private final SummaryCache summaryCache;
+    private final HotKeyTracker hotKeyTracker;
+    private final KeysetPaginator keysetPaginator;
+    private final RowCountEstimator rowCountEstimator;
 
     @Override
     @Transactional
@@ -47,18 +66,19 @@ public class UserServiceImpl implements UserService {
                 .email(request.getEmail())
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHashingService.encode(request.getPassword()))
                 .roles(request.getRoles())
                 .enabled(true)
                 .build();
 
-        User savedUser = userRepository.save(user);
+        User savedUser = saveUniqueFields(user);
         log.info("User created successfully with ID: {}", savedUser.getId());
 
         return userMapper.toResponse(savedUser);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheNames.USERS, key = "#id", sync = true)
     public UserResponse getUserById(UUID id) {
         log.debug("Fetching user by ID: {}", id);
 
@@ -66,6 +86,28 @@ public class UserServiceImpl implements UserService {
         return userMapper.toResponse(user);
     }
 
+    @Override
+    public Optional<String> getUserVersion(UUID id) {
+        return userRepository.findVersionById(id).map(String::valueOf);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheNames.USERS, key = "#id + '@' + #version", sync = true)
+    public UserResponse getUserById(UUID id, String version) {
+        // The entry may hold a newer state than its version, never an older one
+        return getUserById(id);
+    }
+
+    @Override
+    public Optional<String> getUserListVersion() {
+        return collectionVersions.current(CacheNames.USERS);
+    }
+
+    @Override
+    public UserSummaryResponse getUserSummary(UUID id) {
+        return summaryCache.user(id, () -> userMapper.toSummaryResponse(findUserById(id)));
+    }
+
     @Override
     public UserResponse getUserByUsername(String username) {
         log.debug("Fetching user by username: {}", username);
@@ -87,40 +129,47 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public PageResponse<UserResponse> getAllUsers(Pageable pageable) {
-        log.debug("Fetching all users with pagination: {}", pageable);
+    public PageResponse<UserResponse> getAllUsers(Pageable pageable, TotalMode totalMode) {
+        log.debug("Fetching all users with pagination: {} (total: {})", pageable, totalMode);
 
-        Page<User> userPage = userRepository.findAll(pageable);
+        Slice<User> userPage = totalMode == TotalMode.EXACT
+                ? userRepository.findAll(pageable)
+                : userRepository.findSliceBy(pageable);
         List<UserResponse> userResponses = userMapper.toResponseList(userPage.getContent());
 
-        return PageResponse.<UserResponse>builder()
-                .content(userResponses)
-                .page(userPage.getNumber())
-                .size(userPage.getSize())
-                .totalElements(userPage.getTotalElements())
-                .totalPages(userPage.getTotalPages())
-                .first(userPage.isFirst())
-                .last(userPage.isLast())
-                .hasNext(userPage.hasNext())
-                .hasPrevious(userPage.hasPrevious())
-                .build();
+        return PageResponse.of(userPage, userResponses, totalMode, () -> rowCountEstimator.estimate("users"));
+    }
+
+    @Override
+    public CursorPageResponse<UserResponse> getAllUsers(String cursor, int size) {
+        log.debug("Fetching all users after cursor: {}", cursor);
+
+        return keysetPaginator.page("users", cursor, size, new KeysetPaginator.KeysetQuery<>(
+                        userRepository::findPage,
+                        userRepository::findPageAfter,
+                        userRepository::findPageBefore),
+                User::getCreatedAt, User::getId, userMapper::toResponseList);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.USERS, key = "#id")
     public UserResponse updateUser(UUID id, UserUpdateRequest request) {
         log.debug("Updating user with ID: {}", id);
 
         User user = findUserById(id);
+        boolean uniqueFieldsChanged = false;
 
         if (request.getUsername() != null && !request.getUsername().equals(user.getUsername())) {
             validateUsernameUniqueness(request.getUsername());
             user.setUsername(request.getUsername());
+            uniqueFieldsChanged = true;
         }
 
         if (request.getEmail() != null && !request.getEmail().equals(user.getEmail())) {
             validateEmailUniqueness(request.getEmail());
             user.setEmail(request.getEmail());
+            uniqueFieldsChanged = true;
         }
 
         if (request.getFirstName() != null) {
@@ -131,15 +180,24 @@ public class UserServiceImpl implements UserService {
             user.setLastName(request.getLastName());
         }
 
-        if (request.getRoles() != null) {
+        boolean claimsChanged = false;
+
+        if (request.getRoles() != null && !request.getRoles().equals(user.getRoles())) {
             user.setRoles(request.getRoles());
+            claimsChanged = true;
         }
 
-        if (request.getEnabled() != null) {
+        if (request.getEnabled() != null && !request.getEnabled().equals(user.getEnabled())) {
             user.setEnabled(request.getEnabled());
+            claimsChanged = true;
         }
 
-        User updatedUser = userRepository.save(user);
+        User updatedUser = uniqueFieldsChanged ? saveUniqueFields(user) : userRepository.save(user);
+
+        // Access tokens carry roles and are trusted without a database lookup
+        if (claimsChanged) {
+            revocationService.revokeUserTokens(updatedUser.getId());
+        }
         log.info("User updated successfully with ID: {}", updatedUser.getId());
 
         return userMapper.toResponse(updatedUser);
@@ -147,23 +205,25 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.USERS, key = "#id")
     public void deleteUser(UUID id) {
         log.debug("Deleting user with ID: {}", id);
 
         User user = findUserById(id);
         userRepository.delete(user);
+        revocationService.revokeUserTokens(id);
 
         log.info("User deleted successfully with ID: {}", id);
     }
 
     @Override
     public boolean existsByUsername(String username) {
-        return userRepository.existsByUsername(username);
+        return uniquenessFilter.usernameExists(username);
     }
 
     @Override
     public boolean existsByEmail(String email) {
-        return userRepository.existsByEmail(email);
+        return uniquenessFilter.emailExists(email);
     }
 
     @Override
@@ -174,11 +234,14 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.USERS, key = "#userId")
     public UserResponse addRole(UUID userId, Role role) {
         log.debug("Adding role {} to user {}", role, userId);
 
         User user = findUserById(userId);
-        user.getRoles().add(role);
+        if (user.getRoles().add(role)) {
+            revocationService.revokeUserTokens(userId);
+        }
 
         User updatedUser = userRepository.save(user);
         log.info("Role {} added to user {}", role, userId);
@@ -188,11 +251,14 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.USERS, key = "#userId")
     public UserResponse removeRole(UUID userId, Role role) {
         log.debug("Removing role {} from user {}", role, userId);
 
         User user = findUserById(userId);
-        user.getRoles().remove(role);
+        if (user.getRoles().remove(role)) {
+            revocationService.revokeUserTokens(userId);
+        }
 
         User updatedUser = userRepository.save(user);
         log.info("Role {} removed from user {}", role, userId);
@@ -277,23 +343,41 @@ public class UserServiceImpl implements UserService {
     }
 
     private User findUserById(UUID id) {
+        hotKeyTracker.record(HotKeyTracker.USER, id);
         return userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + id));
     }
 
+    /**
+     * Saves a user whose username or email was checked against the uniqueness filter. A
+     * concurrent registration, or a filter update another node has not seen yet, can still
+     * take the value first; the unique constraint then turns that into a duplicate error.
+     */
+    private User saveUniqueFields(User user) {
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateResourceException("Username or email already exists");
+        }
+
+        uniquenessFilter.add(savedUser.getUsername(), savedUser.getEmail());
+        return savedUser;
+    }
+
     private void validateUserCreation(UserCreateRequest request) {
         validateUsernameUniqueness(request.getUsername());
         validateEmailUniqueness(request.getEmail());
     }
 
     private void validateUsernameUniqueness(String username) {
-        if (userRepository.existsByUsername(username)) {
+        if (uniquenessFilter.usernameExists(username)) {
             throw new DuplicateResourceException("Username already exists: " + username);
         }
     }
 
     private void validateEmailUniqueness(String email) {
-        if (userRepository.existsByEmail(email)) {
+        if (uniquenessFilter.emailExists(email)) {
             throw new DuplicateResourceException("Email already exists: " + email);
         }
     }
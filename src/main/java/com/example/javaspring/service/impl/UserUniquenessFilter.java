@@ -0,0 +1,201 @@
+package com.example.javaspring.service.impl;
+
+import com.example.javaspring.repository.UserRepository;
+import com.example.javaspring.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Per-node Bloom filter of lower-cased usernames and emails in front of the uniqueness checks.
+ * <p>
+ * Most candidates during signup are unique, so a negative answer skips the database; only
+ * filter hits are confirmed with a query. Values added on any node are pushed to all nodes over
+ * pub/sub, and the unique constraints on {@code users} back this up if a message is lost.
+ * Deleted or renamed values stay in the filter as false positives until the next rebuild.
+ */
+@Slf4j
+@Component
+public class UserUniquenessFilter implements MessageListener {
+
+    private static final String CHANNEL = "user-uniqueness";
+    private static final String USERNAME = "username";
+    private static final String EMAIL = "email";
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MeterRegistry meterRegistry;
+    private final long expectedUsers;
+
+    private volatile BloomFilter values;
+
+    // Until the first build completes every check goes to the database
+    private volatile boolean ready;
+
+    // Values added since the last rebuild started, re-applied after the filter swap
+    private final Map<String, Long> recentValues = new ConcurrentHashMap<>();
+
+    public UserUniquenessFilter(UserRepository userRepository,
+                                StringRedisTemplate redisTemplate,
+                                RedisMessageListenerContainer listenerContainer,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.users.uniqueness-filter.expected-users:1000000}") long expectedUsers) {
+        this.userRepository = userRepository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+        this.expectedUsers = expectedUsers;
+        this.values = newFilter(0);
+
+        Gauge.builder("user.uniqueness_filter.expected_fpp", this, filter -> filter.values.expectedFalsePositiveRate())
+                .description("False positive rate expected from the filter's fill")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    // ========== CHECKS ==========
+
+    public boolean usernameExists(String username) {
+        return exists(USERNAME, username, userRepository::existsByUsername);
+    }
+
+    public boolean emailExists(String email) {
+        return exists(EMAIL, email, userRepository::existsByEmail);
+    }
+
+    /**
+     * Records a username and email that are now taken, on every node.
+     */
+    public void add(String username, String email) {
+        for (String value : new String[]{key(USERNAME, username), key(EMAIL, email)}) {
+            remember(value);
+            try {
+                redisTemplate.convertAndSend(CHANNEL, value);
+            } catch (DataAccessException e) {
+                // Other nodes pick the value up on their next rebuild; the constraint catches races
+                log.warn("Could not publish uniqueness filter update: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        remember(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    // ========== REBUILD ==========
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the filter from the {@code users} table, dropping deleted and renamed values.
+     *
+     * @return number of users loaded, or -1 if the rebuild failed
+     */
+    @Scheduled(fixedDelayString = "${app.users.uniqueness-filter.rebuild-interval-ms:3600000}",
+            initialDelayString = "${app.users.uniqueness-filter.rebuild-interval-ms:3600000}")
+    public long rebuild() {
+        long startedAt = System.currentTimeMillis();
+
+        try {
+            BloomFilter rebuilt = newFilter(userRepository.count());
+            long users = readOnlyTransaction.execute(status -> {
+                try (Stream<Object[]> rows = userRepository.streamUsernamesAndEmails()) {
+                    // Not peek().count(): count() may skip the pipeline when the stream knows its size
+                    return rows.mapToLong(row -> {
+                        rebuilt.put(key(USERNAME, (String) row[0]));
+                        rebuilt.put(key(EMAIL, (String) row[1]));
+                        return 1;
+                    }).sum();
+                }
+            });
+
+            values = rebuilt;
+            ready = true;
+
+            // Values received while loading may have gone to the old filter only
+            recentValues.keySet().forEach(rebuilt::put);
+            recentValues.values().removeIf(receivedAt -> receivedAt < startedAt);
+
+            log.info("User uniqueness filter rebuilt with {} users in {} ms",
+                    users, System.currentTimeMillis() - startedAt);
+            return users;
+        } catch (DataAccessException e) {
+            log.warn("Could not rebuild user uniqueness filter: {}", e.getMessage());
+            return -1;
+        }
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private boolean exists(String field, String value, Predicate<String> query) {
+        if (ready && !values.mightContain(key(field, value))) {
+            record(field, "negative");
+            return false;
+        }
+
+        boolean exists = query.test(value);
+        if (ready) {
+            record(field, exists ? "true_positive" : "false_positive");
+        }
+        return exists;
+    }
+
+    private void remember(String value) {
+        recentValues.put(value, System.currentTimeMillis());
+        values.put(value);
+    }
+
+    private BloomFilter newFilter(long users) {
+        // Each user contributes a username and an email
+        return BloomFilter.create(Math.max(expectedUsers, users * 2) * 2, FALSE_POSITIVE_RATE);
+    }
+
+    private void record(String field, String result) {
+        Counter.builder("user.uniqueness_filter.checks")
+                .description("Uniqueness checks answered by the filter (negative) or confirmed by a query")
+                .tag("field", field)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String key(String field, String value) {
+        return field + ":" + value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.javaspring.util;
+
+import com.example.javaspring.dto.response.ApiResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET driven by a version fingerprint: a matching {@code If-None-Match} is answered
+ * with 304 before the resource is loaded or mapped.
+ * <p>
+ * Only ETags are sent, no {@code Last-Modified}. Responses embed related entities (owner,
+ * assignee, members, comments) whose changes bump their own version but not the parent's
+ * {@code updatedAt}, so a date would miss changes the fingerprint catches; and a client sending
+ * both validators is judged by {@code If-None-Match} alone.
+ */
+public final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * @param request  current request; on a full response it also receives the ETag header
+     * @param version  reads the current version; empty when the resource does not exist or the
+     *                 version is unavailable, in which case no tag is sent
+     * @param etag     tag for a version
+     * @param response builds the full response for the version, or for {@code null} when there is
+     *                 none, so the regular lookup produces the error
+     * @return the full response, or {@code null} once the 304 has been prepared on the request
+     */
+    public static <T> ResponseEntity<T> respond(WebRequest request,
+                                                Supplier<Optional<String>> version,
+                                                Function<String, String> etag,
+                                                Function<String, ResponseEntity<T>> response) {
+        Optional<String> current = version.get();
+        if (current.isPresent() && request.checkNotModified(etag.apply(current.get()))) {
+            return null;
+        }
+        return response.apply(current.orElse(null));
+    }
+
+    /**
+     * Same as {@link #respond}, wrapping the body in a successful {@link ApiResponse}.
+     */
+    public static <T> ResponseEntity<ApiResponse<T>> ok(WebRequest request,
+                                                        Supplier<Optional<String>> version,
+                                                        Function<String, String> etag,
+                                                        Function<String, T> body) {
+        return respond(request, version, etag,
+                current -> ResponseEntity.ok(ApiResponse.success(body.apply(current))));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.javaspring.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free count-min sketch. {@link #estimate} never under-counts a key; it over-counts by at
+ * most {@code epsilon * total} with probability {@code 1 - delta}.
+ * <p>
+ * Keys are given as 64-bit hashes so callers can hash without allocating.
+ */
+public class CountMinSketch {
+
+    private final AtomicLongArray counters;
+    private final int width;
+    private final int depth;
+
+    private CountMinSketch(int width, int depth) {
+        this.width = width;
+        this.depth = depth;
+        this.counters = new AtomicLongArray(width * depth);
+    }
+
+    public static CountMinSketch create(double epsilon, double delta) {
+        if (epsilon <= 0 || epsilon >= 1 || delta <= 0 || delta >= 1) {
+            throw new IllegalArgumentException("Epsilon and delta must be between 0 and 1");
+        }
+        int width = (int) Math.ceil(Math.E / epsilon);
+        int depth = (int) Math.ceil(Math.log(1 / delta));
+        return new CountMinSketch(width, Math.max(1, depth));
+    }
+
+    /**
+     * @return the key's estimated count including this increment
+     */
+    public long increment(long hash) {
+        long h2 = mix(hash) | 1;
+        long estimate = Long.MAX_VALUE;
+
+        for (int row = 0; row < depth; row++) {
+            long count = counters.incrementAndGet(index(row, hash + row * h2));
+            estimate = Math.min(estimate, count);
+        }
+        return estimate;
+    }
+
+    public long estimate(long hash) {
+        long h2 = mix(hash) | 1;
+        long estimate = Long.MAX_VALUE;
+
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, hash + row * h2)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Halves every counter, so old traffic weighs half as much as traffic since the last call.
+     * Concurrent increments may be halved or not; either way counts stay approximately right.
+     */
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >>> 1);
+        }
+    }
+
+    public static long hash(String namespace, Object key) {
+        return mix(namespace.hashCode() * 0x9E3779B97F4A7C15L + key.hashCode());
+    }
+
+    private int index(int row, long hash) {
+        return row * width + (int) Math.floorMod(hash, (long) width);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
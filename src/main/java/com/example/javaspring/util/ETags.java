@@ -0,0 +1,39 @@
+package com.example.javaspring.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.stream.Collectors;
+
+/**
+ * Strong entity tags derived from version fingerprints rather than from response bodies, so a
+ * conditional request can be answered before anything is loaded or mapped.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * @param parts values that together change whenever the representation changes
+     * @return quoted strong ETag
+     */
+    public static String strong(Object... parts) {
+        String fingerprint = Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("|"));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(fingerprint.getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Joins the columns of a version query into one fingerprint.
+     */
+    public static String fingerprint(Object[] versions) {
+        return Arrays.stream(versions).map(String::valueOf).collect(Collectors.joining(":"));
+    }
+}
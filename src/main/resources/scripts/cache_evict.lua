@@ -0,0 +1,9 @@
+-- Deletes a cache entry and bumps its generation, so loads already running cannot write it back.
+-- KEYS[1] = entry, KEYS[2] = generation of the key
+-- ARGV[1] = generation TTL (milliseconds), longer than any load
+
+redis.call('DEL', KEYS[1])
+redis.call('INCR', KEYS[2])
+redis.call('PEXPIRE', KEYS[2], ARGV[1])
+
+return 1
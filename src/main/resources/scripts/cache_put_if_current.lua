@@ -0,0 +1,13 @@
+-- Writes a loaded value unless the key was evicted, or the cache cleared, while it was loading.
+-- KEYS[1] = entry, KEYS[2] = generation of the key, KEYS[3] = generation of the cache
+-- ARGV[1] = key generation read before the load, ARGV[2] = cache generation read before the load
+-- ("" when absent), ARGV[3] = encoded entry, ARGV[4] = entry TTL (milliseconds)
+-- Returns 1 if written, 0 if the load is outdated
+
+if (redis.call('GET', KEYS[2]) or '') ~= ARGV[1] or (redis.call('GET', KEYS[3]) or '') ~= ARGV[2] then
+    return 0
+end
+
+redis.call('SET', KEYS[1], ARGV[3], 'PX', ARGV[4])
+
+return 1
@@ -0,0 +1,21 @@
+-- Records a failed login attempt atomically.
+-- KEYS[1] = locked account key, KEYS[2] = failed attempts key
+-- ARGV[1] = max failed attempts, ARGV[2] = failed attempts TTL (seconds),
+-- ARGV[3] = lock TTL (seconds), ARGV[4] = lock timestamp,
+-- ARGV[5] = lock invalidation channel, ARGV[6] = lock invalidation message
+-- Returns {locked (0 or 1), failed attempts}
+
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    return {1, tonumber(redis.call('GET', KEYS[2]) or '0')}
+end
+
+local attempts = redis.call('INCR', KEYS[2])
+redis.call('EXPIRE', KEYS[2], ARGV[2])
+
+if attempts >= tonumber(ARGV[1]) then
+    redis.call('SET', KEYS[1], ARGV[4], 'EX', ARGV[3])
+    redis.call('PUBLISH', ARGV[5], ARGV[6])
+    return {1, attempts}
+end
+
+return {0, attempts}
@@ -0,0 +1,21 @@
+-- Rotates the current token of a refresh-token family.
+-- KEYS[1] = refresh-token families of the user (hash: family id -> "tokenId:expiresAtMillis")
+-- ARGV[1] = family id, ARGV[2] = presented token id, ARGV[3] = new token id,
+-- ARGV[4] = new token expiry (epoch millis), ARGV[5] = hash TTL (milliseconds)
+-- Returns 1 if rotated, 0 if the family does not exist, -1 if an old token was reused
+-- (the family is revoked)
+
+local current = redis.call('HGET', KEYS[1], ARGV[1])
+if not current then
+    return 0
+end
+
+if string.match(current, '^(.*):%d+$') ~= ARGV[2] then
+    redis.call('HDEL', KEYS[1], ARGV[1])
+    return -1
+end
+
+redis.call('HSET', KEYS[1], ARGV[1], ARGV[3] .. ':' .. ARGV[4])
+redis.call('PEXPIRE', KEYS[1], ARGV[5])
+
+return 1
@@ -0,0 +1,19 @@
+-- Starts a refresh-token family and drops families whose latest token has expired.
+-- KEYS[1] = refresh-token families of the user (hash: family id -> "tokenId:expiresAtMillis")
+-- ARGV[1] = family id, ARGV[2] = token id, ARGV[3] = token expiry (epoch millis),
+-- ARGV[4] = now (epoch millis), ARGV[5] = hash TTL (milliseconds)
+
+local now = tonumber(ARGV[4])
+local families = redis.call('HGETALL', KEYS[1])
+
+for i = 1, #families, 2 do
+    local expiresAt = tonumber(string.match(families[i + 1], ':(%d+)$'))
+    if expiresAt == nil or expiresAt <= now then
+        redis.call('HDEL', KEYS[1], families[i])
+    end
+end
+
+redis.call('HSET', KEYS[1], ARGV[1], ARGV[2] .. ':' .. ARGV[3])
+redis.call('PEXPIRE', KEYS[1], ARGV[5])
+
+return 1
@@ -0,0 +1,36 @@
+-- Token bucket evaluated atomically on the server clock.
+-- KEYS[1] = bucket key
+-- ARGV[1] = capacity, ARGV[2] = refill rate (tokens per second)
+-- Returns {allowed (0 or 1), retry after (milliseconds)}
+
+local capacity = tonumber(ARGV[1])
+local rate = tonumber(ARGV[2])
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+local tokens = tonumber(bucket[1])
+local updatedAt = tonumber(bucket[2])
+
+if tokens == nil or updatedAt == nil then
+    tokens = capacity
+    updatedAt = now
+end
+
+tokens = math.min(capacity, tokens + math.max(0, now - updatedAt) / 1000 * rate)
+
+local allowed = 0
+local retryAfter = 0
+
+if tokens >= 1 then
+    tokens = tokens - 1
+    allowed = 1
+else
+    retryAfter = math.ceil((1 - tokens) / rate * 1000)
+end
+
+redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate * 1000))
+
+return {allowed, retryAfter}
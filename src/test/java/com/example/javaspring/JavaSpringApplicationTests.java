@@ -3,7 +3,8 @@ package com.example.javaspring;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// No Redis server in this test; clients connect lazily, only the subscriptions would fail at startup
+@SpringBootTest(properties = "app.redis.listener.auto-startup=false")
 class JavaSpringApplicationTests {
 
 	@Test
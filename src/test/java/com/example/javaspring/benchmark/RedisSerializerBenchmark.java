@@ -0,0 +1,127 @@
+package com.example.javaspring.benchmark;
+
+import com.example.javaspring.cache.BinaryRedisSerializer;
+import com.example.javaspring.config.RedisConfig;
+import com.example.javaspring.support.SampleResponses;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BinaryRedisSerializer} against the JSON serializer with default typing it replaced, on
+ * the user, project and task responses the caches store. {@link #main} prints the encoded sizes
+ * before running the benchmarks.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.javaspring.benchmark.RedisSerializerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedisSerializerBenchmark {
+
+    @Param({"user", "project", "task"})
+    private String value;
+
+    private RedisSerializer<Object> binary;
+    private RedisSerializer<Object> json;
+    private Object response;
+    private byte[] binaryBytes;
+    private byte[] jsonBytes;
+
+    @Setup
+    public void setUp() {
+        binary = binarySerializer();
+        json = jsonSerializer();
+        response = samples().get(value);
+        binaryBytes = binary.serialize(response);
+        jsonBytes = json.serialize(response);
+    }
+
+    @Benchmark
+    public byte[] serializeBinary() {
+        return binary.serialize(response);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return json.serialize(response);
+    }
+
+    @Benchmark
+    public Object deserializeBinary() {
+        return binary.deserialize(binaryBytes);
+    }
+
+    @Benchmark
+    public Object deserializeJson() {
+        return json.deserialize(jsonBytes);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        printSizes();
+        new Runner(new OptionsBuilder().include(RedisSerializerBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private static void printSizes() {
+        RedisSerializer<Object> binary = binarySerializer();
+        RedisSerializer<Object> json = jsonSerializer();
+
+        System.out.printf("%-10s %12s %12s %8s%n", "value", "json bytes", "binary bytes", "ratio");
+        samples().forEach((name, response) -> {
+            int jsonSize = json.serialize(response).length;
+            int binarySize = binary.serialize(response).length;
+            System.out.printf("%-10s %12d %12d %7.0f%%%n", name, jsonSize, binarySize, 100.0 * binarySize / jsonSize);
+        });
+    }
+
+    private static Map<String, Object> samples() {
+        Map<String, Object> samples = new LinkedHashMap<>();
+        samples.put("user", SampleResponses.user());
+        samples.put("project", SampleResponses.project(8));
+        samples.put("task", SampleResponses.task(10));
+        return samples;
+    }
+
+    private static RedisSerializer<Object> binarySerializer() {
+        return new RedisConfig().redisValueSerializer(1024);
+    }
+
+    // The serializer RedisConfig used before the binary codec
+    private static RedisSerializer<Object> jsonSerializer() {
+        ObjectMapper om = new ObjectMapper();
+        om.registerModule(new JavaTimeModule());
+        om.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        om.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+        om.activateDefaultTyping(LaissezFaireSubTypeValidator.instance, ObjectMapper.DefaultTyping.NON_FINAL);
+        return new Jackson2JsonRedisSerializer<>(om, Object.class);
+    }
+}
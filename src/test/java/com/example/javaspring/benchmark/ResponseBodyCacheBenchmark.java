@@ -0,0 +1,93 @@
+package com.example.javaspring.benchmark;
+
+import com.example.javaspring.cache.ResponseBodyCache;
+import com.example.javaspring.support.SampleResponses;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.ResponseEntity;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * {@link ResponseBodyCache} hit against miss on the project and task responses it serves, plain
+ * and gzipped. A miss serializes (and compresses) the response again; mapping the entity is left
+ * out, so the difference is only what the cache saves on top of the entity caches.
+ * <p>
+ * {@link #main} runs with the GC profiler, so {@code gc.alloc.rate.norm} shows the bytes each
+ * request allocates: a hit should stay near the size of the response headers. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.javaspring.benchmark.ResponseBodyCacheBenchmark}, or pass
+ * {@code -prof gc} when running the benchmark through the JMH command line.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseBodyCacheBenchmark {
+
+    private static final String VERSION = "1";
+
+    @Param({"project", "task"})
+    private String resource;
+
+    @Param({"false", "true"})
+    private boolean acceptGzip;
+
+    private ResponseBodyCache cache;
+    private UUID id;
+    private Supplier<Object> response;
+    private long missVersion;
+
+    @Setup
+    public void setUp() {
+        // As Spring Boot configures the application's mapper
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        cache = new ResponseBodyCache(objectMapper, new SimpleMeterRegistry(), 64 * 1024 * 1024, 1024);
+        id = UUID.randomUUID();
+
+        Object body = resource.equals("project") ? SampleResponses.project(8) : SampleResponses.task(10);
+        response = () -> body;
+        cache.respond(resource, id, VERSION, response, acceptGzip);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> hit() {
+        return cache.respond(resource, id, VERSION, response, acceptGzip);
+    }
+
+    // Every call sees a new version, as the first read after a write does
+    @Benchmark
+    public ResponseEntity<byte[]> miss() {
+        return cache.respond(resource, id, Long.toString(++missVersion), response, acceptGzip);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ResponseBodyCacheBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.javaspring.cache;
+
+import com.example.javaspring.config.RedisConfig;
+import com.example.javaspring.dto.response.ProjectResponse;
+import com.example.javaspring.dto.response.TaskResponse;
+import com.example.javaspring.dto.response.UserResponse;
+import com.example.javaspring.support.SampleResponses;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryRedisSerializerTest {
+
+    private static final int FLAGS_OFFSET = 1;
+    private static final int FLAG_COMPRESSED = 1;
+
+    private final BinaryRedisSerializer serializer = new RedisConfig().redisValueSerializer(1024);
+
+    @Test
+    void roundTripsRegisteredTypes() {
+        UserResponse user = SampleResponses.user();
+        ProjectResponse project = SampleResponses.project(5);
+        TaskResponse task = SampleResponses.task(3);
+
+        assertThat(serializer.deserialize(serializer.serialize(user))).isEqualTo(user);
+        assertThat(serializer.deserialize(serializer.serialize(project))).isEqualTo(project);
+        assertThat(serializer.deserialize(serializer.serialize(task))).isEqualTo(task);
+    }
+
+    @Test
+    void roundTripsHomogeneousAndEmptyLists() {
+        List<TaskResponse> tasks = List.of(SampleResponses.task(0), SampleResponses.task(1));
+
+        assertThat(serializer.deserialize(serializer.serialize(tasks))).isEqualTo(tasks);
+        assertThat(serializer.deserialize(serializer.serialize(List.of()))).isEqualTo(List.of());
+    }
+
+    @Test
+    void compressesOnlyPayloadsAtOrAboveTheThreshold() {
+        byte[] small = serializer.serialize(SampleResponses.user());
+        TaskResponse largeTask = SampleResponses.task(50);
+        byte[] large = serializer.serialize(largeTask);
+
+        assertThat(small[FLAGS_OFFSET] & FLAG_COMPRESSED).isZero();
+        assertThat(large[FLAGS_OFFSET] & FLAG_COMPRESSED).isEqualTo(FLAG_COMPRESSED);
+        assertThat(serializer.deserialize(large)).isEqualTo(largeTask);
+
+        BinaryRedisSerializer neverCompressing = new RedisConfig().redisValueSerializer(Integer.MAX_VALUE);
+        assertThat(large.length).isLessThan(neverCompressing.serialize(largeTask).length);
+    }
+
+    @Test
+    void treatsNullAndEmptyAsAbsent() {
+        assertThat(serializer.serialize(null)).isEmpty();
+        assertThat(serializer.deserialize(null)).isNull();
+        assertThat(serializer.deserialize(new byte[0])).isNull();
+    }
+
+    @Test
+    void rejectsUnregisteredTypesAndMixedLists() {
+        assertThatThrownBy(() -> serializer.serialize(Map.of("a", 1))).isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> serializer.serialize(List.of(SampleResponses.user(), SampleResponses.task(0))))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void rejectsValuesWrittenWithAnotherSchemaVersionOrFormat() {
+        BinaryRedisSerializer nextVersion = BinaryRedisSerializer.builder()
+                .register(1, UserResponse.class, 2)
+                .build();
+        byte[] current = serializer.serialize(SampleResponses.user());
+
+        assertThatThrownBy(() -> nextVersion.deserialize(current)).isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> serializer.deserialize("{\"@class\":\"x\"}".getBytes()))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void rejectsDuplicateRegistrations() {
+        BinaryRedisSerializer.Builder builder = BinaryRedisSerializer.builder().register(1, UserResponse.class, 1);
+
+        assertThatThrownBy(() -> builder.register(1, TaskResponse.class, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> builder.register(2, UserResponse.class, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
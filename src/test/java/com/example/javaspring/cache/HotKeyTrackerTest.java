@@ -0,0 +1,48 @@
+package com.example.javaspring.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotKeyTrackerTest {
+
+    private final HotKeyTracker tracker = new HotKeyTracker(new SimpleMeterRegistry(), 0.0001, 0.01, 100, 2);
+
+    @Test
+    void reportsTheHottestKeysPerKeyspace() {
+        record(HotKeyTracker.PROJECT, "viral", 1_000);
+        record(HotKeyTracker.PROJECT, "popular", 300);
+        record(HotKeyTracker.PROJECT, "busy", 150);
+        record(HotKeyTracker.TASK, "t1", 200);
+        IntStream.range(0, 5_000).forEach(i -> tracker.record(HotKeyTracker.PROJECT, "cold-" + i));
+
+        Map<String, List<HotKeyTracker.HotKeyCount>> hotKeys = tracker.hotKeys();
+
+        assertThat(hotKeys.get(HotKeyTracker.PROJECT))
+                .extracting(HotKeyTracker.HotKeyCount::key)
+                .containsExactly("viral", "popular");
+        assertThat(hotKeys.get(HotKeyTracker.TASK))
+                .extracting(HotKeyTracker.HotKeyCount::key)
+                .containsExactly("t1");
+    }
+
+    @Test
+    void dropsKeysThatCoolDown() {
+        record(HotKeyTracker.USER, "u1", 150);
+
+        tracker.decay();
+
+        assertThat(tracker.hotKeys()).doesNotContainKey(HotKeyTracker.USER);
+    }
+
+    private void record(String keyspace, String key, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.record(keyspace, key);
+        }
+    }
+}
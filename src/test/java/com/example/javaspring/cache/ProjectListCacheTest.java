@@ -0,0 +1,114 @@
+package com.example.javaspring.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Generation-based invalidation of {@link ProjectListCache}, with the generation counters kept
+ * in a map in place of Redis.
+ */
+class ProjectListCacheTest {
+
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheNames.PROJECT_LISTS);
+    private final ProjectListCache cache = new ProjectListCache(redisTemplate, cacheManager, new SimpleMeterRegistry());
+
+    private final UUID project = UUID.randomUUID();
+    private final UUID otherProject = UUID.randomUUID();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(values.get(anyString())).thenAnswer(invocation -> {
+            Long generation = generations.get(invocation.<String>getArgument(0));
+            return generation != null ? generation.toString() : null;
+        });
+        when(values.increment(anyString())).thenAnswer(invocation ->
+                generations.merge(invocation.getArgument(0), 1L, Long::sum));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void listsAreCachedPerQueryAndParameters() {
+        assertThat(tasks(project, "TODO")).isEqualTo(tasks(project, "TODO"));
+        tasks(project, "DONE");
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void generationBumpOrphansEveryListOfTheProject() {
+        tasks(project, "TODO");
+        tasks(project, "DONE");
+        tasks(otherProject, "TODO");
+
+        cache.invalidate(project);
+
+        tasks(project, "TODO");
+        tasks(project, "DONE");
+        tasks(otherProject, "TODO");
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    void invalidationInATransactionWaitsForTheCommit() {
+        tasks(project, "TODO");
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidate(project);
+
+        // Readers until the commit see the list as of before the write
+        tasks(project, "TODO");
+        assertThat(loads).hasValue(1);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        tasks(project, "TODO");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void listsAreNotCachedWithoutTheGeneration() {
+        when(redisTemplate.opsForValue().get(anyString()))
+                .thenThrow(new RedisConnectionFailureException("Redis down"));
+
+        tasks(project, "TODO");
+        tasks(project, "TODO");
+
+        assertThat(loads).hasValue(2);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private List<String> tasks(UUID projectId, String status) {
+        return cache.get(projectId, "tasks-by-status", status, () -> List.of("load-" + loads.incrementAndGet()));
+    }
+}
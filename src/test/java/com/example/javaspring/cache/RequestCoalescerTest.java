@@ -0,0 +1,108 @@
+package com.example.javaspring.cache;
+
+import com.example.javaspring.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescerTest {
+
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCoalescer coalescer = new RequestCoalescer(meterRegistry);
+
+    @Test
+    void concurrentIdenticalReadsShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Object>> results = callConcurrently(() -> coalescer.execute("task", 1, () -> {
+            loads.incrementAndGet();
+            awaitQuietly(release);
+            return new Object();
+        }));
+        release.countDown();
+
+        Object first = results.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<Object> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(first);
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.counter("request.coalescing", "operation", "task", "role", "follower").count())
+                .isEqualTo(CALLERS - 1);
+    }
+
+    @Test
+    void followersSeeTheLeadersException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Object>> results = callConcurrently(() -> coalescer.execute("task", 1, () -> {
+            awaitQuietly(release);
+            throw new ResourceNotFoundException("Task", "id", 1);
+        }));
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(ResourceNotFoundException.class);
+        }
+    }
+
+    @Test
+    void differentKeysAndLaterCallsLoadSeparately() {
+        AtomicInteger loads = new AtomicInteger();
+
+        coalescer.execute("task", 1, loads::incrementAndGet);
+        coalescer.execute("task", 2, loads::incrementAndGet);
+        coalescer.execute("project", 1, loads::incrementAndGet);
+        coalescer.execute("task", 1, loads::incrementAndGet);
+
+        assertThat(loads).hasValue(4);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    /**
+     * Starts {@link #CALLERS} calls and returns once all of them are inside the coalescer.
+     */
+    private List<Future<Object>> callConcurrently(Callable<Object> call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(call));
+        }
+        executor.shutdown();
+
+        // Leader blocked in the loader, followers waiting on its flight
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.find("request.coalescing").counters().stream().mapToDouble(Counter::count).sum() < CALLERS) {
+            assertThat(System.nanoTime()).as("callers still starting").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+        return results;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.javaspring.cache;
+
+import com.example.javaspring.config.RedisConfig;
+import com.example.javaspring.dto.response.UserSummaryResponse;
+import com.example.javaspring.repository.ProjectRepository;
+import com.example.javaspring.repository.UserRepository;
+import com.example.javaspring.support.SampleResponses;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Restart-to-warm: summaries written before a shutdown are served from the files afterwards
+ * without reloading, except for entities changed since the last checkpoint.
+ */
+class SummaryCacheTest {
+
+    private static final int SUMMARIES = 200;
+
+    // Sparse enough that no probe sequence fills up and overwrites an entry
+    private static final int SLOTS = 64 * SUMMARIES;
+
+    // Lower bound of what reloading one summary costs: a query on a pooled connection
+    private static final Duration DATABASE_ROUND_TRIP = Duration.ofMillis(1);
+
+    private static final Supplier<UserSummaryResponse> NO_RELOAD = () -> {
+        throw new AssertionError("expected a warm read");
+    };
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void servesSummariesWrittenBeforeRestart() throws IOException {
+        List<UserSummaryResponse> summaries = IntStream.range(0, SUMMARIES).mapToObj(SampleResponses::userSummary).toList();
+
+        SummaryCache before = open();
+        summaries.forEach(summary -> before.user(summary.getId(), () -> summary));
+        before.close();
+        verify(userRepository, never()).findIdsUpdatedAfter(any());
+
+        long openedAt = System.nanoTime();
+        SummaryCache after = open();
+        Duration open = Duration.ofNanos(System.nanoTime() - openedAt);
+
+        List<UserSummaryResponse> read = new ArrayList<>();
+        long[] readNanos = new long[SUMMARIES];
+        for (int i = 0; i < SUMMARIES; i++) {
+            long startedAt = System.nanoTime();
+            read.add(after.user(summaries.get(i).getId(), NO_RELOAD));
+            readNanos[i] = System.nanoTime() - startedAt;
+        }
+        after.close();
+        assertThat(read).isEqualTo(summaries);
+
+        // A warm read must beat the query it replaces. The median leaves out the first reads, which
+        // pay for class loading and run interpreted; a bound on wall time tighter than this would
+        // depend on the build machine
+        Arrays.sort(readNanos);
+        Duration median = Duration.ofNanos(readNanos[SUMMARIES / 2]);
+        System.out.printf("Reopened in %d us; median warm read %d us, slowest %d us%n",
+                open.toNanos() / 1000, median.toNanos() / 1000, readNanos[SUMMARIES - 1] / 1000);
+        assertThat(median).isLessThan(DATABASE_ROUND_TRIP);
+    }
+
+    @Test
+    void reloadsSummariesChangedSinceCheckpoint() throws IOException {
+        UserSummaryResponse unchanged = SampleResponses.userSummary(1);
+        UserSummaryResponse changed = SampleResponses.userSummary(2);
+        UserSummaryResponse renamed = UserSummaryResponse.builder()
+                .id(changed.getId())
+                .username("renamed")
+                .email(changed.getEmail())
+                .firstName(changed.getFirstName())
+                .lastName(changed.getLastName())
+                .build();
+
+        SummaryCache before = open();
+        before.user(unchanged.getId(), () -> unchanged);
+        before.user(changed.getId(), () -> changed);
+        before.close();
+
+        // Updated on another node while this one was down
+        when(userRepository.findIdsUpdatedAfter(any())).thenReturn(List.of(changed.getId()));
+
+        SummaryCache after = open();
+        assertThat(after.user(unchanged.getId(), NO_RELOAD)).isEqualTo(unchanged);
+        assertThat(after.user(changed.getId(), () -> renamed)).isEqualTo(renamed);
+        after.close();
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private SummaryCache open() throws IOException {
+        SummaryCache cache = new SummaryCache(new RedisConfig().redisValueSerializer(1024),
+                userRepository, projectRepository, mock(EntityCacheInvalidator.class), new SimpleMeterRegistry(),
+                directory.toString(), 512, SLOTS, 64, 3600, 300);
+        cache.open();
+        return cache;
+    }
+}
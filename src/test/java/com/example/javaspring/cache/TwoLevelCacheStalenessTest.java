@@ -0,0 +1,218 @@
+package com.example.javaspring.cache;
+
+import com.example.javaspring.config.RedisConfig;
+import com.example.javaspring.dto.response.UserResponse;
+import com.example.javaspring.support.SampleResponses;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two nodes sharing a real Redis: how long a node keeps serving a value after another node
+ * changed it, with and without the invalidation message arriving, and with a load racing the
+ * change.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class TwoLevelCacheStalenessTest {
+
+    private static final String CACHE = "users";
+    private static final Duration LOCAL_TTL = Duration.ofMillis(500);
+    private static final Duration MESSAGE_DELIVERY = Duration.ofSeconds(2);
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisTemplate<String, Object> redisTemplate;
+    private static StringRedisTemplate stringRedisTemplate;
+
+    // The row both nodes load from
+    private final AtomicReference<UserResponse> database = new AtomicReference<>();
+    private final String key = UUID.randomUUID().toString();
+
+    private Node nodeA;
+    private Node nodeB;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new RedisConfig().redisValueSerializer(1024));
+        redisTemplate.afterPropertiesSet();
+
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void startNodes() throws Exception {
+        nodeA = new Node();
+        nodeB = new Node();
+    }
+
+    @AfterEach
+    void stopNodes() throws Exception {
+        nodeA.stop();
+        nodeB.stop();
+    }
+
+    @Test
+    void invalidationReachesOtherNodeBeforeLocalExpiry() throws Exception {
+        UserResponse before = SampleResponses.user();
+        UserResponse after = SampleResponses.user();
+        database.set(before);
+        assertThat(nodeB.read()).isEqualTo(before);
+
+        database.set(after);
+        nodeA.cache.evict(key);
+
+        long stale = staleMillis(nodeB, after);
+        assertThat(stale).isLessThan(LOCAL_TTL.toMillis());
+    }
+
+    @Test
+    void lostInvalidationIsBoundedByLocalTtl() throws Exception {
+        UserResponse before = SampleResponses.user();
+        UserResponse after = SampleResponses.user();
+        database.set(before);
+        assertThat(nodeB.read()).isEqualTo(before);
+
+        // Node B misses the message, as on a dropped subscription
+        nodeB.listenerContainer.stop();
+        database.set(after);
+        nodeA.cache.evict(key);
+
+        assertThat(nodeB.read()).isEqualTo(before);
+        long stale = staleMillis(nodeB, after);
+        assertThat(stale).isLessThanOrEqualTo(LOCAL_TTL.plus(Duration.ofMillis(250)).toMillis());
+        assertThat(nodeA.read()).isEqualTo(after);
+    }
+
+    @Test
+    void otherNodeTakesReloadedValueFromRedis() throws Exception {
+        UserResponse before = SampleResponses.user();
+        UserResponse after = SampleResponses.user();
+        database.set(before);
+        assertThat(nodeB.read()).isEqualTo(before);
+
+        // The writing node reloads into Redis; with the database gone, node B can only get it from there
+        database.set(after);
+        nodeA.cache.evict(key);
+        assertThat(nodeA.read()).isEqualTo(after);
+        database.set(null);
+
+        staleMillis(nodeB, after);
+    }
+
+    @Test
+    void loadInFlightDuringEvictionOnOtherNodeIsNotWrittenToRedis() throws Exception {
+        UserResponse before = SampleResponses.user();
+        UserResponse after = SampleResponses.user();
+        database.set(before);
+
+        // Node B reads the old row, then stalls; its invalidation message arrives only later
+        nodeB.listenerContainer.stop();
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<UserResponse> load;
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            load = executor.submit(() -> nodeB.cache.get(key, () -> {
+                UserResponse row = database.get();
+                loaded.countDown();
+                release.await();
+                return row;
+            }));
+            assertThat(loaded.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // Node A commits the change and evicts while B's load is still running
+            database.set(after);
+            nodeA.cache.evict(key);
+            release.countDown();
+            assertThat(load.get(5, TimeUnit.SECONDS)).isEqualTo(before);
+        }
+
+        // B's outdated value must not have reached Redis, where every node would pick it up
+        assertThat(nodeA.read()).isEqualTo(after);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    /**
+     * Polls the node until it returns the expected value.
+     *
+     * @return milliseconds until it did
+     */
+    private long staleMillis(Node node, UserResponse expected) throws InterruptedException {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + LOCAL_TTL.plus(MESSAGE_DELIVERY).toNanos();
+        while (!expected.equals(node.read())) {
+            assertThat(System.nanoTime()).as("node still stale").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+        return Duration.ofNanos(System.nanoTime() - startedAt).toMillis();
+    }
+
+    /**
+     * One application node: its own cache manager, local level and subscription.
+     */
+    private final class Node {
+
+        private final RedisMessageListenerContainer listenerContainer;
+        private final Cache cache;
+
+        Node() throws Exception {
+            listenerContainer = new RedisMessageListenerContainer();
+            listenerContainer.setConnectionFactory(connectionFactory);
+            listenerContainer.afterPropertiesSet();
+
+            // Subscribed before the container starts, so start() waits for the subscription
+            TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(redisTemplate, stringRedisTemplate, listenerContainer,
+                    new SimpleMeterRegistry(), List.of(CACHE), 100, LOCAL_TTL, 0, Duration.ofMinutes(5));
+            cacheManager.afterPropertiesSet();
+            listenerContainer.start();
+
+            cache = cacheManager.getCache(CACHE);
+        }
+
+        UserResponse read() {
+            return cache.get(key, database::get);
+        }
+
+        void stop() throws Exception {
+            listenerContainer.destroy();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.javaspring.cache;
+
+import com.example.javaspring.config.RedisConfig;
+import com.example.javaspring.dto.response.UserResponse;
+import com.example.javaspring.support.SampleResponses;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load lock and early recompute of {@link TwoLevelCache} against a real Redis.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class TwoLevelCacheTest {
+
+    private static final int THREADS = 16;
+    private static final Duration LOAD_TIME = Duration.ofMillis(200);
+
+    // Makes the exponential head start far exceed any remaining TTL, so every read recomputes
+    private static final double ALWAYS_EARLY = 1e6;
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisTemplate<String, Object> redisTemplate;
+
+    private final String name = "test-" + UUID.randomUUID();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new RedisConfig().redisValueSerializer(1024));
+        redisTemplate.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void concurrentMissesOnTwoNodesLoadOnce() throws Exception {
+        TwoLevelCache nodeA = cache(0);
+        TwoLevelCache nodeB = cache(0);
+        UserResponse user = SampleResponses.user();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<UserResponse>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                TwoLevelCache node = i % 2 == 0 ? nodeA : nodeB;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return node.get("key", slowLoader(user));
+                }));
+            }
+            start.countDown();
+            for (Future<UserResponse> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(user);
+            }
+        }
+
+        // Caffeine coalesces each node's callers, the Redis lock the two nodes
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void remoteEntryIsServedWithoutEarlyRecompute() throws Exception {
+        TwoLevelCache nodeA = cache(0);
+        TwoLevelCache nodeB = cache(0);
+        UserResponse user = SampleResponses.user();
+
+        assertThat(nodeA.get("key", slowLoader(user))).isEqualTo(user);
+        assertThat(nodeB.get("key", slowLoader(SampleResponses.user()))).isEqualTo(user);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void remoteEntryNearExpiryIsRecomputed() throws Exception {
+        TwoLevelCache nodeA = cache(ALWAYS_EARLY);
+        TwoLevelCache nodeB = cache(ALWAYS_EARLY);
+        UserResponse stale = SampleResponses.user();
+        UserResponse fresh = SampleResponses.user();
+
+        assertThat(nodeA.get("key", slowLoader(stale))).isEqualTo(stale);
+        assertThat(nodeB.get("key", slowLoader(fresh))).isEqualTo(fresh);
+        assertThat(loads).hasValue(2);
+
+        // The recomputed value replaced the Redis entry for everyone
+        nodeA.evictLocal("key");
+        assertThat(nodeA.get("key", () -> fresh)).isEqualTo(fresh);
+    }
+
+    @Test
+    void remoteEntryIsKeptWhenEarlyRecomputeFails() throws Exception {
+        TwoLevelCache nodeA = cache(ALWAYS_EARLY);
+        TwoLevelCache nodeB = cache(ALWAYS_EARLY);
+        UserResponse user = SampleResponses.user();
+
+        assertThat(nodeA.get("key", slowLoader(user))).isEqualTo(user);
+        Callable<UserResponse> failing = () -> {
+            throw new IllegalStateException("database unavailable");
+        };
+        assertThat(nodeB.get("key", failing)).isEqualTo(user);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private TwoLevelCache cache(double earlyRefreshBeta) {
+        return new TwoLevelCache(name, 100, Duration.ofMinutes(1), earlyRefreshBeta, redisTemplate,
+                Duration.ofMinutes(10), key -> { }, new SimpleMeterRegistry());
+    }
+
+    private Callable<UserResponse> slowLoader(UserResponse value) {
+        return () -> {
+            loads.incrementAndGet();
+            Thread.sleep(LOAD_TIME.toMillis());
+            return value;
+        };
+    }
+}
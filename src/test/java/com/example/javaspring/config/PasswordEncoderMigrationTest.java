@@ -0,0 +1,57 @@
+package com.example.javaspring.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hashes written before the delegating encoder, or with another algorithm or a lower cost,
+ * still match and are reported for rehashing on the next login.
+ */
+class PasswordEncoderMigrationTest {
+
+    private final SecurityConfig securityConfig = new SecurityConfig();
+
+    @Test
+    void migratesUnprefixedLegacyHashes() {
+        PasswordEncoder encoder = encoder("bcrypt", 5);
+        String legacy = BCrypt.hashpw("secret", BCrypt.gensalt(5));
+
+        assertThat(encoder.matches("secret", legacy)).isTrue();
+        assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+
+        String rehashed = encoder.encode("secret");
+        assertThat(rehashed).startsWith("{bcrypt}$2a$05$");
+        assertThat(encoder.matches("secret", rehashed)).isTrue();
+        assertThat(encoder.upgradeEncoding(rehashed)).isFalse();
+    }
+
+    @Test
+    void raisesTheCostOfWeakerHashesOnly() {
+        PasswordEncoder encoder = encoder("bcrypt", 5);
+
+        assertThat(encoder.upgradeEncoding("{bcrypt}" + BCrypt.hashpw("secret", BCrypt.gensalt(4)))).isTrue();
+        assertThat(encoder.upgradeEncoding("{bcrypt}" + BCrypt.hashpw("secret", BCrypt.gensalt(6)))).isFalse();
+    }
+
+    @Test
+    void migratesBcryptHashesWhenSwitchingToArgon2() {
+        PasswordEncoder bcrypt = encoder("bcrypt", 5);
+        PasswordEncoder argon2 = encoder("argon2", 5);
+        String stored = bcrypt.encode("secret");
+
+        assertThat(argon2.matches("secret", stored)).isTrue();
+        assertThat(argon2.upgradeEncoding(stored)).isTrue();
+
+        String rehashed = argon2.encode("secret");
+        assertThat(rehashed).startsWith("{argon2}");
+        assertThat(argon2.matches("secret", rehashed)).isTrue();
+        assertThat(argon2.upgradeEncoding(rehashed)).isFalse();
+    }
+
+    private PasswordEncoder encoder(String algorithm, int bcryptStrength) {
+        return securityConfig.passwordEncoder(algorithm, 100, bcryptStrength, 4, 16);
+    }
+}
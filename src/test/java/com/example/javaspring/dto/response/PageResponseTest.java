@@ -0,0 +1,123 @@
+package com.example.javaspring.dto.response;
+
+import com.example.javaspring.enums.TotalMode;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageResponseTest {
+
+    private static final List<String> CONTENT = List.of("a", "b", "c", "d", "e");
+    private static final LongSupplier NO_ESTIMATE = () -> {
+        throw new AssertionError("estimate must not be requested");
+    };
+
+    @Test
+    void exactReportsTheCountedTotal() {
+        PageImpl<String> page = new PageImpl<>(CONTENT, PageRequest.of(1, 5), 23);
+
+        PageResponse<String> response = PageResponse.of(page, CONTENT, TotalMode.EXACT, NO_ESTIMATE);
+
+        assertThat(response.getTotalElements()).isEqualTo(23);
+        assertThat(response.getTotalPages()).isEqualTo(5);
+        assertThat(response.getTotalMode()).isEqualTo(TotalMode.EXACT);
+        assertThat(response.isHasNext()).isTrue();
+        assertThat(response.isHasPrevious()).isTrue();
+    }
+
+    @Test
+    void exactWithoutACountedPageFallsBackToNone() {
+        SliceImpl<String> slice = new SliceImpl<>(CONTENT, PageRequest.of(0, 5), true);
+
+        PageResponse<String> response = PageResponse.of(slice, CONTENT, TotalMode.EXACT, NO_ESTIMATE);
+
+        assertThat(response.getTotalElements()).isNull();
+        assertThat(response.getTotalMode()).isEqualTo(TotalMode.NONE);
+    }
+
+    @Test
+    void noneOmitsTheTotal() {
+        SliceImpl<String> slice = new SliceImpl<>(CONTENT, PageRequest.of(2, 5), true);
+
+        PageResponse<String> response = PageResponse.of(slice, CONTENT, TotalMode.NONE, NO_ESTIMATE);
+
+        assertThat(response.getTotalElements()).isNull();
+        assertThat(response.getTotalPages()).isNull();
+        assertThat(response.getTotalMode()).isEqualTo(TotalMode.NONE);
+        assertThat(response.getPage()).isEqualTo(2);
+        assertThat(response.isHasNext()).isTrue();
+        assertThat(response.isLast()).isFalse();
+    }
+
+    @Test
+    void estimateUsesTheEstimateWhileMoreRowsFollow() {
+        SliceImpl<String> slice = new SliceImpl<>(CONTENT, PageRequest.of(0, 5), true);
+
+        PageResponse<String> response = PageResponse.of(slice, CONTENT, TotalMode.ESTIMATE, () -> 1_000);
+
+        assertThat(response.getTotalElements()).isEqualTo(1_000);
+        assertThat(response.getTotalPages()).isEqualTo(200);
+        assertThat(response.getTotalMode()).isEqualTo(TotalMode.ESTIMATE);
+    }
+
+    @Test
+    void estimateNeverFallsBelowTheRowsSeen() {
+        SliceImpl<String> slice = new SliceImpl<>(CONTENT, PageRequest.of(3, 5), true);
+
+        // Stale statistics claim fewer rows than the 20 already paged through
+        PageResponse<String> response = PageResponse.of(slice, CONTENT, TotalMode.ESTIMATE, () -> 10);
+
+        assertThat(response.getTotalElements()).isEqualTo(21);
+    }
+
+    @Test
+    void estimateIsExactOnTheLastPage() {
+        List<String> lastPage = List.of("u", "v");
+        SliceImpl<String> slice = new SliceImpl<>(lastPage, PageRequest.of(4, 5), false);
+        AtomicInteger estimates = new AtomicInteger();
+
+        PageResponse<String> response = PageResponse.of(slice, lastPage, TotalMode.ESTIMATE,
+                () -> estimates.incrementAndGet() * 1_000L);
+
+        assertThat(response.getTotalElements()).isEqualTo(22);
+        assertThat(response.getTotalPages()).isEqualTo(5);
+        assertThat(response.isLast()).isTrue();
+        assertThat(estimates).hasValue(0);
+    }
+
+    @Test
+    void estimateIsNotPinnedByAPagePastTheEnd() {
+        // ?page=100&size=20 on a table of 10 rows
+        SliceImpl<String> slice = new SliceImpl<>(List.of(), PageRequest.of(100, 20), false);
+
+        PageResponse<String> response = PageResponse.of(slice, List.of(), TotalMode.ESTIMATE, () -> 10);
+
+        assertThat(response.getTotalElements()).isEqualTo(10);
+        assertThat(response.getTotalPages()).isEqualTo(1);
+        assertThat(response.getTotalMode()).isEqualTo(TotalMode.ESTIMATE);
+    }
+
+    @Test
+    void estimateIsExactForAnEmptyFirstPage() {
+        SliceImpl<String> slice = new SliceImpl<>(List.of(), PageRequest.of(0, 20), false);
+
+        PageResponse<String> response = PageResponse.of(slice, List.of(), TotalMode.ESTIMATE, NO_ESTIMATE);
+
+        assertThat(response.getTotalElements()).isZero();
+    }
+
+    @Test
+    void parsesTheTotalModeParameter() {
+        assertThat(TotalMode.fromParameter(" Estimate ")).isEqualTo(TotalMode.ESTIMATE);
+        assertThatThrownBy(() -> TotalMode.fromParameter("approximate"))
+                .hasMessageContaining("withTotal");
+    }
+}
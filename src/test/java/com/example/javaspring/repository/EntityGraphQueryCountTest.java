@@ -0,0 +1,198 @@
+package com.example.javaspring.repository;
+
+import com.example.javaspring.cache.CollectionVersions;
+import com.example.javaspring.cache.HotKeyTracker;
+import com.example.javaspring.cache.ProjectListCache;
+import com.example.javaspring.cache.RequestCoalescer;
+import com.example.javaspring.config.DataConfig;
+import com.example.javaspring.dto.response.PageResponse;
+import com.example.javaspring.dto.response.TaskResponse;
+import com.example.javaspring.entity.Project;
+import com.example.javaspring.entity.Task;
+import com.example.javaspring.entity.User;
+import com.example.javaspring.enums.TotalMode;
+import com.example.javaspring.mapper.CommentMapperImpl;
+import com.example.javaspring.mapper.ProjectMapperImpl;
+import com.example.javaspring.mapper.TaskMapperImpl;
+import com.example.javaspring.mapper.UserMapperImpl;
+import com.example.javaspring.service.TaskService;
+import com.example.javaspring.service.impl.EntityCounters;
+import com.example.javaspring.service.impl.KeysetPaginator;
+import com.example.javaspring.service.impl.TaskServiceImpl;
+import com.example.javaspring.support.TestEntities;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Statement counts for building task responses through {@link TaskService}, each measured on a
+ * small and a large project: with the graphs and batch fetching the count does not grow with the
+ * number of tasks or comments. Without them a page of tasks costs several selects per task.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({DataConfig.class, TaskServiceImpl.class,
+        TaskMapperImpl.class, ProjectMapperImpl.class, UserMapperImpl.class, CommentMapperImpl.class})
+class EntityGraphQueryCountTest {
+
+    private static final int PAGE_SIZE = 20;
+
+    // Both sizes fill a page; the unpaged list stays within one batch of comments
+    private static final int SMALL = 25;
+    private static final int LARGE = 50;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TaskService taskService;
+
+    @MockitoBean
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private RequestCoalescer requestCoalescer;
+
+    @MockitoBean
+    private CollectionVersions collectionVersions;
+
+    @MockitoBean
+    private ProjectListCache projectListCache;
+
+    @MockitoBean
+    private HotKeyTracker hotKeyTracker;
+
+    @MockitoBean
+    private KeysetPaginator keysetPaginator;
+
+    @MockitoBean
+    private RowCountEstimator rowCountEstimator;
+
+    @MockitoBean
+    private EntityCounters entityCounters;
+
+    private Statistics statistics;
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Every read goes to the database
+        when(projectListCache.get(any(), anyString(), any(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(3).get());
+
+        users = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            User user = TestEntities.user("user" + i);
+            entityManager.persist(user);
+            users.add(user);
+        }
+    }
+
+    @Test
+    void loadsAPageOfTasksInAConstantNumberOfStatements() {
+        Project small = persistProject(SMALL, 3);
+        Project large = persistProject(LARGE, 3);
+
+        long smallStatements = statements(() -> page(small));
+        long largeStatements = statements(() -> page(large));
+
+        // Page with its to-one associations, count, the users' eager roles and the comments in one
+        // batch each; comment authors are among the users already loaded
+        assertThat(largeStatements).isEqualTo(smallStatements);
+        assertThat(largeStatements).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void loadsAllTasksOfAProjectInAConstantNumberOfStatements() {
+        Project small = persistProject(SMALL, 3);
+        Project large = persistProject(LARGE, 3);
+
+        long smallStatements = statements(() -> assertThat(taskService.getTasksByProject(small.getId())).hasSize(SMALL));
+        long largeStatements = statements(() -> assertThat(taskService.getTasksByProject(large.getId())).hasSize(LARGE));
+
+        // Tasks with their to-one associations, the users' eager roles and the comments
+        assertThat(largeStatements).isEqualTo(smallStatements);
+        assertThat(largeStatements).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void loadsOneTaskWithCommentsInAConstantNumberOfStatements() {
+        UUID few = firstTask(persistProject(1, 3));
+        UUID many = firstTask(persistProject(1, 30));
+
+        long fewStatements = statements(() -> assertThat(taskService.getTaskById(few).getComments()).hasSize(3));
+        long manyStatements = statements(() -> assertThat(taskService.getTaskById(many).getComments()).hasSize(30));
+
+        // The detail graph, then the users' eager roles in one batch
+        assertThat(manyStatements).isEqualTo(fewStatements);
+        assertThat(manyStatements).isLessThanOrEqualTo(2);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void page(Project project) {
+        PageResponse<TaskResponse> page = taskService.getTasksByProject(project.getId(),
+                PageRequest.of(0, PAGE_SIZE, Sort.by("createdAt")), TotalMode.EXACT);
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+    }
+
+    private Project persistProject(int tasks, int commentsPerTask) {
+        Project project = TestEntities.project(users.get(0), Set.copyOf(users));
+        entityManager.persist(project);
+
+        for (int i = 0; i < tasks; i++) {
+            Task task = TestEntities.task(project, users.get(i % 3), users.get(3 + i % 3), i);
+            entityManager.persist(task);
+            for (int j = 0; j < commentsPerTask; j++) {
+                entityManager.persist(TestEntities.comment(task, users.get((i + j) % users.size()), j));
+            }
+        }
+        entityManager.flush();
+        return project;
+    }
+
+    private UUID firstTask(Project project) {
+        return entityManager.createQuery("SELECT t.id FROM Task t WHERE t.project = :project", UUID.class)
+                .setParameter("project", project)
+                .getSingleResult();
+    }
+
+    /**
+     * Statements the call prepares, reading from the database rather than from the persistence
+     * context or the second-level cache.
+     */
+    private long statements(Runnable call) {
+        entityManager.flush();
+        entityManager.clear();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
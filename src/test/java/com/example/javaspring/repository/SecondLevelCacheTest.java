@@ -0,0 +1,112 @@
+package com.example.javaspring.repository;
+
+import com.example.javaspring.cache.EntityCacheRegions;
+import com.example.javaspring.config.DataConfig;
+import com.example.javaspring.entity.Project;
+import com.example.javaspring.entity.User;
+import com.example.javaspring.support.TestEntities;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Repeated reads in separate transactions, as separate requests would do them, are served from
+ * the second-level cache without any SQL.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(DataConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private User member;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        inTransaction(() -> {
+            User owner = TestEntities.user("owner");
+            member = TestEntities.user("member");
+            entityManager.persist(owner);
+            entityManager.persist(member);
+            project = TestEntities.project(owner, Set.of(owner, member));
+            entityManager.persist(project);
+            return null;
+        });
+
+        // Start every test from a cold cache
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @Test
+    void servesRepeatedUserReadsFromTheCache() {
+        inTransaction(() -> userRepository.findById(member.getId()).orElseThrow().getRoles().size());
+        long statements = statistics.getPrepareStatementCount();
+
+        int roles = inTransaction(() -> userRepository.findById(member.getId()).orElseThrow().getRoles().size());
+
+        assertThat(roles).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getDomainDataRegionStatistics(EntityCacheRegions.USERS).getHitCount()).isPositive();
+        assertThat(statistics.getDomainDataRegionStatistics(EntityCacheRegions.USER_ROLES).getHitCount()).isPositive();
+    }
+
+    @Test
+    void resolvesUsernamesThroughTheNaturalIdCache() {
+        inTransaction(() -> userRepository.findByUsername(member.getUsername()).orElseThrow());
+        long statements = statistics.getPrepareStatementCount();
+
+        User found = inTransaction(() -> userRepository.findByUsername(member.getUsername()).orElseThrow());
+
+        assertThat(found.getId()).isEqualTo(member.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getNaturalIdCacheHitCount()).isPositive();
+    }
+
+    @Test
+    void servesProjectMembersFromTheCollectionCache() {
+        inTransaction(() -> entityManager.find(Project.class, project.getId()).getMembers().size());
+        long statements = statistics.getPrepareStatementCount();
+
+        int members = inTransaction(() -> entityManager.find(Project.class, project.getId()).getMembers().size());
+
+        assertThat(members).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getDomainDataRegionStatistics(EntityCacheRegions.PROJECT_MEMBERS).getHitCount())
+                .isPositive();
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.javaspring.repository;
+
+import com.example.javaspring.cache.CollectionVersions;
+import com.example.javaspring.cache.HotKeyTracker;
+import com.example.javaspring.cache.ProjectListCache;
+import com.example.javaspring.cache.RequestCoalescer;
+import com.example.javaspring.cache.SummaryCache;
+import com.example.javaspring.config.DataConfig;
+import com.example.javaspring.dto.response.ProjectSummaryResponse;
+import com.example.javaspring.dto.response.TaskSummaryResponse;
+import com.example.javaspring.entity.Project;
+import com.example.javaspring.entity.Task;
+import com.example.javaspring.entity.User;
+import com.example.javaspring.mapper.CommentMapperImpl;
+import com.example.javaspring.mapper.ProjectMapperImpl;
+import com.example.javaspring.mapper.TaskMapperImpl;
+import com.example.javaspring.mapper.UserMapperImpl;
+import com.example.javaspring.service.ProjectService;
+import com.example.javaspring.service.TaskService;
+import com.example.javaspring.service.impl.EntityCounters;
+import com.example.javaspring.service.impl.KeysetPaginator;
+import com.example.javaspring.service.impl.ProjectServiceImpl;
+import com.example.javaspring.service.impl.TaskServiceImpl;
+import com.example.javaspring.support.TestEntities;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Statement counts for the task and project summaries, which are projections reading the
+ * denormalized counters: one statement per list, however many tasks and comments there are.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({DataConfig.class, TaskServiceImpl.class, ProjectServiceImpl.class,
+        TaskMapperImpl.class, ProjectMapperImpl.class, UserMapperImpl.class, CommentMapperImpl.class})
+class SummaryProjectionQueryCountTest {
+
+    private static final int COMMENTS_PER_TASK = 2;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @MockitoBean
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private RequestCoalescer requestCoalescer;
+
+    @MockitoBean
+    private CollectionVersions collectionVersions;
+
+    @MockitoBean
+    private ProjectListCache projectListCache;
+
+    @MockitoBean
+    private SummaryCache summaryCache;
+
+    @MockitoBean
+    private HotKeyTracker hotKeyTracker;
+
+    @MockitoBean
+    private KeysetPaginator keysetPaginator;
+
+    @MockitoBean
+    private RowCountEstimator rowCountEstimator;
+
+    @MockitoBean
+    private EntityCounters entityCounters;
+
+    private Statistics statistics;
+    private User owner;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Every read goes to the database
+        when(summaryCache.project(any(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(1).get());
+        when(projectListCache.get(any(), anyString(), any(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(3).get());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 50})
+    void recentTasksByProjectTakeOneStatement(int tasks) {
+        persist(tasks);
+
+        List<TaskSummaryResponse> summaries = taskService.getRecentTasksByProject(project.getId());
+
+        assertThat(summaries).hasSize(tasks)
+                .allSatisfy(summary -> {
+                    assertThat(summary.getCommentsCount()).isEqualTo(COMMENTS_PER_TASK);
+                    assertThat(summary.getAssignee().getUsername()).isNotNull();
+                });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 50})
+    void projectSummariesTakeOneStatementEach(int tasks) {
+        persist(tasks);
+
+        ProjectSummaryResponse summary = projectService.getProjectSummary(project.getId());
+        assertThat(summary.getTasksCount()).isEqualTo(tasks);
+        assertThat(summary.getOwner().getId()).isEqualTo(owner.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        assertThat(projectService.getRecentProjectsByOwner(owner.getId()))
+                .singleElement()
+                .satisfies(recent -> assertThat(recent.getTasksCount()).isEqualTo(tasks));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        assertThat(projectService.getActiveProjectsByMember(owner.getId()))
+                .singleElement()
+                .satisfies(active -> assertThat(active.getTasksCount()).isEqualTo(tasks));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void persist(int tasks) {
+        owner = TestEntities.user("owner");
+        User member = TestEntities.user("member");
+        entityManager.persist(owner);
+        entityManager.persist(member);
+        // Counters as EntityCounters keeps them
+        project = TestEntities.project(owner, Set.of(owner, member));
+        project.setTasksCount(tasks);
+        entityManager.persist(project);
+
+        for (int i = 0; i < tasks; i++) {
+            Task task = TestEntities.task(project, owner, i % 2 == 0 ? owner : member, i);
+            task.setCommentsCount(COMMENTS_PER_TASK);
+            entityManager.persist(task);
+            for (int j = 0; j < COMMENTS_PER_TASK; j++) {
+                entityManager.persist(TestEntities.comment(task, member, j));
+            }
+        }
+
+        // Read back from the database, not from the persistence context or the second-level cache
+        entityManager.flush();
+        entityManager.clear();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.javaspring.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CalibratedBCryptPasswordEncoderTest {
+
+    @Test
+    void calibratesWithinTheConfiguredBounds() {
+        // Strength 4 takes about a millisecond, so a huge target is capped and a tiny one floored
+        assertThat(CalibratedBCryptPasswordEncoder.calibrated(1, 4, 6).getStrength()).isEqualTo(4);
+        assertThat(CalibratedBCryptPasswordEncoder.calibrated(60_000, 4, 6).getStrength()).isEqualTo(6);
+    }
+
+    @Test
+    void upgradesOnlyHashesBelowTheCurrentStrength() {
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        assertThat(encoder.upgradeEncoding(BCrypt.hashpw("secret", BCrypt.gensalt(4)))).isTrue();
+        assertThat(encoder.upgradeEncoding(BCrypt.hashpw("secret", BCrypt.gensalt(5)))).isFalse();
+        // A node calibrated higher wrote this one; rehashing it down would ping-pong between nodes
+        assertThat(encoder.upgradeEncoding(BCrypt.hashpw("secret", BCrypt.gensalt(6)))).isFalse();
+    }
+
+    @Test
+    void ignoresEmptyAndForeignHashes() {
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+        assertThat(encoder.upgradeEncoding("")).isFalse();
+        assertThat(encoder.upgradeEncoding("$argon2id$v=19$m=16384,t=2,p=1$c2FsdA$aGFzaA")).isFalse();
+    }
+
+    @Test
+    void matchesHashesOfAnyCost() {
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        assertThat(encoder.matches("secret", BCrypt.hashpw("secret", BCrypt.gensalt(4)))).isTrue();
+        assertThat(encoder.matches("secret", encoder.encode("secret"))).isTrue();
+        assertThat(encoder.encode("secret")).startsWith("$2a$05$");
+    }
+}
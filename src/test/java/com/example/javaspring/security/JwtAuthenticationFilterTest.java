@@ -0,0 +1,92 @@
+package com.example.javaspring.security;
+
+import com.example.javaspring.entity.User;
+import com.example.javaspring.enums.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The filter's only collaborator is the token verifier, so a request is authenticated from the
+ * token claims without any repository in reach.
+ */
+class JwtAuthenticationFilterTest {
+
+    private final JwtTokenProvider tokenProvider =
+            new JwtTokenProvider("filter-test-secret-key-long-enough-for-hs256", "v1", "", "v1", 60_000, 120_000);
+    private final TokenRevocationService revocationService = mock(TokenRevocationService.class);
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(
+            new TokenVerifier(tokenProvider, revocationService, new SimpleMeterRegistry(), 100));
+
+    private final User user = User.builder()
+            .id(UUID.randomUUID())
+            .username("alice")
+            .email("alice@example.com")
+            .roles(Set.of(Role.USER, Role.ADMIN))
+            .build();
+
+    @BeforeEach
+    void notRevoked() {
+        when(revocationService.isRevoked(any())).thenReturn(false);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void buildsThePrincipalFromTheAccessTokenClaims() throws Exception {
+        Authentication authentication = filter(tokenProvider.generateAccessToken(user, "family", 0));
+
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getPrincipal()).isEqualTo(
+                new AuthenticatedUser(user.getId(), "alice", "alice@example.com", Set.of(Role.USER, Role.ADMIN)));
+        assertThat(authentication.getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+    }
+
+    @Test
+    void ignoresRefreshTokens() throws Exception {
+        assertThat(filter(tokenProvider.generateRefreshToken(user, UUID.randomUUID().toString(), "family"))).isNull();
+    }
+
+    @Test
+    void ignoresRevokedAndInvalidTokens() throws Exception {
+        String token = tokenProvider.generateAccessToken(user, "family", 0);
+        when(revocationService.isRevoked(any())).thenReturn(true);
+
+        assertThat(filter(token)).isNull();
+        assertThat(filter("not-a-jwt")).isNull();
+    }
+
+    private Authentication filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/1");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
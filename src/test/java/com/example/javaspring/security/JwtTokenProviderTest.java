@@ -0,0 +1,80 @@
+package com.example.javaspring.security;
+
+import com.example.javaspring.entity.User;
+import com.example.javaspring.enums.Role;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtTokenProviderTest {
+
+    private static final String OLD_SECRET = "old-secret-key-that-is-long-enough-for-hs256";
+    private static final String NEW_SECRET = "new-secret-key-that-is-long-enough-for-hs256";
+
+    private final User user = User.builder()
+            .id(UUID.randomUUID())
+            .username("alice")
+            .email("alice@example.com")
+            .roles(Set.of(Role.USER))
+            .build();
+
+    @Test
+    void verifiesTokensSignedWithRetiredKeyAfterRotation() {
+        JwtTokenProvider before = provider(OLD_SECRET, "v1", "", "v1");
+        JwtTokenProvider after = provider(NEW_SECRET, "v2", "v1=" + OLD_SECRET, "v1");
+
+        String oldToken = before.generateAccessToken(user, "family", 0);
+        String newToken = after.generateAccessToken(user, "family", 0);
+
+        assertThat(after.parseClaims(oldToken).getSubject()).isEqualTo("alice");
+        assertThat(after.parseClaims(newToken).get("userId", String.class)).isEqualTo(user.getId().toString());
+    }
+
+    @Test
+    void rejectsRetiredKeyShadowingActiveKey() {
+        assertThatThrownBy(() -> provider(NEW_SECRET, "v2", "v2=" + OLD_SECRET, "v2"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("active key id");
+    }
+
+    @Test
+    void rejectsDuplicateRetiredKeyIds() {
+        assertThatThrownBy(() -> provider(NEW_SECRET, "v3", "v1=" + OLD_SECRET + ",v1=" + NEW_SECRET, "v3"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("twice");
+    }
+
+    @Test
+    void rejectsUnknownLegacyKeyId() {
+        assertThatThrownBy(() -> provider(NEW_SECRET, "v2", "", "v1"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void verifiesTokensWithoutKeyIdWithLegacyKeyOnlyWhileEnabled() {
+        String legacyToken = Jwts.builder()
+                .setSubject("alice")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(OLD_SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        JwtTokenProvider accepting = provider(NEW_SECRET, "v2", "v1=" + OLD_SECRET, "v1");
+        JwtTokenProvider rejecting = provider(NEW_SECRET, "v2", "v1=" + OLD_SECRET, "");
+
+        assertThat(accepting.parseClaims(legacyToken).getSubject()).isEqualTo("alice");
+        assertThatThrownBy(() -> rejecting.parseClaims(legacyToken)).isInstanceOf(UnsupportedJwtException.class);
+    }
+
+    private static JwtTokenProvider provider(String secret, String keyId, String retiredKeys, String legacyKeyId) {
+        return new JwtTokenProvider(secret, keyId, retiredKeys, legacyKeyId, 60_000, 120_000);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.javaspring.security;
+
+import com.example.javaspring.enums.TokenType;
+import com.example.javaspring.security.RefreshTokenFamilyService.Rotation;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs the refresh-token family scripts against a real Redis.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RefreshTokenFamilyServiceTest {
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private final TokenRevocationService revocationService = mock(TokenRevocationService.class);
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void rotatesTheLatestTokenOfAFamily() {
+        RefreshTokenFamilyService families = families();
+        String familyId = families.startFamily(userId, "t1");
+
+        assertThat(families.rotate(refreshToken(familyId, "t1"), "t2")).isEqualTo(Rotation.ROTATED);
+        assertThat(families.rotate(refreshToken(familyId, "t2"), "t3")).isEqualTo(Rotation.ROTATED);
+        verify(revocationService, never()).revokeFamily(familyId);
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheFamily() {
+        RefreshTokenFamilyService families = families();
+        String familyId = families.startFamily(userId, "t1");
+        families.rotate(refreshToken(familyId, "t1"), "t2");
+
+        // A client retrying with the token it presented before gets the whole session revoked
+        assertThat(families.rotate(refreshToken(familyId, "t1"), "t3")).isEqualTo(Rotation.REUSE_DETECTED);
+        verify(revocationService).revokeFamily(familyId);
+
+        // The legitimate holder is logged out as well
+        assertThat(families.rotate(refreshToken(familyId, "t2"), "t4")).isEqualTo(Rotation.UNKNOWN_FAMILY);
+    }
+
+    @Test
+    void familiesOfTheSameUserAreIndependent() {
+        RefreshTokenFamilyService families = families();
+        String laptop = families.startFamily(userId, "laptop-1");
+        String phone = families.startFamily(userId, "phone-1");
+
+        families.revokeFamily(userId, laptop);
+
+        assertThat(families.rotate(refreshToken(laptop, "laptop-1"), "laptop-2")).isEqualTo(Rotation.UNKNOWN_FAMILY);
+        assertThat(families.rotate(refreshToken(phone, "phone-1"), "phone-2")).isEqualTo(Rotation.ROTATED);
+    }
+
+    @Test
+    void revokingAllFamiliesEndsEverySession() {
+        RefreshTokenFamilyService families = families();
+        String laptop = families.startFamily(userId, "laptop-1");
+        String phone = families.startFamily(userId, "phone-1");
+
+        families.revokeAllFamilies(userId);
+
+        assertThat(families.rotate(refreshToken(laptop, "laptop-1"), "laptop-2")).isEqualTo(Rotation.UNKNOWN_FAMILY);
+        assertThat(families.rotate(refreshToken(phone, "phone-1"), "phone-2")).isEqualTo(Rotation.UNKNOWN_FAMILY);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private RefreshTokenFamilyService families() {
+        return new RefreshTokenFamilyService(redisTemplate, revocationService, 60_000);
+    }
+
+    private VerifiedToken refreshToken(String familyId, String tokenId) {
+        Instant now = Instant.now();
+        return new VerifiedToken("hash-" + tokenId, tokenId, "alice", userId, null, null, TokenType.REFRESH,
+                familyId, 0, now, now.plusSeconds(60));
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.javaspring.service.impl;
+
+import com.example.javaspring.cache.HotKeyTracker;
+import com.example.javaspring.dto.request.LoginRequest;
+import com.example.javaspring.dto.request.RefreshTokenRequest;
+import com.example.javaspring.dto.response.AuthResponse;
+import com.example.javaspring.entity.User;
+import com.example.javaspring.enums.Role;
+import com.example.javaspring.exception.ServiceUnavailableException;
+import com.example.javaspring.exception.TokenException;
+import com.example.javaspring.mapper.AuthMapper;
+import com.example.javaspring.repository.UserRepository;
+import com.example.javaspring.security.AccountLockCache;
+import com.example.javaspring.security.JwtTokenProvider;
+import com.example.javaspring.security.PasswordHashingService;
+import com.example.javaspring.security.RateLimiter;
+import com.example.javaspring.security.RefreshTokenFamilyService;
+import com.example.javaspring.security.RefreshTokenFamilyService.Rotation;
+import com.example.javaspring.security.TokenRevocationService;
+import com.example.javaspring.security.TokenVerifier;
+import com.example.javaspring.security.VerifiedToken;
+import com.example.javaspring.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Refresh-token rotation as seen by a client: retries after a failed refresh must not be taken
+ * for token reuse. Login: no transaction may be open while a password is hashed.
+ */
+class AuthServiceImplTest {
+
+    private static final String FAMILY_ID = "family";
+
+    private final JwtTokenProvider tokenProvider =
+            new JwtTokenProvider("auth-test-secret-key-long-enough-for-hs256", "v1", "", "v1", 60_000, 120_000);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TokenRevocationService revocationService = mock(TokenRevocationService.class);
+    private final RefreshTokenFamilyService refreshTokenFamilies = mock(RefreshTokenFamilyService.class);
+    private final AuthMapper authMapper = mock(AuthMapper.class);
+    private final PasswordHashingService passwordHashingService = mock(PasswordHashingService.class);
+    private final RateLimiter rateLimiter = mock(RateLimiter.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private final AuthServiceImpl authService = new AuthServiceImpl(
+            userRepository,
+            mock(UserService.class),
+            authMapper,
+            passwordHashingService,
+            mock(StringRedisTemplate.class),
+            tokenProvider,
+            new TokenVerifier(tokenProvider, revocationService, new SimpleMeterRegistry(), 100),
+            revocationService,
+            mock(AccountLockCache.class),
+            rateLimiter,
+            refreshTokenFamilies,
+            mock(CacheManager.class),
+            mock(HotKeyTracker.class),
+            transactionManager);
+
+    private final User user = User.builder()
+            .id(UUID.randomUUID())
+            .username("alice")
+            .email("alice@example.com")
+            .roles(Set.of(Role.USER))
+            .enabled(true)
+            .password("old-hash")
+            .version(3L)
+            .build();
+
+    // The only refresh token of the family that can still be exchanged, as in refresh_family_rotate.lua
+    private String currentTokenId = "t1";
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findCurrentByUsername("alice")).thenReturn(Optional.of(user));
+        when(userRepository.findVersionById(user.getId())).thenReturn(Optional.of(3L));
+        when(revocationService.currentEpoch(user.getId())).thenReturn(0L);
+        when(rateLimiter.tryAcquire(any(), anyString())).thenReturn(new RateLimiter.Decision(true, 0));
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("secret", "old-hash")).thenReturn(true);
+        when(authMapper.toAuthResponse(anyString(), anyString(), anyLong(), any())).thenAnswer(invocation ->
+                AuthResponse.builder()
+                        .accessToken(invocation.getArgument(0))
+                        .refreshToken(invocation.getArgument(1))
+                        .build());
+        when(refreshTokenFamilies.rotate(any(), anyString())).thenAnswer(invocation -> {
+            VerifiedToken presented = invocation.getArgument(0);
+            if (!presented.tokenId().equals(currentTokenId)) {
+                return Rotation.REUSE_DETECTED;
+            }
+            currentTokenId = invocation.getArgument(1);
+            return Rotation.ROTATED;
+        });
+    }
+
+    @Test
+    void rotatedRefreshTokenCannotBeUsedAgain() {
+        String first = refreshToken("t1");
+
+        AuthResponse response = authService.refreshToken(new RefreshTokenRequest(first));
+
+        assertThat(response.getRefreshToken()).isNotEqualTo(first);
+        assertThatThrownBy(() -> authService.refreshToken(new RefreshTokenRequest(first)))
+                .isInstanceOf(TokenException.class)
+                .hasMessageContaining("already been used");
+        assertThat(authService.refreshToken(new RefreshTokenRequest(response.getRefreshToken()))).isNotNull();
+    }
+
+    @Test
+    void retryAfterConcurrentAccountChangeSucceeds() {
+        // The account changed between loading the user and reading the epoch
+        when(userRepository.findVersionById(user.getId())).thenReturn(Optional.of(4L), Optional.of(3L));
+        String token = refreshToken("t1");
+
+        assertThatThrownBy(() -> authService.refreshToken(new RefreshTokenRequest(token)))
+                .isInstanceOf(ServiceUnavailableException.class);
+        verify(refreshTokenFamilies, never()).rotate(any(), anyString());
+
+        // The client retries with the token it still holds
+        assertThat(authService.refreshToken(new RefreshTokenRequest(token)).getRefreshToken()).isNotEqualTo(token);
+        verify(refreshTokenFamilies, times(1)).rotate(any(), anyString());
+        verify(revocationService, never()).revokeFamily(any());
+    }
+
+    @Test
+    void readsTheUserPastTheSecondLevelCache() {
+        authService.refreshToken(new RefreshTokenRequest(refreshToken("t1")));
+
+        verify(userRepository).findCurrentByUsername("alice");
+        verify(userRepository, never()).findByUsername(any());
+    }
+
+    @Test
+    void loginHashesOutsideAnyTransaction() {
+        authService.login(new LoginRequest("alice", "secret"));
+
+        // Short read, then the hash with the connection released
+        InOrder order = inOrder(transactionManager, userRepository, passwordHashingService);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(userRepository).findByUsername("alice");
+        order.verify(transactionManager).commit(any());
+        order.verify(passwordHashingService).matches("secret", "old-hash");
+        order.verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    void loginUpgradesTheHashInItsOwnTransactionAfterHashing() {
+        when(passwordHashingService.upgradeEncoding("old-hash")).thenReturn(true);
+        when(passwordHashingService.encode("secret")).thenReturn("new-hash");
+
+        authService.login(new LoginRequest("alice", "secret"));
+
+        InOrder order = inOrder(transactionManager, userRepository, passwordHashingService);
+        order.verify(transactionManager).commit(any());
+        order.verify(passwordHashingService).matches("secret", "old-hash");
+        order.verify(passwordHashingService).encode("secret");
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(userRepository).findById(user.getId());
+        order.verify(transactionManager).commit(any());
+        assertThat(user.getPassword()).isEqualTo("new-hash");
+    }
+
+    private String refreshToken(String tokenId) {
+        return tokenProvider.generateRefreshToken(user, tokenId, FAMILY_ID);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.javaspring.service.impl;
+
+import com.example.javaspring.cache.EntityCacheInvalidator;
+import com.example.javaspring.config.DataConfig;
+import com.example.javaspring.entity.Project;
+import com.example.javaspring.entity.Task;
+import com.example.javaspring.entity.User;
+import com.example.javaspring.support.TestEntities;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Denormalized counters against the database: concurrent increments are never lost, and the
+ * reconciliation run on startup backfills rows written without them.
+ */
+@DataJpaTest
+@Import({DataConfig.class, EntityCounters.class, EntityCountersTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EntityCountersTest {
+
+    private static final int THREADS = 8;
+    private static final int INCREMENTS_PER_THREAD = 25;
+
+    @Autowired
+    private EntityCounters entityCounters;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private EntityCacheInvalidator entityCacheInvalidator;
+
+    private User owner;
+    private Project project;
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        // Written straight through the entities, bypassing EntityCounters, as rows from before the counters were
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            owner = TestEntities.user("owner");
+            User member = TestEntities.user("member");
+            entityManager.persist(owner);
+            entityManager.persist(member);
+            project = TestEntities.project(owner, Set.of(owner, member));
+            entityManager.persist(project);
+            task = TestEntities.task(project, owner, member, 0);
+            entityManager.persist(task);
+            entityManager.persist(TestEntities.task(project, owner, member, 1));
+            entityManager.persist(TestEntities.comment(task, member, 0));
+        });
+    }
+
+    @Test
+    void concurrentIncrementsAreNeverLost() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                // Each writer holds its own stale copy, as concurrent requests would
+                Project copy = Project.builder().id(project.getId()).build();
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < INCREMENTS_PER_THREAD; j++) {
+                        new TransactionTemplate(transactionManager)
+                                .executeWithoutResult(status -> entityCounters.adjustTasks(copy, 1));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+
+        assertThat(count("projects", "tasks_count", project.getId())).isEqualTo(THREADS * INCREMENTS_PER_THREAD);
+        verify(entityCacheInvalidator, atLeastOnce()).invalidate(Project.class, project.getId());
+    }
+
+    @Test
+    void startupReconciliationBackfillsCounters() {
+        assertThat(count("projects", "tasks_count", project.getId())).isZero();
+
+        entityCounters.onApplicationReady();
+
+        assertThat(count("projects", "tasks_count", project.getId())).isEqualTo(2);
+        assertThat(count("projects", "members_count", project.getId())).isEqualTo(2);
+        assertThat(count("tasks", "comments_count", task.getId())).isEqualTo(1);
+        verify(entityCacheInvalidator, atLeastOnce()).invalidate(Project.class, project.getId());
+        verify(entityCacheInvalidator).invalidate(Task.class, task.getId());
+
+        // Nothing left to repair
+        assertThat(entityCounters.reconcile()).isZero();
+    }
+
+    @Test
+    void reconciliationRecountsDriftedCounters() {
+        entityCounters.reconcile();
+        jdbcTemplate.update("UPDATE projects SET tasks_count = 17 WHERE id = ?", project.getId());
+
+        assertThat(entityCounters.reconcile()).isEqualTo(1);
+        assertThat(count("projects", "tasks_count", project.getId())).isEqualTo(2);
+        verify(entityCacheInvalidator, atLeastOnce()).invalidate(any(), any());
+    }
+
+    private int count(String table, String column, UUID id) {
+        return jdbcTemplate.queryForObject("SELECT " + column + " FROM " + table + " WHERE id = ?", Integer.class, id);
+    }
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.javaspring.service.impl;
+
+import com.example.javaspring.dto.response.CursorPageResponse;
+import com.example.javaspring.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetPaginatorTest {
+
+    private static final String SCOPE = "tasks";
+    private static final Comparator<Row> NEWEST_FIRST =
+            Comparator.comparing(Row::createdAt).thenComparing(Row::id).reversed();
+
+    private final KeysetPaginator paginator = new KeysetPaginator("cursor-test-secret");
+
+    // Pairs of rows share a timestamp, so the id tie-breaker is exercised on page boundaries
+    private final List<Row> rows = IntStream.range(0, 25)
+            .mapToObj(i -> new Row(LocalDateTime.of(2026, 1, 1, 0, 0).plusMinutes(i / 2), UUID.randomUUID()))
+            .sorted(NEWEST_FIRST)
+            .toList();
+
+    @Test
+    void walksForwardThroughEveryRowOnce() {
+        List<Row> seen = new ArrayList<>();
+        CursorPageResponse<Row> page = page(null, 7);
+        assertThat(page.isHasPrevious()).isFalse();
+        seen.addAll(page.getContent());
+
+        while (page.isHasNext()) {
+            page = page(page.getNextCursor(), 7);
+            assertThat(page.isHasPrevious()).isTrue();
+            seen.addAll(page.getContent());
+        }
+
+        assertThat(seen).containsExactlyElementsOf(rows);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void walksBackToTheSamePages() {
+        List<CursorPageResponse<Row>> forward = new ArrayList<>();
+        forward.add(page(null, 7));
+        while (forward.get(forward.size() - 1).isHasNext()) {
+            forward.add(page(forward.get(forward.size() - 1).getNextCursor(), 7));
+        }
+
+        CursorPageResponse<Row> page = forward.get(forward.size() - 1);
+        for (int i = forward.size() - 2; i >= 0; i--) {
+            page = page(page.getPrevCursor(), 7);
+            assertThat(page.getContent()).containsExactlyElementsOf(forward.get(i).getContent());
+            assertThat(page.isHasNext()).isTrue();
+        }
+        assertThat(page.isHasPrevious()).isFalse();
+    }
+
+    @Test
+    void clampsThePageSize() {
+        assertThat(page(null, 0).getContent()).hasSize(1);
+        assertThat(page(null, 1_000).getSize()).isEqualTo(KeysetPaginator.MAX_PAGE_SIZE);
+    }
+
+    @Test
+    void rejectsForgedAndForeignCursors() {
+        String cursor = page(null, 5).getNextCursor();
+        String payload = cursor.substring(0, cursor.indexOf('.'));
+        String signature = cursor.substring(cursor.indexOf('.') + 1);
+        String forged = payload.substring(0, payload.length() - 2) + "AA." + signature;
+
+        assertThatThrownBy(() -> page(forged, 5)).isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> paginator.page("comments-by-task:1", cursor, 5, query(), Row::createdAt, Row::id,
+                Function.identity())).isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> page("not-a-cursor", 5)).isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> page("%%%.%%%", 5)).isInstanceOf(ValidationException.class);
+    }
+
+    private CursorPageResponse<Row> page(String cursor, int size) {
+        return paginator.page(SCOPE, cursor, size, query(), Row::createdAt, Row::id, Function.identity());
+    }
+
+    // In-memory stand-in for the repository's keyset queries
+    private KeysetPaginator.KeysetQuery<Row> query() {
+        return new KeysetPaginator.KeysetQuery<>(
+                limit -> take(rows, limit),
+                (createdAt, id, limit) -> take(rows.stream()
+                        .filter(row -> NEWEST_FIRST.compare(row, new Row(createdAt, id)) > 0)
+                        .toList(), limit),
+                (createdAt, id, limit) -> take(rows.stream()
+                        .filter(row -> NEWEST_FIRST.compare(row, new Row(createdAt, id)) < 0)
+                        .sorted(NEWEST_FIRST.reversed())
+                        .toList(), limit));
+    }
+
+    private static List<Row> take(List<Row> rows, Limit limit) {
+        return rows.subList(0, Math.min(rows.size(), limit.max()));
+    }
+
+    private record Row(LocalDateTime createdAt, UUID id) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.javaspring.service.impl;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@code scripts/login_failure.lua} from many threads at once against a real Redis.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class LoginFailureScriptTest {
+
+    private static final int MAX_FAILED_ATTEMPTS = 5;
+    private static final int THREADS = 32;
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> LOGIN_FAILURE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/login_failure.lua"), List.class);
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void countsEveryConcurrentFailureAndLocksExactlyOnce() throws Exception {
+        String username = "alice";
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<List<?>>> calls = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            calls.add(() -> {
+                start.await();
+                return recordFailure(username);
+            });
+        }
+
+        List<List<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            List<Future<List<?>>> futures = new ArrayList<>();
+            for (Callable<List<?>> call : calls) {
+                futures.add(executor.submit(call));
+            }
+            start.countDown();
+            for (Future<List<?>> future : futures) {
+                results.add(future.get());
+            }
+        }
+
+        // Each counted attempt observes a distinct count; the one reaching the limit locks, and
+        // every attempt after the lock is rejected without incrementing
+        List<Long> unlocked = results.stream()
+                .filter(result -> !isLocked(result))
+                .map(LoginFailureScriptTest::attempts)
+                .sorted()
+                .toList();
+
+        assertThat(unlocked).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(results).filteredOn(LoginFailureScriptTest::isLocked)
+                .hasSize(THREADS - MAX_FAILED_ATTEMPTS + 1)
+                .allMatch(result -> attempts(result) == MAX_FAILED_ATTEMPTS);
+        assertThat(redisTemplate.opsForValue().get("failed_attempts:" + username)).isEqualTo("5");
+        assertThat(redisTemplate.hasKey("locked_account:" + username)).isTrue();
+        assertThat(redisTemplate.getExpire("failed_attempts:" + username)).isPositive();
+    }
+
+    @Test
+    void doesNotLockBelowTheLimit() {
+        String username = "bob";
+
+        for (int i = 1; i < MAX_FAILED_ATTEMPTS; i++) {
+            List<?> result = recordFailure(username);
+            assertThat(isLocked(result)).isFalse();
+            assertThat(attempts(result)).isEqualTo(i);
+        }
+        assertThat(redisTemplate.hasKey("locked_account:" + username)).isFalse();
+    }
+
+    private static List<?> recordFailure(String username) {
+        return redisTemplate.execute(
+                LOGIN_FAILURE_SCRIPT,
+                List.of("locked_account:" + username, "failed_attempts:" + username),
+                String.valueOf(MAX_FAILED_ATTEMPTS),
+                "86400",
+                "1800",
+                "2026-01-01T00:00",
+                "account-lock-invalidations",
+                username
+        );
+    }
+
+    private static boolean isLocked(List<?> result) {
+        return ((Number) result.get(0)).longValue() == 1;
+    }
+
+    private static long attempts(List<?> result) {
+        return ((Number) result.get(1)).longValue();
+    }
+}
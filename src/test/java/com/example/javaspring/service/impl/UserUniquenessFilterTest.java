@@ -0,0 +1,100 @@
+package com.example.javaspring.service.impl;
+
+import com.example.javaspring.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Which uniqueness checks the filter answers without a query, and what survives a rebuild.
+ */
+class UserUniquenessFilterTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final UserUniquenessFilter filter = new UserUniquenessFilter(userRepository,
+            mock(StringRedisTemplate.class), mock(RedisMessageListenerContainer.class), transactionManager,
+            meterRegistry, 1000);
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(userRepository.count()).thenReturn(1L);
+        when(userRepository.existsByUsername(anyString())).thenReturn(true);
+        when(userRepository.existsByEmail(anyString())).thenReturn(true);
+    }
+
+    @Test
+    void checksGoToTheDatabaseUntilTheFirstBuild() {
+        assertThat(filter.usernameExists("bob")).isTrue();
+        verify(userRepository).existsByUsername("bob");
+    }
+
+    @Test
+    void negativeAnswerSkipsTheQuery() {
+        when(userRepository.streamUsernamesAndEmails()).thenReturn(rows("alice", "alice@example.com"));
+        filter.rebuild();
+
+        assertThat(filter.usernameExists("bob")).isFalse();
+        assertThat(filter.emailExists("bob@example.com")).isFalse();
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(userRepository, never()).existsByEmail(anyString());
+        assertThat(meterRegistry.counter("user.uniqueness_filter.checks", "field", "username", "result", "negative")
+                .count()).isEqualTo(1);
+
+        // A hit, in any case, is confirmed with a query
+        assertThat(filter.usernameExists("ALICE")).isTrue();
+        verify(userRepository).existsByUsername("ALICE");
+    }
+
+    @Test
+    void rebuildKeepsValuesRecordedWhileLoading() {
+        when(userRepository.streamUsernamesAndEmails()).thenAnswer(invocation -> {
+            // Signups on this node and on another one land while the old filter is still in use
+            filter.add("carol", "carol@example.com");
+            filter.onMessage(new DefaultMessage(new byte[0], "username:dave".getBytes(StandardCharsets.UTF_8)), null);
+            return rows("alice", "alice@example.com");
+        });
+
+        assertThat(filter.rebuild()).isEqualTo(1);
+
+        assertThat(filter.usernameExists("carol")).isTrue();
+        assertThat(filter.emailExists("carol@example.com")).isTrue();
+        assertThat(filter.usernameExists("dave")).isTrue();
+        verify(userRepository).existsByUsername("carol");
+        verify(userRepository).existsByUsername("dave");
+    }
+
+    @Test
+    void rebuildDropsValuesThatAreNoLongerTaken() {
+        when(userRepository.streamUsernamesAndEmails())
+                .thenReturn(rows("alice", "alice@example.com"), Stream.empty());
+        filter.rebuild();
+        filter.rebuild();
+
+        assertThat(filter.usernameExists("alice")).isFalse();
+        verify(userRepository, never()).existsByUsername(anyString());
+    }
+
+    private static Stream<Object[]> rows(String username, String email) {
+        return Stream.<Object[]>of(new Object[]{username, email});
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.javaspring.support;
+
+import com.example.javaspring.dto.response.CommentResponse;
+import com.example.javaspring.dto.response.ProjectResponse;
+import com.example.javaspring.dto.response.ProjectSummaryResponse;
+import com.example.javaspring.dto.response.TaskResponse;
+import com.example.javaspring.dto.response.UserResponse;
+import com.example.javaspring.dto.response.UserSummaryResponse;
+import com.example.javaspring.enums.ProjectStatus;
+import com.example.javaspring.enums.Role;
+import com.example.javaspring.enums.TaskPriority;
+import com.example.javaspring.enums.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Realistic response DTOs for serialization tests and benchmarks.
+ */
+public final class SampleResponses {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 3, 14, 9, 26, 53);
+
+    private SampleResponses() {
+    }
+
+    public static UserResponse user() {
+        return UserResponse.builder()
+                .id(UUID.randomUUID())
+                .username("alice.martin")
+                .email("alice.martin@example.com")
+                .firstName("Alice")
+                .lastName("Martin")
+                .roles(Set.of(Role.USER, Role.DEVELOPER))
+                .enabled(true)
+                .createdAt(CREATED_AT)
+                .updatedAt(CREATED_AT.plusDays(3))
+                .build();
+    }
+
+    public static UserSummaryResponse userSummary(int n) {
+        return UserSummaryResponse.builder()
+                .id(UUID.randomUUID())
+                .username("user" + n)
+                .email("user" + n + "@example.com")
+                .firstName("First" + n)
+                .lastName("Last" + n)
+                .build();
+    }
+
+    public static ProjectResponse project(int members) {
+        Set<UserSummaryResponse> memberSet = new LinkedHashSet<>();
+        IntStream.range(0, members).forEach(i -> memberSet.add(userSummary(i)));
+
+        return ProjectResponse.builder()
+                .id(UUID.randomUUID())
+                .name("Website relaunch")
+                .description("Replace the marketing site and migrate the blog to the new CMS.")
+                .status(ProjectStatus.ACTIVE)
+                .deadline(CREATED_AT.plusMonths(2))
+                .createdAt(CREATED_AT)
+                .updatedAt(CREATED_AT.plusDays(1))
+                .owner(userSummary(-1))
+                .members(memberSet)
+                .tasksCount(42)
+                .build();
+    }
+
+    public static TaskResponse task(int comments) {
+        List<CommentResponse> commentList = IntStream.range(0, comments)
+                .mapToObj(i -> CommentResponse.builder()
+                        .id(UUID.randomUUID())
+                        .content("Checked the staging deploy, the header still overlaps the menu on narrow screens (" + i + ").")
+                        .createdAt(CREATED_AT.plusHours(i))
+                        .updatedAt(CREATED_AT.plusHours(i))
+                        .author(userSummary(i % 3))
+                        .build())
+                .toList();
+
+        return TaskResponse.builder()
+                .id(UUID.randomUUID())
+                .title("Fix responsive header")
+                .description("The header overlaps the navigation menu below 600px.")
+                .status(TaskStatus.IN_PROGRESS)
+                .priority(TaskPriority.HIGH)
+                .dueDate(CREATED_AT.plusDays(7))
+                .createdAt(CREATED_AT)
+                .updatedAt(CREATED_AT.plusDays(2))
+                .project(ProjectSummaryResponse.builder()
+                        .id(UUID.randomUUID())
+                        .name("Website relaunch")
+                        .status(ProjectStatus.ACTIVE)
+                        .deadline(CREATED_AT.plusMonths(2))
+                        .owner(userSummary(-1))
+                        .tasksCount(42)
+                        .build())
+                .assignee(userSummary(1))
+                .reporter(userSummary(2))
+                .comments(commentList)
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.javaspring.support;
+
+import com.example.javaspring.entity.Comment;
+import com.example.javaspring.entity.Project;
+import com.example.javaspring.entity.Task;
+import com.example.javaspring.entity.User;
+import com.example.javaspring.enums.Role;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Unsaved entities with every required column set. Names get a random suffix, so tests that
+ * commit their data do not collide on unique columns.
+ */
+public final class TestEntities {
+
+    private TestEntities() {
+    }
+
+    public static User user(String name) {
+        String username = name + "-" + UUID.randomUUID().toString().substring(0, 8);
+        return User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("{noop}secret")
+                .firstName(name)
+                .lastName("Test")
+                .roles(new HashSet<>(Set.of(Role.USER)))
+                .build();
+    }
+
+    public static Project project(User owner, Set<User> members) {
+        return Project.builder()
+                .name("Project of " + owner.getUsername())
+                .owner(owner)
+                .members(new HashSet<>(members))
+                .build();
+    }
+
+    public static Task task(Project project, User reporter, User assignee, int n) {
+        return Task.builder()
+                .title("Task " + n)
+                .project(project)
+                .reporter(reporter)
+                .assignee(assignee)
+                .build();
+    }
+
+    public static Comment comment(Task task, User author, int n) {
+        return Comment.builder()
+                .content("Comment " + n)
+                .task(task)
+                .author(author)
+                .build();
+    }
+}
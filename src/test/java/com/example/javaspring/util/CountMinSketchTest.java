@@ -0,0 +1,75 @@
+package com.example.javaspring.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CountMinSketchTest {
+
+    @Test
+    void neverUnderCountsAndStaysWithinTheErrorBound() {
+        double epsilon = 0.001;
+        CountMinSketch sketch = CountMinSketch.create(epsilon, 0.01);
+        Map<Long, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+
+        // Skewed traffic: a few hot keys and a long tail
+        int total = 200_000;
+        for (int i = 0; i < total; i++) {
+            long key = random.nextDouble() < 0.3 ? random.nextInt(10) : random.nextInt(50_000);
+            long hash = CountMinSketch.hash("task", key);
+            sketch.increment(hash);
+            exact.merge(hash, 1L, Long::sum);
+        }
+
+        long outOfBound = exact.entrySet().stream()
+                .filter(entry -> {
+                    long estimate = sketch.estimate(entry.getKey());
+                    assertThat(estimate).isGreaterThanOrEqualTo(entry.getValue());
+                    return estimate - entry.getValue() > epsilon * total;
+                })
+                .count();
+
+        // The bound holds with probability 1 - delta per key
+        assertThat(outOfBound).isLessThanOrEqualTo(exact.size() / 100);
+    }
+
+    @Test
+    void incrementReturnsTheUpdatedEstimate() {
+        CountMinSketch sketch = CountMinSketch.create(0.01, 0.01);
+        long hash = CountMinSketch.hash("project", "p1");
+
+        assertThat(sketch.increment(hash)).isEqualTo(1);
+        assertThat(sketch.increment(hash)).isEqualTo(2);
+        assertThat(sketch.estimate(hash)).isEqualTo(2);
+    }
+
+    @Test
+    void decayHalvesCounts() {
+        CountMinSketch sketch = CountMinSketch.create(0.01, 0.01);
+        long hash = CountMinSketch.hash("user", 7);
+        for (int i = 0; i < 100; i++) {
+            sketch.increment(hash);
+        }
+
+        sketch.decay();
+
+        assertThat(sketch.estimate(hash)).isEqualTo(50);
+    }
+
+    @Test
+    void separatesKeyspaces() {
+        assertThat(CountMinSketch.hash("task", 1)).isNotEqualTo(CountMinSketch.hash("user", 1));
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        assertThatThrownBy(() -> CountMinSketch.create(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CountMinSketch.create(0.01, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}